@@ -0,0 +1,103 @@
+package com.netflix.benchmarks;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.Episode;
+import com.netflix.entities.Media;
+import com.netflix.entities.Movie;
+import com.netflix.entities.TvShow;
+import com.netflix.entities.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fixtures of the benchmarks. A fraction of the titles, the selectivity, matches every filter at once: they share
+ * {@link #TARGET_CATEGORY}, {@link #TARGET_TITLE}, {@link #TARGET_DIRECTOR}, {@link #TARGET_YEAR} and
+ * {@link #TARGET_RATING}, which no other title has. The data only depends on the seed.
+ */
+final class BenchmarkData {
+    static final long SEED = 42;
+    static final Category TARGET_CATEGORY = Category.DRAMA;
+    static final String TARGET_TITLE = "Título Alvo";
+    static final String TARGET_DIRECTOR = "Diretora Alvo";
+    static final int TARGET_YEAR = 2020;
+    static final double TARGET_RATING = 9.0;
+    static final String PASSWORD = "senha-de-benchmark";
+
+    private static final Category[] OTHER_CATEGORIES = {Category.ADVENTURE, Category.COMEDY, Category.FANTASY,
+            Category.TERROR, Category.ANIMATION, Category.SCIENCE_FICTION, Category.ROMANCE};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param size        The number of titles; one in four is a TV show.
+     * @param selectivity The fraction of titles matching the target values.
+     */
+    static List<Media> catalog(int size, double selectivity) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Episode> episodes = episodes(8);
+        List<Media> catalog = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            boolean target = random.nextDouble() < selectivity;
+            String title = target ? TARGET_TITLE : "Título " + i;
+            String director = target ? TARGET_DIRECTOR : "Diretor " + random.nextInt(2_000);
+            LocalDate releaseDate = target ? LocalDate.of(TARGET_YEAR, 1, 1).plusDays(random.nextInt(365))
+                    : LocalDate.of(1990 + random.nextInt(30), 1, 1).plusDays(random.nextInt(365));
+            Category category = target ? TARGET_CATEGORY : OTHER_CATEGORIES[random.nextInt(OTHER_CATEGORIES.length)];
+            double rating = target ? TARGET_RATING : random.nextInt(90) / 10.0;
+
+            if (i % 4 == 3) {
+                catalog.add(new TvShow(title, "Descrição " + i, director, releaseDate, category, rating,
+                        Map.of(1, episodes)));
+            } else {
+                catalog.add(new Movie(title, "Descrição " + i, director, releaseDate, category, rating,
+                        80 + random.nextInt(80)));
+            }
+        }
+        return catalog;
+    }
+
+    static List<Episode> episodes(int count) {
+        List<Episode> episodes = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            episodes.add(new Episode("Episódio " + i, 40 + i % 20));
+        }
+        return episodes;
+    }
+
+    /**
+     * Users {@code usuario0@exemplo.com} to {@code usuario<count-1>@exemplo.com}, all with {@link #PASSWORD}.
+     *
+     * @param passwordHash The hash of {@link #PASSWORD}, computed once for every user.
+     */
+    static List<User> users(int count, String passwordHash) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User("Usuário " + i, email(i), null);
+            user.setPasswordHash(passwordHash);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static String email(int index) {
+        return "usuario" + index + "@exemplo.com";
+    }
+
+    /**
+     * @return Indexes in {@code [0, bound)} in a fixed random order, so lookups do not always hit the same entry.
+     */
+    static int[] shuffledIndexes(int count, int bound) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = random.nextInt(bound);
+        }
+        return indexes;
+    }
+}
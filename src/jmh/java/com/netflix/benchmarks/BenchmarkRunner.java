@@ -0,0 +1,155 @@
+package com.netflix.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Runs the benchmarks selected by the usual JMH options with the GC
+ * profiler, so every result also has the bytes allocated per operation, and compares the results with a baseline.
+ * <pre>
+ * java -jar target/benchmarks.jar [JMH options] [--baseline file] [--save-baseline]
+ * </pre>
+ * The baseline is a small CSV file kept in the repository ({@value #DEFAULT_BASELINE} by default). With
+ * {@code --save-baseline} the results replace it; otherwise every result is compared with the baseline entry of
+ * the same benchmark and parameters, and the process exits with status 1 if any got slower or allocates more by
+ * over {@value #THRESHOLD_PERCENT}% (and by more than the combined error of both runs).
+ */
+public class BenchmarkRunner {
+    static final String DEFAULT_BASELINE = "src/jmh/baseline.csv";
+    private static final int THRESHOLD_PERCENT = 10;
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final String HEADER = "benchmark;score;error;unit;bytesPerOp";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path baseline = Path.of(DEFAULT_BASELINE);
+        boolean save = false;
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                case "--save-baseline" -> save = true;
+                default -> jmhArgs.add(args[i]);
+            }
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(jmhArgs.toArray(String[]::new)))
+                .addProfiler(GCProfiler.class)
+                .build();
+        Map<String, Row> current = rows(new Runner(options).run());
+
+        if (save) {
+            Map<String, Row> merged = Files.exists(baseline) ? read(baseline) : new LinkedHashMap<>();
+            merged.putAll(current);
+            write(baseline, merged);
+            System.out.println("Baseline gravada em " + baseline + " (" + current.size() + " resultados).");
+        } else if (Files.exists(baseline)) {
+            if (compare(read(baseline), current) > 0) {
+                System.exit(1);
+            }
+        } else {
+            System.out.println("Nenhuma baseline em " + baseline + "; use --save-baseline para gravar estes resultados.");
+        }
+    }
+
+    private static Map<String, Row> rows(Collection<RunResult> results) {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            StringBuilder key = new StringBuilder(params.getBenchmark().substring(
+                    params.getBenchmark().lastIndexOf('.', params.getBenchmark().lastIndexOf('.') - 1) + 1));
+            for (String name : params.getParamsKeys()) {
+                key.append(' ').append(name).append('=').append(params.getParam(name));
+            }
+
+            Result<?> primary = result.getPrimaryResult();
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION);
+            rows.put(key.toString(), new Row(primary.getScore(), primary.getScoreError(), primary.getScoreUnit(),
+                    allocation != null ? allocation.getScore() : Double.NaN));
+        }
+        return rows;
+    }
+
+    /**
+     * Prints the changes from the baseline.
+     *
+     * @return The number of regressions.
+     */
+    private static int compare(Map<String, Row> baseline, Map<String, Row> current) {
+        int regressions = 0;
+        System.out.printf("%n%-90s %14s %14s %9s %12s%n", "Benchmark", "Baseline", "Atual", "Variação", "Bytes/op");
+        for (Map.Entry<String, Row> entry : current.entrySet()) {
+            Row now = entry.getValue();
+            Row before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(now.unit())) {
+                System.out.printf("%-90s %14s %14.3f %9s %12.0f%n", entry.getKey(), "-", now.score(), "nova",
+                        now.bytesPerOp());
+                continue;
+            }
+
+            // Scores in time per operation get worse when they grow; throughput scores when they shrink.
+            double sign = now.unit().endsWith("/op") ? 1 : -1;
+            double change = (now.score() - before.score()) / before.score() * 100;
+            boolean slower = sign * change > THRESHOLD_PERCENT
+                    && Math.abs(now.score() - before.score()) > now.error() + before.error();
+            boolean allocates = now.bytesPerOp() > before.bytesPerOp() * (1 + THRESHOLD_PERCENT / 100.0) + 16;
+            if (slower || allocates) {
+                regressions++;
+            }
+
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %12.0f%s%n", entry.getKey(), before.score(), now.score(),
+                    change, now.bytesPerOp(), slower || allocates ? "  REGRESSÃO" : "");
+        }
+        System.out.println(regressions == 0 ? "\nNenhuma regressão." : "\nRegressões: " + regressions);
+        return regressions;
+    }
+
+    private static Map<String, Row> read(Path file) throws IOException {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(";");
+            if (fields.length != 5 || line.equals(HEADER)) {
+                continue;
+            }
+            rows.put(fields[0], new Row(Double.parseDouble(fields[1]), Double.parseDouble(fields[2]), fields[3],
+                    Double.parseDouble(fields[4])));
+        }
+        return rows;
+    }
+
+    private static void write(Path file, Map<String, Row> rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Row> entry : rows.entrySet()) {
+                Row row = entry.getValue();
+                writer.write(entry.getKey() + ";" + row.score() + ";" + row.error() + ";" + row.unit() + ";" +
+                        row.bytesPerOp());
+                writer.newLine();
+            }
+        }
+    }
+
+    private record Row(double score, double error, String unit, double bytesPerOp) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.netflix.benchmarks;
+
+import com.netflix.entities.User;
+import com.netflix.repositories.impl.UserRepositoryImpl;
+import com.netflix.services.LoginService;
+import com.netflix.services.LoginThrottler;
+import com.netflix.services.PasswordVerificationService;
+import com.netflix.services.SessionManager;
+import com.netflix.services.UserService;
+import com.netflix.utils.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LoginService#authenticate(String, String)} by number of users, with the verification cache of
+ * {@link PasswordVerificationService} enabled or disabled. Without the cache every call derives the key, so the
+ * hashing iterations are a parameter too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+    @Param({"100", "10000", "100000"})
+    public int userCount;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    @Param({"1000", "210000"})
+    public int iterations;
+
+    private LoginService loginService;
+    private PasswordVerificationService passwordVerificationService;
+    private SessionManager sessionManager;
+    private LoginThrottler loginThrottler;
+    private String[] emails;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordHasher hasher = new PasswordHasher(iterations);
+        passwordVerificationService = new PasswordVerificationService(hasher, 1, 256,
+                cached ? PasswordVerificationService.DEFAULT_CACHE_TTL : Duration.ZERO,
+                PasswordVerificationService.DEFAULT_TIMEOUT);
+
+        UserRepositoryImpl userRepository = new UserRepositoryImpl();
+        userRepository.saveAll(BenchmarkData.users(userCount, hasher.hash(BenchmarkData.PASSWORD)));
+        sessionManager = new SessionManager();
+        loginThrottler = new LoginThrottler();
+        loginService = new LoginService(new UserService(userRepository, passwordVerificationService), sessionManager,
+                loginThrottler);
+
+        int[] indexes = BenchmarkData.shuffledIndexes(1024, userCount);
+        emails = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            emails[i] = BenchmarkData.email(indexes[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordVerificationService.close();
+        sessionManager.close();
+        loginThrottler.close();
+    }
+
+    @Benchmark
+    public User authenticate() throws Exception {
+        return loginService.authenticate(emails[next++ & (emails.length - 1)], BenchmarkData.PASSWORD);
+    }
+
+    @Benchmark
+    public User authenticateUnknownEmail() throws Exception {
+        return loginService.authenticate("ninguem@exemplo.com", BenchmarkData.PASSWORD);
+    }
+}
@@ -0,0 +1,72 @@
+package com.netflix.benchmarks;
+
+import com.netflix.entities.Media;
+import com.netflix.repositories.impl.MediaRepositoryImpl;
+import com.netflix.services.MediaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code MediaService.filterBy*} methods by catalog size and by the fraction of titles that match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MediaFilterBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"0.001", "0.01", "0.1", "0.5"})
+    public double selectivity;
+
+    private MediaService mediaService;
+    private List<Media> catalog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mediaService = new MediaService(new MediaRepositoryImpl());
+        mediaService.addAllMedia(BenchmarkData.catalog(catalogSize, selectivity));
+        catalog = mediaService.getAllMedia();
+    }
+
+    @Benchmark
+    public List<Media> filterByCategory() {
+        return mediaService.filterByCategory(catalog, BenchmarkData.TARGET_CATEGORY);
+    }
+
+    @Benchmark
+    public List<Media> filterByTitle() {
+        return mediaService.filterByTitle(catalog, BenchmarkData.TARGET_TITLE);
+    }
+
+    @Benchmark
+    public List<Media> filterByDirector() {
+        return mediaService.filterByDirector(catalog, BenchmarkData.TARGET_DIRECTOR);
+    }
+
+    @Benchmark
+    public List<Media> filterByRating() {
+        return mediaService.filterByRating(catalog, BenchmarkData.TARGET_RATING);
+    }
+
+    @Benchmark
+    public List<Media> filterByYearAndRating() {
+        return mediaService.filterByYearAndRating(catalog, BenchmarkData.TARGET_YEAR, BenchmarkData.TARGET_RATING);
+    }
+}
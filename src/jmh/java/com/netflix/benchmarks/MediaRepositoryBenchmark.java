@@ -0,0 +1,67 @@
+package com.netflix.benchmarks;
+
+import com.netflix.entities.Media;
+import com.netflix.repositories.impl.MediaRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of {@link MediaRepositoryImpl} by catalog size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MediaRepositoryBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private MediaRepositoryImpl repository;
+    private int[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new MediaRepositoryImpl();
+        repository.saveAll(BenchmarkData.catalog(catalogSize, 0.01));
+        ids = BenchmarkData.shuffledIndexes(1024, catalogSize);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = repository.findAll().get(ids[i]).getId();
+        }
+    }
+
+    @Benchmark
+    public Media findById() {
+        return repository.findById(ids[next++ & (ids.length - 1)]);
+    }
+
+    @Benchmark
+    public Media findByIdMissing() {
+        return repository.findById(-1);
+    }
+
+    @Benchmark
+    public List<Media> findAllMovies() {
+        return repository.findAllMovies();
+    }
+
+    @Benchmark
+    public List<Media> findAllTvShows() {
+        return repository.findAllTvShows();
+    }
+}
@@ -0,0 +1,58 @@
+package com.netflix.benchmarks;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.Episode;
+import com.netflix.entities.TvShow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TvShow#getInformation()} by number of seasons and episodes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TvShowBenchmark {
+    @Param({"1", "5", "20"})
+    public int seasons;
+
+    @Param({"8", "24"})
+    public int episodesPerSeason;
+
+    private TvShow tvShow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Episode> episodes = BenchmarkData.episodes(episodesPerSeason);
+        Map<Integer, List<Episode>> seasonMap = new TreeMap<>();
+        for (int season = 1; season <= seasons; season++) {
+            seasonMap.put(season, episodes);
+        }
+        tvShow = new TvShow("Série", "Uma série de benchmark.", "Diretora", LocalDate.of(2020, 1, 1),
+                Category.DRAMA, 8.5, seasonMap);
+    }
+
+    @Benchmark
+    public String getInformation() {
+        return tvShow.getInformation();
+    }
+}
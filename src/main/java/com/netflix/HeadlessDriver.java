@@ -0,0 +1,153 @@
+package com.netflix;
+
+import com.netflix.utils.ConsoleContext;
+import com.netflix.utils.ConsoleMessage;
+import com.netflix.utils.EndOfInputError;
+import com.netflix.utils.LatencyRecorder;
+import com.netflix.utils.TerminalRenderer;
+import org.fusesource.jansi.Ansi;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Drives {@link NexflixApp} without a terminal, feeding it the lines of a script as if a user typed them.
+ * <p>
+ * Every session runs on its own virtual thread with its own {@link ConsoleContext}, so many sessions can replay
+ * real menu flows against the same services at once. The placeholder {@code ${session}} in a script line is
+ * replaced by the number of the session, which lets the same script register distinct users. A session ends when
+ * its script runs out of lines.
+ */
+public class HeadlessDriver {
+    public static final String SESSION_PLACEHOLDER = "${session}";
+
+    private final Supplier<NexflixApp> appFactory;
+
+    /**
+     * @param appFactory Creates a new application for every session; the services behind it are shared.
+     */
+    public HeadlessDriver(Supplier<NexflixApp> appFactory) {
+        this.appFactory = appFactory;
+    }
+
+    /**
+     * Runs the script of a file in parallel sessions. Each session streams the file with its own buffered reader.
+     *
+     * @param script   The script, one input line per line.
+     * @param sessions The number of sessions.
+     * @param output   Where the screens of the sessions go; usually a null stream.
+     * @return The results of the run.
+     */
+    public Report run(Path script, int sessions, OutputStream output) {
+        return run(sessions, output, session -> {
+            BufferedReader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8);
+            return new ConsoleContext.LineSource() {
+                @Override
+                public String readLine() throws IOException {
+                    String line = reader.readLine();
+                    return line != null ? line.replace(SESSION_PLACEHOLDER, session) : null;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        });
+    }
+
+    /**
+     * Runs in-memory commands in parallel sessions.
+     *
+     * @param commands The input lines of every session.
+     * @param sessions The number of sessions.
+     * @param output   Where the screens of the sessions go; usually a null stream.
+     * @return The results of the run.
+     */
+    public Report run(List<String> commands, int sessions, OutputStream output) {
+        return run(sessions, output, session -> {
+            Iterator<String> lines = commands.iterator();
+            return () -> lines.hasNext() ? lines.next().replace(SESSION_PLACEHOLDER, session) : null;
+        });
+    }
+
+    private Report run(int sessions, OutputStream output, SourceFactory sources) {
+        LatencyRecorder commandLatency = new LatencyRecorder();
+        LatencyRecorder sessionLatency = new LatencyRecorder();
+        LongAdder lines = new LongAdder();
+        LongAdder failures = new LongAdder();
+        PrintStream sessionOutput = new PrintStream(output, false, StandardCharsets.UTF_8);
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= sessions; i++) {
+                String session = String.valueOf(i);
+                executor.submit(() -> {
+                    long sessionStartedAt = System.nanoTime();
+                    ConsoleContext context = null;
+                    try (ConsoleContext.LineSource source = sources.open(session)) {
+                        context = new ConsoleContext("script-" + session, source,
+                                new TerminalRenderer(sessionOutput, 24, 80), commandLatency);
+                        runSession(context);
+                    } catch (Exception e) {
+                        failures.increment();
+                        ConsoleMessage.println("Falha na sessão " + session + ": " + e.getMessage(), Ansi.Color.RED);
+                    } finally {
+                        if (context != null) {
+                            lines.add(context.getLinesRead());
+                        }
+                        sessionLatency.recordSince(sessionStartedAt);
+                    }
+                });
+            }
+        }
+
+        sessionOutput.flush();
+        return new Report(sessions, failures.sum(), lines.sum(), System.nanoTime() - startedAt, commandLatency, sessionLatency);
+    }
+
+    /**
+     * Runs one application on the current thread with the given context, until its input ends or the user exits.
+     */
+    public void runSession(ConsoleContext context) {
+        ConsoleContext.runWith(context, () -> {
+            try {
+                appFactory.get().run();
+            } catch (EndOfInputError e) {
+                // The script ended inside a menu; the session is over.
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface SourceFactory {
+        ConsoleContext.LineSource open(String session) throws IOException;
+    }
+
+    /**
+     * The outcome of a run. {@code commandLatency} is the time the application spent on each input line.
+     */
+    public record Report(int sessions, long failures, long lines, long elapsedNanos,
+                         LatencyRecorder commandLatency, LatencyRecorder sessionLatency) {
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("Sessões: %d (falhas: %d) | Linhas: %d | Tempo: %d ms | Linhas/s: %.0f%n"
+                            + "Por linha: %s%nPor sessão: %s",
+                    sessions, failures, lines, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    seconds > 0 ? lines / seconds : 0, commandLatency.summary(), sessionLatency.summary());
+        }
+    }
+}
@@ -1,14 +1,45 @@
 package com.netflix;
 
+import com.netflix.api.CatalogApiServer;
+import com.netflix.api.CatalogEventServer;
+import com.netflix.api.CatalogProtocolLoad;
+import com.netflix.api.CatalogProtocolServer;
 import com.netflix.entities.*;
 import com.netflix.repositories.MediaRepository;
 import com.netflix.repositories.UserRepository;
 import com.netflix.repositories.impl.MediaRepositoryImpl;
 import com.netflix.repositories.impl.UserRepositoryImpl;
+import com.netflix.services.ChangeFeed;
+import com.netflix.services.HomeViewService;
 import com.netflix.services.LoginService;
+import com.netflix.services.LoginThrottler;
 import com.netflix.services.MediaService;
+import com.netflix.services.PasswordVerificationService;
+import com.netflix.services.PlaybackAnalyticsService;
+import com.netflix.services.PlaybackCheckpointService;
+import com.netflix.services.PlaybackEngine;
+import com.netflix.services.PlaybackHeartbeatPipeline;
+import com.netflix.services.PopularityService;
+import com.netflix.services.RecommendationService;
+import com.netflix.services.SessionManager;
+import com.netflix.services.SimilarTitlesService;
+import com.netflix.services.SyntheticDataGenerator;
+import com.netflix.services.UniqueViewerService;
 import com.netflix.services.UserService;
+import com.netflix.services.ViewerStatsService;
+import com.netflix.services.WatchHistoryService;
 import com.netflix.utils.ConsoleMessage;
+import com.netflix.utils.MediaTable;
+import com.netflix.utils.PasswordHasher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
 
 public class Main {
     public static void main(String[] args) {
@@ -16,16 +47,181 @@ public class Main {
         UserRepository userRepository = new UserRepositoryImpl();
 
         MediaService mediaService = new MediaService(mediaRepository);
-        UserService userService = new UserService(userRepository);
-        LoginService loginService = new LoginService(userService);
+        PasswordHasher passwordHasher = new PasswordHasher(Integer.getInteger("netflix.password.iterations", PasswordHasher.DEFAULT_ITERATIONS));
+        PasswordVerificationService passwordVerificationService = new PasswordVerificationService(passwordHasher);
+        UserService userService = new UserService(userRepository, passwordVerificationService);
+        SessionManager sessionManager = new SessionManager();
+        LoginThrottler loginThrottler = new LoginThrottler();
+        LoginService loginService = new LoginService(userService, sessionManager, loginThrottler);
+        Path dataDir = Path.of(System.getProperty("netflix.data.dir", "data"));
+        ChangeFeed changeFeed = new ChangeFeed(dataDir.resolve("changes.log"));
+        mediaService.addChangeListener(changeFeed);
+        userService.addChangeListener(changeFeed);
+        PlaybackEngine playbackEngine = new PlaybackEngine();
+        PlaybackCheckpointService playbackCheckpointService = new PlaybackCheckpointService(dataDir.resolve("checkpoints.log"));
+        WatchHistoryService watchHistoryService = new WatchHistoryService();
+        PlaybackAnalyticsService playbackAnalyticsService = new PlaybackAnalyticsService();
+        PopularityService popularityService = new PopularityService(mediaService);
+        userService.addMyListListener(popularityService);
+        UniqueViewerService uniqueViewerService = new UniqueViewerService();
+        RecommendationService recommendationService = new RecommendationService(mediaService);
+        userService.addMyListListener(recommendationService);
+        SimilarTitlesService similarTitlesService = new SimilarTitlesService(mediaService);
+        mediaService.addChangeListener(similarTitlesService);
+        HomeViewService homeViewService = new HomeViewService(mediaService, playbackCheckpointService, watchHistoryService,
+                popularityService);
+        userService.addMyListListener(homeViewService);
+        mediaService.addChangeListener(homeViewService);
+
+        PlaybackHeartbeatPipeline heartbeatPipeline = new PlaybackHeartbeatPipeline();
+        heartbeatPipeline.addConsumer("checkpoints", playbackCheckpointService);
+        heartbeatPipeline.addConsumer("watch-history", watchHistoryService);
+        heartbeatPipeline.addConsumer("analytics", playbackAnalyticsService);
+        heartbeatPipeline.addConsumer("popularity", popularityService);
+        heartbeatPipeline.addConsumer("unique-viewers", uniqueViewerService);
+        heartbeatPipeline.addConsumer("home-views", homeViewService);
+        heartbeatPipeline.start();
+        playbackEngine.addListener(playbackCheckpointService);
+        playbackEngine.addListener(heartbeatPipeline);
+
+        ViewerStatsService viewerStatsService = new ViewerStatsService();
+        playbackEngine.addListener(viewerStatsService);
+        mediaService.addChangeListener(viewerStatsService);
 
         try {
-            userService.addUser(new User(1, "Usuário Administrador", "admin@email.com", "root", true));
+            // The built-in admin keeps its well-known password, so it is stored already hashed instead of going
+            // through the length rule for passwords chosen by users.
+            User admin = new User(1, "Usuário Administrador", "admin@email.com", null, true);
+            admin.setPasswordHash(userService.hashPassword("root"));
+            userService.addUser(admin);
         } catch (Exception e) {
             ConsoleMessage.println("Não foi possível instanciar o usuário root");
         }
 
-        NexflixApp nexflixApp = new NexflixApp(loginService, userService, mediaService);
-        nexflixApp.run();
+        MediaTable mediaTable = new MediaTable();
+        mediaService.addChangeListener(mediaTable);
+
+        String generatedTitles = option(args, "--generate");
+        if (generatedTitles != null) {
+            int titles = Integer.parseInt(generatedTitles);
+            int users = Integer.parseInt(Objects.requireNonNullElse(option(args, "--users"), String.valueOf(titles / 10)));
+            long seed = Long.parseLong(Objects.requireNonNullElse(option(args, "--seed"),
+                    String.valueOf(SyntheticDataGenerator.DEFAULT_SEED)));
+            try {
+                ConsoleMessage.println(new SyntheticDataGenerator(seed).populate(mediaService, userService, titles, users,
+                        SyntheticDataGenerator.DEFAULT_PASSWORD).toString());
+            } catch (Exception e) {
+                ConsoleMessage.println("Não foi possível gerar os dados: " + e.getMessage());
+            }
+        }
+
+        Supplier<NexflixApp> appFactory = () -> new NexflixApp(loginService, userService, mediaService, playbackEngine,
+                playbackCheckpointService, viewerStatsService, uniqueViewerService, recommendationService,
+                similarTitlesService, homeViewService, mediaTable);
+
+        String script = option(args, "--script");
+        String httpPort = option(args, "--http");
+        String binaryPort = option(args, "--binary");
+        String eventsPort = option(args, "--events");
+        String binaryLoadSeconds = option(args, "--binary-load");
+        if (binaryLoadSeconds != null) {
+            measureBinaryProtocol(mediaService, Duration.ofSeconds(Long.parseLong(binaryLoadSeconds)));
+        } else if (httpPort != null || binaryPort != null || eventsPort != null) {
+            serve(httpPort, binaryPort, eventsPort, loginService, userService, mediaService, changeFeed);
+        } else if (script != null) {
+            int sessions = Integer.parseInt(Objects.requireNonNullElse(option(args, "--sessions"), "1"));
+            HeadlessDriver.Report report = new HeadlessDriver(appFactory)
+                    .run(Path.of(script), sessions, sessions == 1 ? System.out : OutputStream.nullOutputStream());
+            ConsoleMessage.println(report.toString());
+        } else {
+            appFactory.get().run();
+        }
+        ConsoleMessage.flush();
+
+        playbackEngine.close();
+        heartbeatPipeline.close();
+        viewerStatsService.close();
+        recommendationService.close();
+        playbackCheckpointService.close();
+        changeFeed.close();
+    }
+
+    /**
+     * Runs the HTTP API, the binary catalog protocol and/or the catalog event stream until the process is
+     * interrupted.
+     */
+    private static void serve(String httpPort, String binaryPort, String eventsPort, LoginService loginService,
+                              UserService userService, MediaService mediaService, ChangeFeed changeFeed) {
+        CountDownLatch stopped = new CountDownLatch(1);
+        try {
+            CatalogApiServer apiServer = httpPort == null ? null : new CatalogApiServer(
+                    new InetSocketAddress(Integer.parseInt(httpPort)), loginService, userService, mediaService);
+            CatalogProtocolServer protocolServer = binaryPort == null ? null : new CatalogProtocolServer(
+                    new InetSocketAddress(Integer.parseInt(binaryPort)), mediaService);
+            CatalogEventServer eventServer = eventsPort == null ? null : new CatalogEventServer(
+                    new InetSocketAddress(Integer.parseInt(eventsPort)), changeFeed, mediaService);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (apiServer != null) {
+                    apiServer.close();
+                    ConsoleMessage.println(apiServer.metricsSummary());
+                }
+                if (protocolServer != null) {
+                    protocolServer.close();
+                    ConsoleMessage.println("Requisições do protocolo binário: " + protocolServer.getRequestCount());
+                }
+                if (eventServer != null) {
+                    eventServer.close();
+                    ConsoleMessage.println(eventServer.summary());
+                }
+                ConsoleMessage.flush();
+                stopped.countDown();
+            }));
+
+            if (apiServer != null) {
+                apiServer.start();
+                ConsoleMessage.println("API disponível em http://localhost:" + apiServer.getAddress().getPort() + "/api/");
+            }
+            if (protocolServer != null) {
+                protocolServer.start();
+                ConsoleMessage.println("Protocolo binário disponível na porta " + protocolServer.getAddress().getPort());
+            }
+            if (eventServer != null) {
+                eventServer.start();
+                ConsoleMessage.println("Eventos do catálogo em http://localhost:" + eventServer.getAddress().getPort() +
+                        CatalogEventServer.PATH);
+            }
+            ConsoleMessage.flush();
+            stopped.await();
+        } catch (IOException e) {
+            ConsoleMessage.println("Não foi possível iniciar o servidor: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Measures the binary catalog protocol on loopback, with the server in this process.
+     */
+    private static void measureBinaryProtocol(MediaService mediaService, Duration duration) {
+        int connections = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        try (CatalogProtocolServer server = new CatalogProtocolServer(new InetSocketAddress("127.0.0.1", 0), mediaService)) {
+            server.start();
+            ConsoleMessage.println(CatalogProtocolLoad.run(server, connections, 32, duration).toString());
+        } catch (Exception e) {
+            ConsoleMessage.println("Não foi possível medir o protocolo binário: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The value following the given option in the command line, or null if the option is absent.
+     */
+    private static String option(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,67 @@
 package com.netflix;
 
 import com.netflix.entities.*;
+import com.netflix.services.HomeViewService;
 import com.netflix.services.LoginService;
 import com.netflix.services.MediaService;
+import com.netflix.services.PlaybackCheckpointService;
+import com.netflix.services.PlaybackEngine;
+import com.netflix.services.PlaybackListener;
+import com.netflix.services.RecommendationService;
+import com.netflix.services.SimilarTitlesService;
+import com.netflix.services.UniqueViewerService;
 import com.netflix.services.UserService;
+import com.netflix.services.ViewerStatsService;
+import com.netflix.utils.ConsoleContext;
 import com.netflix.utils.ConsoleMessage;
 import com.netflix.utils.Formatter;
 import com.netflix.utils.InputValidator;
+import com.netflix.utils.MediaTable;
 import de.vandermeer.asciitable.AsciiTable;
 import de.vandermeer.skb.interfaces.transformers.textformat.TextAlignment;
 import org.fusesource.jansi.Ansi;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class NexflixApp {
     private final LoginService loginService;
     private final UserService userService;
     private final MediaService mediaService;
+    private final PlaybackEngine playbackEngine;
+    private final PlaybackCheckpointService playbackCheckpointService;
+    private final ViewerStatsService viewerStatsService;
+    private final UniqueViewerService uniqueViewerService;
+    private final RecommendationService recommendationService;
+    private final SimilarTitlesService similarTitlesService;
+    private final HomeViewService homeViewService;
+    private final MediaTable mediaTable;
     private boolean hasFilters;
     private boolean continueFilter;
+    private String sessionToken;
 
-    public NexflixApp(LoginService loginService, UserService userService, MediaService mediaService) {
+    public NexflixApp(LoginService loginService, UserService userService, MediaService mediaService,
+                      PlaybackEngine playbackEngine, PlaybackCheckpointService playbackCheckpointService,
+                      ViewerStatsService viewerStatsService, UniqueViewerService uniqueViewerService,
+                      RecommendationService recommendationService, SimilarTitlesService similarTitlesService,
+                      HomeViewService homeViewService, MediaTable mediaTable) {
         this.loginService = loginService;
         this.userService = userService;
         this.mediaService = mediaService;
+        this.playbackEngine = playbackEngine;
+        this.playbackCheckpointService = playbackCheckpointService;
+        this.viewerStatsService = viewerStatsService;
+        this.uniqueViewerService = uniqueViewerService;
+        this.recommendationService = recommendationService;
+        this.similarTitlesService = similarTitlesService;
+        this.homeViewService = homeViewService;
+        this.mediaTable = mediaTable;
         this.hasFilters = false;
         this.continueFilter = false;
     }
@@ -41,7 +74,7 @@ public class NexflixApp {
      */
     public void run() {
         while (true) {
-            if (loginService.getLoggedInUser() == null) {
+            if (getLoggedInUser() == null) {
                 clearConsole();
                 ConsoleMessage.printLogo();
                 ConsoleMessage.print("Bem-vindo(a) à Netflix! ");
@@ -78,7 +111,7 @@ public class NexflixApp {
             String email = InputValidator.getString("Digite seu e-mail:");
             String password = InputValidator.getString("Digite sua senha:");
 
-            loginService.login(email, password);
+            sessionToken = loginService.login(email, password, ConsoleContext.current().getClientId());
 
 
             displayMenuOptions();
@@ -116,9 +149,14 @@ public class NexflixApp {
      * The loop continues until the user logs out or selects an invalid option.
      */
     private void displayMenuOptions() {
-        boolean showAdminOptions = loginService.getLoggedInUser().isAdmin();
+        boolean showAdminOptions = getLoggedInUser().isAdmin();
 
         while (true) {
+            if (getLoggedInUser() == null) {
+                ConsoleMessage.println("Sessão expirada. Faça login novamente.", Ansi.Color.RED);
+                return;
+            }
+
             clearConsole();
             showLoggedUserInformation();
             ConsoleMessage.println("Escolha uma opção:");
@@ -153,13 +191,14 @@ public class NexflixApp {
                     return;
                 case 5:
                     if (showAdminOptions) {
-                        loginService.logout();
+                        loginService.logout(sessionToken);
+                        sessionToken = null;
                         return;
                     }
                     ConsoleMessage.printInvalidOptionMessage();
                     break;
                 case 6:
-                    if (loginService.getLoggedInUser() != null && !(showAdminOptions)) {
+                    if (getLoggedInUser() != null && !(showAdminOptions)) {
                         clearConsole();
                         displayProfileOptions();
                         break;
@@ -175,7 +214,8 @@ public class NexflixApp {
 
     /**
      * Displays options for interacting with a list of media items.
-     * Allows selection of media, filtering, resetting filters, or exiting.
+     * Allows selection of media, filtering, resetting filters, paging, or exiting.
+     * Only the current page of the list is rendered.
      *
      * @param mediaList The list of media items to display and interact with.
      */
@@ -186,14 +226,23 @@ public class NexflixApp {
         }
 
         boolean isListOfMovies = mediaList.stream().anyMatch(media -> media instanceof Movie);
+        int pageCount = mediaTable.getPageCount(mediaList.size());
+        int page = 0;
         this.continueFilter = true;
 
         while (this.continueFilter) {
+            clearConsole();
             displayCatalogTitle(isListOfMovies);
-            showMediaList(mediaList);
+            showMediaPage(mediaList, page, pageCount);
 
-            int option = InputValidator.getInteger(getMediaListOptions());
-            handleMediaListOption(option, mediaList, isListOfMovies);
+            int option = InputValidator.getInteger(getMediaListOptions(pageCount > 1));
+            if (option == 5 && pageCount > 1) {
+                page = Math.min(page + 1, pageCount - 1);
+            } else if (option == 6 && pageCount > 1) {
+                page = Math.max(page - 1, 0);
+            } else {
+                handleMediaListOption(option, mediaList, isListOfMovies);
+            }
         }
     }
 
@@ -213,13 +262,15 @@ public class NexflixApp {
     private void displayMediaOptions(Media media) {
         clearConsole();
         ConsoleMessage.println(media.getInformation());
+        ConsoleMessage.println("Espectadores únicos (7 dias): " + uniqueViewerService.countByMediaLastDays(media.getId(), 7));
+        showSimilarTitles(media);
 
         while (true) {
             int choice = InputValidator.getInteger(getMediaOptions());
             switch (choice) {
                 case 1:
-                    if (media instanceof Movie) {
-                        displayWatchingOptions(media, null);
+                    if (media instanceof Movie movie) {
+                        displayWatchingOptions(movie);
                     } else if (media instanceof TvShow) {
                         displayTvShowSeasonsOptions((TvShow) media);
                     }
@@ -233,18 +284,36 @@ public class NexflixApp {
         }
     }
 
+    /**
+     * Displays the "Títulos semelhantes" row of a title, if any similar title is found.
+     *
+     * @param media The title being displayed.
+     */
+    private void showSimilarTitles(Media media) {
+        List<Media> similar = similarTitlesService.getSimilar(media.getId(), 5);
+
+        if (similar.isEmpty()) {
+            return;
+        }
+
+        ConsoleMessage.println("Títulos semelhantes:", Ansi.Color.YELLOW);
+        similar.forEach(title -> ConsoleMessage.println("  [" + title.getId() + "] " + title.getTitle()));
+    }
+
     /**
      * Displays the options for selecting a season and episode of a TV show. <p>
      * Allows the user to choose a season from the available seasons of the TV show.
-     * Once a season is chosen, displays the episodes of that season and prompts the user to choose an episode.
+     * Once a season is chosen, displays the episodes of that season and prompts the user to choose an episode
+     * or to jump to a given minute of the season.
      * <p>
-     * After selecting an episode, displays the watching options.
+     * After selecting an episode, plays it and keeps offering the next one (binge mode).
      * <p>
      * The method loops until the user selects valid options for both season and episode.
      *
      * @param tvShow The TV show for which to display seasons and episodes.
      */
     private void displayTvShowSeasonsOptions(TvShow tvShow) {
+        EpisodeSequence sequence = tvShow.getEpisodeSequence();
         List<Episode> episodeList;
 
         while (true) {
@@ -260,18 +329,25 @@ public class NexflixApp {
             if (episodeList == null) {
                 ConsoleMessage.printInvalidOptionMessage();
             } else {
+                int jumpOption = episodeList.size() + 1;
+
                 while (true) {
                     ConsoleMessage.println("Escolha um episódio:");
                     for (int i = 0; i < episodeList.size(); i++) {
                         ConsoleMessage.println("[" + (i + 1) + "] " + episodeList.get(i).getTitle());
                     }
+                    ConsoleMessage.println("[" + jumpOption + "] Ir para um minuto da temporada");
 
-                    int episodeNumber = InputValidator.getInteger("Escolha o número do episódio:") - 1;
+                    int option = InputValidator.getInteger("Escolha o número do episódio:");
 
-                    if (episodeNumber < 0 || episodeNumber >= episodeList.size()) {
+                    if (option == jumpOption) {
+                        jumpToSeasonMinute(tvShow, sequence, seasonNumber);
+                        return;
+                    } else if (option < 1 || option > episodeList.size()) {
                         ConsoleMessage.printInvalidOptionMessage();
                     } else {
-                        displayWatchingOptions(tvShow, episodeList.get(episodeNumber));
+                        int index = sequence.indexOf(seasonNumber, option);
+                        bingeWatch(tvShow, sequence, index, askResumePosition(tvShow, seasonNumber, option));
                         return;
                     }
                 }
@@ -280,69 +356,191 @@ public class NexflixApp {
     }
 
     /**
-     * Displays options for watching a media item (movie or episode), including pause/resume and exit.
-     * Logs "Fim do episódio." or "Fim do filme." when the media reaches its end.
+     * Prompts for a minute of the season and starts playing the episode that is on at that point.
      *
-     * @param media   The media item being watched (either Movie or Episode).
-     * @param episode The episode being watched, if applicable.
+     * @param tvShow       The TV show being watched.
+     * @param sequence     The episode sequence of the show.
+     * @param seasonNumber The chosen season.
      */
-    private void displayWatchingOptions(Media media, Episode episode) {
-        boolean isPaused = false;
-        int startWatchingTime = (int) (System.currentTimeMillis() / 1000);
-        int pauseStartTime = 0;
-        int elapsedTime;
-        int totalTime = (episode != null) ? episode.getDuration() * 60 : ((media instanceof Movie) ? ((Movie) media).getDurationInMinutes() * 60 : 0);
+    private void jumpToSeasonMinute(TvShow tvShow, EpisodeSequence sequence, int seasonNumber) {
+        long seasonMinutes = sequence.getSeasonDurationSeconds(seasonNumber) / 60;
+        int minute = InputValidator.getInteger("Digite o minuto da temporada (1-" + seasonMinutes + "):");
 
-        while (true) {
-            elapsedTime = isPaused ? pauseStartTime - startWatchingTime : (int) (System.currentTimeMillis() / 1000) - startWatchingTime;
+        int index = sequence.indexAtSeasonOffset(seasonNumber, (minute - 1) * 60L);
+        if (index < 0) {
+            ConsoleMessage.printInvalidOptionMessage();
+            return;
+        }
 
-            String endMessage = (episode != null) ? "Fim do episódio." : "Fim do filme.";
+        long offsetInSeason = sequence.getStartSeconds(index) - sequence.getStartSeconds(sequence.indexOf(seasonNumber, 1));
+        bingeWatch(tvShow, sequence, index, Duration.ofSeconds((minute - 1) * 60L - offsetInSeason));
+    }
 
-            if (!isPaused && episode != null) {
-                if (elapsedTime >= totalTime) {
-                    ConsoleMessage.println(endMessage);
-                    return;
+    /**
+     * Plays an episode and, every time one ends, offers to continue with the next episode of the sequence.
+     *
+     * @param tvShow        The TV show being watched.
+     * @param sequence      The episode sequence of the show.
+     * @param index         The global index of the first episode to play.
+     * @param startPosition Where the first episode starts.
+     */
+    private void bingeWatch(TvShow tvShow, EpisodeSequence sequence, int index, Duration startPosition) {
+        int current = index;
+        Duration position = startPosition;
+
+        while (watch(tvShow, sequence.getEpisode(current), sequence.getSeasonNumber(current),
+                sequence.getEpisodeNumber(current), position)) {
+            current = sequence.next(current);
+
+            if (current < 0) {
+                ConsoleMessage.println("Você chegou ao fim da série!", Ansi.Color.GREEN);
+                return;
+            }
+
+            ConsoleMessage.println("A seguir: T" + sequence.getSeasonNumber(current) + "E" + sequence.getEpisodeNumber(current) +
+                    " - " + sequence.getEpisode(current).getTitle());
+
+            if (InputValidator.getInteger("[1] Assistir próximo episódio\n[2] Voltar") != 1) {
+                return;
+            }
+            position = Duration.ZERO;
+        }
+    }
+
+    /**
+     * Displays options for watching a movie, resuming from the last checkpoint if the user wants to.
+     *
+     * @param movie The movie to watch.
+     */
+    private void displayWatchingOptions(Movie movie) {
+        watch(movie, null, 0, 0, askResumePosition(movie, 0, 0));
+    }
+
+    /**
+     * Displays options for watching a media item (movie or episode), including pause/resume and exit.
+     * Playback runs in the {@link PlaybackEngine}; this screen is only one client of the session. While the screen
+     * waits for input it observes the session and redraws itself on every engine tick, so the renderer writes the
+     * changed progress lines as a small diff.
+     * Logs "Fim do episódio." or "Fim do filme." when the media reaches its end.
+     *
+     * @param media         The media item being watched (either Movie or TvShow).
+     * @param episode       The episode being watched, if applicable.
+     * @param seasonNumber  The season of the episode, or 0 for movies.
+     * @param episodeNumber The 1-based number of the episode in its season, or 0 for movies.
+     * @param startPosition Where playback starts.
+     * @return True if the media played until the end, false if the user left before.
+     */
+    private boolean watch(Media media, Episode episode, int seasonNumber, int episodeNumber, Duration startPosition) {
+        String endMessage = (episode != null) ? "Fim do episódio." : "Fim do filme.";
+        EpisodeSequence sequence = (media instanceof TvShow tvShow) ? tvShow.getEpisodeSequence() : null;
+        int index = (sequence != null) ? sequence.indexOf(seasonNumber, episodeNumber) : -1;
+
+        PlaybackSession session = playbackEngine.start(getLoggedInUser().getId(), getSelectedProfileId(),
+                media, episode, seasonNumber, episodeNumber, startPosition);
+
+        // The engine thread only redraws while this thread is blocked on input, never in the middle of a frame.
+        ConsoleContext context = ConsoleContext.current();
+        Object screen = new Object();
+        boolean[] waitingForInput = {false};
+        playbackEngine.observe(session.getId(), new PlaybackListener() {
+            @Override
+            public void onTick(PlaybackSession observed, long positionNanos) {
+                synchronized (screen) {
+                    if (waitingForInput[0]) {
+                        ConsoleContext.runWith(context, () -> drawWatchScreen(session, sequence, index));
+                    }
                 }
-                ConsoleMessage.printTv(Formatter.formatTitle(episode.getTitle()), isPaused, elapsedTime, totalTime);
-            } else if (!isPaused && media instanceof Movie) {
-                if (elapsedTime >= totalTime) {
+            }
+        });
+
+        try {
+            while (true) {
+                if (session.getState() == PlaybackState.ENDED) {
                     ConsoleMessage.println(endMessage);
-                    return;
+                    return true;
+                }
+
+                synchronized (screen) {
+                    drawWatchScreen(session, sequence, index);
+                    ConsoleMessage.flush();
+                    waitingForInput[0] = true;
+                }
+                String line;
+                try {
+                    line = context.readLine().strip();
+                } finally {
+                    synchronized (screen) {
+                        waitingForInput[0] = false;
+                    }
+                }
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                switch (parseOption(line)) {
+                    case 1 -> playbackEngine.togglePause(session.getId());
+                    case 2 -> {
+                        return false;
+                    }
+                    default -> ConsoleMessage.printInvalidOptionMessage();
                 }
-                ConsoleMessage.printTv(Formatter.formatTitle(media.getTitle()), isPaused, elapsedTime, totalTime);
-            } else {
-                String title = (episode != null) ? episode.getTitle() : media.getTitle();
-                ConsoleMessage.printTv(Formatter.formatTitle(title), isPaused, elapsedTime, totalTime);
             }
+        } finally {
+            playbackEngine.stop(session.getId());
+        }
+    }
 
-            int choice = InputValidator.getInteger(getMediaWatchingOptions(isPaused));
-            switch (choice) {
+    /**
+     * Draws the playback screen of a session: the TV, the time left in the season and the options.
+     */
+    private void drawWatchScreen(PlaybackSession session, EpisodeSequence sequence, int index) {
+        long position = session.getPositionSeconds();
+        ConsoleMessage.printTv(Formatter.formatTitle(session.getTitle()), session.isPaused(),
+                (int) position, (int) session.getDurationSeconds());
+
+        if (index >= 0) {
+            ConsoleMessage.println("Restante na temporada: " +
+                    Formatter.formatTime((int) sequence.getRemainingInSeasonSeconds(index, position)));
+        }
+        ConsoleMessage.println(getMediaWatchingOptions(session.isPaused()));
+    }
+
+    /**
+     * @return The number at the start of the line, or -1 if it does not start with a positive number.
+     */
+    private static int parseOption(String line) {
+        try {
+            int option = Integer.parseInt(line.split(" ", 2)[0]);
+            return option > 0 ? option : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Offers to resume playback from the saved checkpoint of the given title, if there is one.
+     *
+     * @return The position where playback should start.
+     */
+    private Duration askResumePosition(Media media, int seasonNumber, int episodeNumber) {
+        PlaybackCheckpoint checkpoint = playbackCheckpointService.find(getLoggedInUser().getId(), getSelectedProfileId(),
+                media.getId(), seasonNumber, episodeNumber);
+
+        if (checkpoint == null || checkpoint.getPositionSeconds() <= 0) {
+            return Duration.ZERO;
+        }
+
+        ConsoleMessage.println("Você parou em " + Formatter.formatTime((int) checkpoint.getPositionSeconds()) + ".");
+        while (true) {
+            switch (InputValidator.getInteger("[1] Continuar de onde parou\n[2] Começar do início")) {
                 case 1:
-                    if (isPaused) {
-                        int pauseEndTime = (int) (System.currentTimeMillis() / 1000);
-                        int pauseDuration = pauseEndTime - pauseStartTime;
-                        startWatchingTime += pauseDuration;
-                        pauseStartTime = 0;
-                    } else {
-                        pauseStartTime = (int) (System.currentTimeMillis() / 1000);
-                    }
-                    isPaused = !isPaused;
-                    break;
+                    return Duration.ofSeconds(checkpoint.getPositionSeconds());
                 case 2:
-                    return;
+                    return Duration.ZERO;
                 default:
                     ConsoleMessage.printInvalidOptionMessage();
                     break;
             }
-
-            elapsedTime = isPaused ? pauseStartTime - startWatchingTime : (int) (System.currentTimeMillis() / 1000) - startWatchingTime;
-            if (!isPaused && episode != null && elapsedTime >= totalTime) {
-                ConsoleMessage.println(endMessage);
-                return;
-            } else if (!isPaused && media instanceof Movie && elapsedTime >= totalTime) {
-                ConsoleMessage.println(endMessage);
-                return;
-            }
         }
     }
 
@@ -627,7 +825,19 @@ public class NexflixApp {
         tvShow.setReleaseDate(InputValidator.getLocalDate("Insira a data de lançamento da série:"));
         tvShow.setCategory(InputValidator.getCategory("Insira a categoria da série:"));
         tvShow.setRating(InputValidator.getDouble("Insira a nota de avaliação da série:"));
+        tvShow.setSeasons(readSeasons());
+
+        mediaService.addMedia(tvShow);
 
+        ConsoleMessage.println("Série cadastrada com sucesso!", Ansi.Color.GREEN);
+    }
+
+    /**
+     * Prompts the user for the seasons and episodes of a TV show.
+     *
+     * @return The seasons, keyed by season number.
+     */
+    private Map<Integer, List<Episode>> readSeasons() {
         Map<Integer, List<Episode>> seasons = new HashMap<>();
 
         int numberOfSeasons = InputValidator.getInteger("Insira o número de temporadas:");
@@ -644,10 +854,7 @@ public class NexflixApp {
             seasons.put(i, episodes);
         }
 
-        tvShow.setSeasons(seasons);
-        mediaService.addMedia(tvShow);
-
-        ConsoleMessage.println("Série cadastrada com sucesso!", Ansi.Color.GREEN);
+        return seasons;
     }
 
     /**
@@ -665,11 +872,8 @@ public class NexflixApp {
         }
 
         while (true) {
-            clearConsole();
-            ConsoleMessage.println("Séries cadastradas:");
-            showMediaList(tvShows);
-
-            TvShow tvShow = (TvShow) mediaService.getMediaById(InputValidator.getInteger("Escolha a série que deseja editar:"));
+            TvShow tvShow = (TvShow) mediaService.getMediaById(
+                    selectMediaId(tvShows, "Séries cadastradas:", "Escolha a série que deseja editar:"));
 
             if (tvShow == null) {
                 clearConsole();
@@ -684,7 +888,9 @@ public class NexflixApp {
             tvShow.setCategory(InputValidator.getCategory("Insira a nova categoria da série:"));
             tvShow.setRating(InputValidator.getDouble("Insira a nova nota de avaliação da série:"));
 
-            // TODO: edit seasons
+            if (InputValidator.getInteger("Deseja editar as temporadas?\n[1] Sim\n[2] Não") == 1) {
+                tvShow.setSeasons(readSeasons());
+            }
 
             try {
                 mediaService.updateMedia(tvShow);
@@ -710,12 +916,10 @@ public class NexflixApp {
         }
 
         while (true) {
-            clearConsole();
-            ConsoleMessage.println("Séries cadastradas:");
-            showMediaList(tvShows);
+            int tvShowId = selectMediaId(tvShows, "Séries cadastradas:", "Escolha a série que deseja remover:");
 
             try {
-                mediaService.deleteMedia(InputValidator.getInteger("Escolha a série que deseja remover:"));
+                mediaService.deleteMedia(tvShowId);
 
                 ConsoleMessage.println("Série removida com sucesso!", Ansi.Color.GREEN);
                 return;
@@ -779,11 +983,7 @@ public class NexflixApp {
         }
 
         while (true) {
-            clearConsole();
-            ConsoleMessage.println("Filmes cadastrados:");
-            showMediaList(movies);
-
-            int movieId = InputValidator.getInteger("Escolha o filme que deseja editar:");
+            int movieId = selectMediaId(movies, "Filmes cadastrados:", "Escolha o filme que deseja editar:");
 
             Movie movie = (Movie) mediaService.getMediaById(movieId);
 
@@ -824,12 +1024,10 @@ public class NexflixApp {
         }
 
         while (true) {
-            clearConsole();
-            ConsoleMessage.println("Filmes cadastrados:");
-            showMediaList(movies);
+            int movieId = selectMediaId(movies, "Filmes cadastrados:", "Escolha o filme que deseja remover:");
 
             try {
-                mediaService.deleteMedia(InputValidator.getInteger("Escolha o filme que deseja remover:"));
+                mediaService.deleteMedia(movieId);
 
                 ConsoleMessage.println("Filme removido com sucesso!", Ansi.Color.GREEN);
                 return;
@@ -840,33 +1038,110 @@ public class NexflixApp {
     }
 
     /**
-     * Displays a list of media items in a formatted ASCII table.
-     * The list is divided into rows of up to three media items per row.
-     * Each row displays the ID and title of the media items.
+     * Displays a list of media items one page at a time, with options to move between pages when there are more.
      *
      * @param mediaList The list of media items to display.
+     * @param header    The line shown above the table.
      */
-    private void showMediaList(List<Media> mediaList) {
-        AsciiTable table = new AsciiTable();
-        table.addRule();
-        clearConsole();
-        for (int i = 0; i < mediaList.size(); i += 3) {
-            String media1 = "[" + mediaList.get(i).getId() + "] " + mediaList.get(i).getTitle();
-            String media2 = (i + 1 < mediaList.size()) ? "[" + mediaList.get(i + 1).getId() + "] " + mediaList.get(i + 1).getTitle() : "";
-            String media3 = (i + 2 < mediaList.size()) ? "[" + mediaList.get(i + 2).getId() + "] " + mediaList.get(i + 2).getTitle() : "";
+    private void browseMediaList(List<Media> mediaList, String header) {
+        int pageCount = mediaTable.getPageCount(mediaList.size());
+        int page = 0;
+
+        while (true) {
+            clearConsole();
+            ConsoleMessage.println(header);
+            showMediaPage(mediaList, page, pageCount);
+
+            if (pageCount == 1) {
+                return;
+            }
+            switch (InputValidator.getInteger("[1] Próxima página\n[2] Página anterior\n[3] Voltar")) {
+                case 1 -> page = Math.min(page + 1, pageCount - 1);
+                case 2 -> page = Math.max(page - 1, 0);
+                case 3 -> {
+                    return;
+                }
+                default -> ConsoleMessage.printInvalidOptionMessage();
+            }
+        }
+    }
+
+    /**
+     * Displays a list of media items one page at a time and reads the id of one of them. When the list has more
+     * than one page, typing {@code +} or {@code -} instead of an id moves to the next or previous page.
+     *
+     * @param mediaList The list of media items to choose from.
+     * @param header    The line shown above the table.
+     * @param prompt    The request for the id.
+     * @return The positive id typed by the user; it is not checked against the list.
+     */
+    private int selectMediaId(List<Media> mediaList, String header, String prompt) {
+        int pageCount = mediaTable.getPageCount(mediaList.size());
+        int page = 0;
+        boolean invalid = false;
+
+        while (true) {
+            clearConsole();
+            ConsoleMessage.println(header);
+            showMediaPage(mediaList, page, pageCount);
+            if (invalid) {
+                ConsoleMessage.println("Valor inválido! Insira o id de um título.", Ansi.Color.RED);
+            }
 
-            table.addRow(media1, media2, media3);
-            table.addRule();
+            String input = InputValidator.getString(pageCount > 1
+                    ? prompt + "\n[+] Próxima página | [-] Página anterior" : prompt).strip();
+            invalid = false;
+            switch (input) {
+                case "+" -> page = Math.min(page + 1, pageCount - 1);
+                case "-" -> page = Math.max(page - 1, 0);
+                default -> {
+                    try {
+                        int id = Integer.parseInt(input.split(" ", 2)[0]);
+                        if (id > 0) {
+                            return id;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported on the next screen.
+                    }
+                    invalid = true;
+                }
+            }
         }
+    }
 
-        table.setTextAlignment(TextAlignment.LEFT);
-        ConsoleMessage.println(table.render());
+    /**
+     * Displays one page of a list of media items, followed by the page position.
+     *
+     * @param mediaList The whole list of media items.
+     * @param page      The zero-based page to display.
+     * @param pageCount The number of pages of the list.
+     */
+    private void showMediaPage(List<Media> mediaList, int page, int pageCount) {
+        ConsoleMessage.println(mediaTable.renderPage(mediaList, page));
 
+        if (pageCount > 1) {
+            ConsoleMessage.println("Página " + (page + 1) + " de " + pageCount + " (" + mediaList.size() + " títulos)");
+        }
         if (hasFilters) {
             ConsoleMessage.println("* Filtros aplicados\n", Ansi.Color.GREEN);
         }
     }
 
+    /**
+     * @return The user bound to the current session token, or null if there is no active session.
+     */
+    private User getLoggedInUser() {
+        return loginService.getLoggedInUser(sessionToken);
+    }
+
+    /**
+     * @return The id of the profile selected in the current session, or 0 if none is selected.
+     */
+    private int getSelectedProfileId() {
+        Session session = loginService.getSession(sessionToken);
+        return (session != null && session.getProfile() != null) ? session.getProfile().getId() : 0;
+    }
+
     /**
      * Displays the information of the currently logged-in user in an ASCII table format.
      */
@@ -876,7 +1151,7 @@ public class NexflixApp {
         asciiTable.addRule();
         asciiTable.addRow("Nome", "E-mail");
         asciiTable.addRule();
-        asciiTable.addRow(loginService.getLoggedInUser().getName(), loginService.getLoggedInUser().getEmail());
+        asciiTable.addRow(getLoggedInUser().getName(), getLoggedInUser().getEmail());
         asciiTable.addRule();
         asciiTable.setTextAlignment(TextAlignment.CENTER);
 
@@ -896,7 +1171,7 @@ public class NexflixApp {
     private String getMenuOptions() {
         var defaultOptions = "";
 
-        if (loginService.getLoggedInUser().isAdmin()) {
+        if (getLoggedInUser().isAdmin()) {
             defaultOptions = "[1] Visualizar catálogo de filmes\n" +
                     "[2] Visualizar catálogo de séries\n" +
                     "[3] Gerenciar filmes\n" +
@@ -920,10 +1195,12 @@ public class NexflixApp {
     }
 
     /**
+     * @param hasPages Whether the page navigation options are included.
      * @return A formatted string of options for selecting an item from a media list.
      */
-    private String getMediaListOptions() {
-        return "[1] Escolher\n[2] Filtrar\n[3] Limpar filtros\n[4] Voltar";
+    private String getMediaListOptions(boolean hasPages) {
+        String options = "[1] Escolher\n[2] Filtrar\n[3] Limpar filtros\n[4] Voltar";
+        return hasPages ? options + "\n[5] Próxima página\n[6] Página anterior" : options;
     }
 
     /**
@@ -948,12 +1225,10 @@ public class NexflixApp {
     }
 
     /**
-     * Clears the console by printing 50 empty lines.
+     * Clears the console. The next screen is drawn over the current one with ANSI escape codes.
      */
     public void clearConsole() {
-        for (int i = 0; i < 50; i++) {
-            System.out.println();
-        }
+        ConsoleMessage.clearScreen();
     }
 
     /**
@@ -1000,18 +1275,15 @@ public class NexflixApp {
         ConsoleMessage.println("------------------------\nCriar novo perfil\n------------------------");
 
         try {
-            if (loginService.getLoggedInUser() == null) {
+            if (getLoggedInUser() == null) {
                 ConsoleMessage.printInvalidOptionMessage();
                 return;
             }
 
             String name = InputValidator.getString("Digite o nome do perfil:");
-            User user = loginService.getLoggedInUser();
-
-            int profileId = userService.getNextProfileId(user.getId());
+            User user = getLoggedInUser();
 
-            Profile profile = new Profile(profileId, name, user);
-            userService.addProfileToUser(user.getId(), profile);
+            userService.createProfile(user.getId(), name);
 
             ConsoleMessage.println("Perfil criado com sucesso!", Ansi.Color.GREEN);
         } catch (Exception e) {
@@ -1028,6 +1300,13 @@ public class NexflixApp {
     private void selectProfile() {
         Profile profile = retrieveSelectedProfile();
         if (profile != null) {
+            try {
+                loginService.selectProfile(sessionToken, profile);
+            } catch (Exception e) {
+                ConsoleMessage.println(e.getMessage(), Ansi.Color.RED);
+                return;
+            }
+
             clearConsole();
             ConsoleMessage.println("Perfil selecionado: " + profile.getName());
             displayProfileSpecificOptions(profile);
@@ -1043,7 +1322,7 @@ public class NexflixApp {
      */
     private Profile retrieveSelectedProfile() {
         try {
-            User user = loginService.getLoggedInUser();
+            User user = getLoggedInUser();
             if (user == null) {
                 ConsoleMessage.printInvalidOptionMessage();
                 return null;
@@ -1112,7 +1391,7 @@ public class NexflixApp {
                 return;
             }
 
-            userService.addToProfileMyList(loginService.getLoggedInUser().getId(), profile.getId(), media);
+            userService.addToProfileMyList(getLoggedInUser().getId(), profile.getId(), media);
             ConsoleMessage.println("Mídia adicionada à lista com sucesso!", Ansi.Color.GREEN);
         } catch (Exception e) {
             ConsoleMessage.println(e.getMessage(), Ansi.Color.RED);
@@ -1130,7 +1409,7 @@ public class NexflixApp {
      */
     private void removeMediaFromMyList(Profile profile) {
         try {
-            List<Media> myList = userService.getProfileMyList(loginService.getLoggedInUser().getId(), profile.getId());
+            List<Media> myList = userService.getProfileMyList(getLoggedInUser().getId(), profile.getId());
 
             if (myList.isEmpty()) {
                 ConsoleMessage.println("A lista está vazia.", Ansi.Color.RED);
@@ -1150,7 +1429,7 @@ public class NexflixApp {
                 return;
             }
 
-            userService.removeFromProfileMyList(loginService.getLoggedInUser().getId(), profile.getId(), media);
+            userService.removeFromProfileMyList(getLoggedInUser().getId(), profile.getId(), media);
             ConsoleMessage.println("Mídia removida da lista com sucesso!", Ansi.Color.GREEN);
         } catch (Exception e) {
             ConsoleMessage.println(e.getMessage(), Ansi.Color.RED);
@@ -1167,15 +1446,14 @@ public class NexflixApp {
      */
     private void viewMyList(Profile profile) {
         try {
-            List<Media> myList = userService.getProfileMyList(loginService.getLoggedInUser().getId(), profile.getId());
+            List<Media> myList = userService.getProfileMyList(getLoggedInUser().getId(), profile.getId());
 
             if (myList.isEmpty()) {
                 ConsoleMessage.println("A lista está vazia.", Ansi.Color.RED);
                 return;
             }
 
-            ConsoleMessage.println("Sua lista de mídias:");
-            showMediaList(myList);
+            browseMediaList(myList, "Sua lista de mídias:");
         } catch (Exception e) {
             ConsoleMessage.println(e.getMessage(), Ansi.Color.RED);
         }
@@ -1190,6 +1468,9 @@ public class NexflixApp {
      */
     private void displayProfileSpecificOptions(Profile profile) {
         while (true) {
+            showTrendingRow();
+            showHomeRows(profile);
+            showBecauseYouAddedRow(profile);
             ConsoleMessage.println("Escolha uma opção:");
             ConsoleMessage.println("[1] Ver catálogo de filmes");
             ConsoleMessage.println("[2] Ver catálogo de séries");
@@ -1197,6 +1478,7 @@ public class NexflixApp {
             ConsoleMessage.println("[4] Remover mídia da lista");
             ConsoleMessage.println("[5] Ver minha lista");
             ConsoleMessage.println("[6] Voltar ao menu principal");
+            ConsoleMessage.println("[7] Ver tendências da semana");
 
             int option = InputValidator.getInteger("Digite a opção desejada:");
             switch (option) {
@@ -1208,11 +1490,99 @@ public class NexflixApp {
                 case 6 -> {
                     return;
                 }
+                case 7 -> showWeeklyTrending(profile);
                 default -> ConsoleMessage.printInvalidOptionMessage();
             }
         }
     }
 
+    /**
+     * Displays the titles with the highest time-decayed popularity, combining plays and "My List" additions.
+     */
+    private void showWeeklyTrending(Profile profile) {
+        List<Media> trending = homeViewService.getHomeView(profile).getTrending();
+
+        if (trending.isEmpty()) {
+            ConsoleMessage.println("Nenhuma tendência disponível no momento.", Ansi.Color.RED);
+            return;
+        }
+
+        browseMediaList(trending, "Tendências da semana:");
+    }
+
+    /**
+     * Displays the "Em alta" row with the titles most played in the recent window.
+     * Reads the last snapshot published by the {@link ViewerStatsService}; nothing is computed here.
+     */
+    private void showTrendingRow() {
+        List<TrendingTitle> trending = viewerStatsService.getTrending();
+
+        if (trending.isEmpty()) {
+            return;
+        }
+
+        ConsoleMessage.println("Em alta:", Ansi.Color.YELLOW);
+        trending.stream()
+                .limit(5)
+                .forEach(title -> ConsoleMessage.println("  " + title));
+        ConsoleMessage.println("");
+    }
+
+    /**
+     * Displays the "Continuar assistindo" and "Populares em ..." rows of the cached home view of the profile.
+     *
+     * @param profile The selected profile.
+     */
+    private void showHomeRows(Profile profile) {
+        HomeView homeView = homeViewService.getHomeView(profile);
+
+        if (!homeView.getContinueWatching().isEmpty()) {
+            ConsoleMessage.println("Continuar assistindo:", Ansi.Color.YELLOW);
+            homeView.getContinueWatching().stream()
+                    .limit(5)
+                    .forEach(media -> ConsoleMessage.println("  [" + media.getId() + "] " + media.getTitle()));
+            ConsoleMessage.println("");
+        }
+
+        if (!homeView.getTopPicks().isEmpty()) {
+            String categories = homeView.getFavoriteCategories().stream()
+                    .map(Category::getDescription)
+                    .collect(Collectors.joining(" e "));
+            ConsoleMessage.println("Populares em " + categories + ":", Ansi.Color.YELLOW);
+            homeView.getTopPicks().stream()
+                    .limit(5)
+                    .forEach(media -> ConsoleMessage.println("  [" + media.getId() + "] " + media.getTitle()));
+            ConsoleMessage.println("");
+        }
+    }
+
+    /**
+     * Displays the "Porque você adicionou" row with titles often kept together with the last title added to
+     * the list of the profile. Titles already in the list are left out.
+     *
+     * @param profile The profile whose list is used.
+     */
+    private void showBecauseYouAddedRow(Profile profile) {
+        List<Media> myList = profile.getMyList();
+        if (myList.isEmpty()) {
+            return;
+        }
+
+        Media lastAdded = myList.getLast();
+        List<Media> similar = recommendationService.getSimilar(lastAdded.getId(), 10 + myList.size()).stream()
+                .filter(media -> !myList.contains(media))
+                .limit(5)
+                .toList();
+
+        if (similar.isEmpty()) {
+            return;
+        }
+
+        ConsoleMessage.println("Porque você adicionou " + lastAdded.getTitle() + ":", Ansi.Color.YELLOW);
+        similar.forEach(media -> ConsoleMessage.println("  [" + media.getId() + "] " + media.getTitle()));
+        ConsoleMessage.println("");
+    }
+
     /**
      * Removes a profile selected by the logged-in user.
      * Displays a list of profiles associated with the user and prompts for profile selection by ID.
@@ -1222,7 +1592,8 @@ public class NexflixApp {
         Profile profile = retrieveSelectedProfile();
         if (profile != null) {
             try {
-                userService.removeProfile(loginService.getLoggedInUser().getId(), profile.getId());
+                userService.removeProfile(getLoggedInUser().getId(), profile.getId());
+                homeViewService.invalidate(getLoggedInUser().getId(), profile.getId());
                 ConsoleMessage.println("Perfil removido com sucesso.", Ansi.Color.GREEN);
             } catch (Exception e) {
                 ConsoleMessage.println(e.getMessage(), Ansi.Color.RED);
@@ -0,0 +1,565 @@
+package com.netflix.api;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.Media;
+import com.netflix.entities.Profile;
+import com.netflix.entities.Session;
+import com.netflix.entities.User;
+import com.netflix.services.LoginService;
+import com.netflix.services.MediaService;
+import com.netflix.services.TooManyAttemptsException;
+import com.netflix.services.UserService;
+import com.netflix.utils.Json;
+import com.netflix.utils.JsonWriter;
+import com.netflix.utils.LatencyRecorder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server exposing the catalog, login, profiles and My List as a JSON API.
+ * <p>
+ * Built on the JDK {@link HttpServer}: connections are multiplexed by its selector thread and every request is
+ * handled on a new virtual thread, so a request blocked on a service does not hold a platform thread. The server
+ * keeps connections alive between requests; the idle connection limit of the JDK server is raised unless set with
+ * {@code -Dsun.net.httpserver.maxIdleConnections}. The latency of every route is recorded separately.
+ * <p>
+ * Authenticated routes take the session token in an {@code Authorization: Bearer <token>} header. Catalog
+ * responses carry an ETag derived from the versions kept by the media repository and from its epoch, which
+ * changes with every start, so an ETag cached before a restart never matches; a request whose
+ * {@code If-None-Match} still matches gets a 304 without running the query, and encoded bodies are cached per
+ * version.
+ */
+public class CatalogApiServer implements AutoCloseable {
+    public static final int DEFAULT_BACKLOG = 1024;
+    public static final int DEFAULT_PAGE_SIZE = 30;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String MAX_IDLE_CONNECTIONS = "sun.net.httpserver.maxIdleConnections";
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final int MAX_CACHED_BODIES = 4096;
+    private static final JsonWriter.Token PAGE = JsonWriter.name("page");
+    private static final JsonWriter.Token SIZE = JsonWriter.name("size");
+    private static final JsonWriter.Token TOTAL = JsonWriter.name("total");
+    private static final JsonWriter.Token ITEMS = JsonWriter.name("items");
+    private static final JsonWriter.Token TOKEN = JsonWriter.name("token");
+    private static final JsonWriter.Token USER = JsonWriter.name("user");
+    private static final JsonWriter.Token ERROR = JsonWriter.name("error");
+    private static final JsonWriter.Token COUNT = JsonWriter.name("count");
+    private static final JsonWriter.Token MEAN_MICROS = JsonWriter.name("meanMicros");
+    private static final JsonWriter.Token P50_MICROS = JsonWriter.name("p50Micros");
+    private static final JsonWriter.Token P99_MICROS = JsonWriter.name("p99Micros");
+    private static final JsonWriter.Token P999_MICROS = JsonWriter.name("p999Micros");
+    private static final JsonWriter.Token MAX_MICROS = JsonWriter.name("maxMicros");
+
+    private final LoginService loginService;
+    private final UserService userService;
+    private final MediaService mediaService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, LatencyRecorder> latencies = new LinkedHashMap<>();
+    private final Map<String, CachedBody> cachedBodies = new ConcurrentHashMap<>();
+    private final String epoch;
+
+    /**
+     * @param address The address to listen on; port 0 picks a free port.
+     * @throws IOException If the address cannot be bound.
+     */
+    public CatalogApiServer(InetSocketAddress address, LoginService loginService, UserService userService,
+                            MediaService mediaService) throws IOException {
+        this.loginService = loginService;
+        this.userService = userService;
+        this.mediaService = mediaService;
+        this.epoch = Long.toUnsignedString(mediaService.getCatalogEpoch(), Character.MAX_RADIX);
+
+        if (System.getProperty(MAX_IDLE_CONNECTIONS) == null) {
+            System.setProperty(MAX_IDLE_CONNECTIONS, "10000");
+        }
+        this.server = HttpServer.create(address, DEFAULT_BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+
+        route("GET", "/api/media", "media.list", this::listMedia);
+        route("GET", "/api/media/{}", "media.detail", this::getMedia);
+        route("POST", "/api/login", "login", this::login);
+        route("POST", "/api/logout", "logout", this::logout);
+        route("GET", "/api/profiles", "profiles.list", this::listProfiles);
+        route("POST", "/api/profiles", "profiles.create", this::createProfile);
+        route("GET", "/api/profiles/{}/my-list", "my-list.get", this::getMyList);
+        route("PUT", "/api/profiles/{}/my-list/{}", "my-list.add", this::addToMyList);
+        route("DELETE", "/api/profiles/{}/my-list/{}", "my-list.remove", this::removeFromMyList);
+        route("GET", "/api/metrics", "metrics", _ -> ok(metricsJson()));
+
+        server.createContext("/api/", this::dispatch);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * @return One line per route with its request count and latency percentiles.
+     */
+    public String metricsSummary() {
+        StringBuilder summary = new StringBuilder();
+        latencies.forEach((name, latency) -> summary.append(name).append(": ").append(latency.summary()).append('\n'));
+        return summary.toString();
+    }
+
+    /**
+     * Stops accepting connections, gives the exchanges in progress a second to finish and waits for their threads.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private void route(String method, String pattern, String name, RouteHandler handler) {
+        LatencyRecorder latency = new LatencyRecorder();
+        latencies.put(name, latency);
+        routes.add(new Route(method, pattern.substring(1).split("/"), handler, latency));
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        long startedAt = System.nanoTime();
+        LatencyRecorder latency = null;
+        Response response;
+
+        try {
+            String[] segments = exchange.getRequestURI().getRawPath().substring(1).split("/");
+            Route route = null;
+            List<String> parameters = null;
+            boolean pathMatched = false;
+
+            for (Route candidate : routes) {
+                List<String> matched = candidate.match(segments);
+                if (matched != null) {
+                    pathMatched = true;
+                    if (candidate.method().equals(exchange.getRequestMethod())) {
+                        route = candidate;
+                        parameters = matched;
+                        break;
+                    }
+                }
+            }
+
+            if (route == null) {
+                response = pathMatched ? error(405, "Método não permitido.") : error(404, "Rota não encontrada.");
+            } else {
+                latency = route.latency();
+                response = handle(route, new Request(exchange, parameters));
+            }
+
+            send(exchange, response);
+        } finally {
+            exchange.close();
+            if (latency != null) {
+                latency.recordSince(startedAt);
+            }
+        }
+    }
+
+    private Response handle(Route route, Request request) {
+        try {
+            return route.handler().handle(request);
+        } catch (HttpError e) {
+            return error(e.status, e.getMessage());
+        } catch (TooManyAttemptsException e) {
+            Response response = error(429, e.getMessage());
+            response.headers().put("Retry-After", String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())));
+            return response;
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao processar " + request.exchange().getRequestURI() + ": " + e);
+            return error(500, "Erro interno.");
+        } catch (Exception e) {
+            return error(400, e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the response and returns its writer to the pool.
+     */
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        response.headers().forEach(exchange.getResponseHeaders()::set);
+        if (response.bytes() != null) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), response.bytes().length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.bytes());
+            }
+            return;
+        }
+
+        JsonWriter body = response.body();
+        if (body == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), body.size());
+            body.writeTo(out);
+        } finally {
+            body.release();
+        }
+    }
+
+    /**
+     * Lists the catalog. The ETag is the catalog epoch and version, so a matching {@code If-None-Match} is answered before
+     * the list is filtered, and the encoded page is cached for the current version under its query string.
+     */
+    private Response listMedia(Request request) throws Exception {
+        long version = mediaService.getCatalogVersion();
+        String etag = "\"c" + epoch + "-" + version + "\"";
+        if (request.matchesETag(etag)) {
+            return notModified(etag);
+        }
+
+        String key = "media?" + Objects.requireNonNullElse(request.exchange().getRequestURI().getRawQuery(), "");
+        CachedBody cached = cachedBodies.get(key);
+        if (cached == null || cached.version() != version) {
+            cached = cache(key, new CachedBody(version, encodeMediaList(request)));
+        }
+        return cachedResponse(etag, cached);
+    }
+
+    private byte[] encodeMediaList(Request request) throws Exception {
+        String type = request.query("type");
+        List<Media> mediaList = type == null ? mediaService.getAllMedia()
+                : switch (type) {
+                    case "movie" -> mediaService.getAllMovies();
+                    case "tvshow" -> mediaService.getAllTvShows();
+                    default -> throw new Exception("Tipo inválido: " + type);
+                };
+
+        if (request.query("category") != null) {
+            try {
+                Category category = Category.valueOf(request.query("category").toUpperCase(Locale.ROOT));
+                mediaList = mediaService.filterByCategory(mediaList, category);
+            } catch (IllegalArgumentException e) {
+                throw new Exception("Categoria inválida: " + request.query("category"));
+            }
+        }
+        if (request.query("title") != null) {
+            mediaList = mediaService.filterByTitle(mediaList, request.query("title"));
+        }
+        if (request.query("director") != null) {
+            mediaList = mediaService.filterByDirector(mediaList, request.query("director"));
+        }
+        if (request.query("year") != null) {
+            mediaList = mediaService.filterByYearAndRating(mediaList, request.intQuery("year", 0),
+                    request.doubleQuery("minRating", 0));
+        } else if (request.query("minRating") != null) {
+            mediaList = mediaService.filterByRating(mediaList, request.doubleQuery("minRating", 0));
+        }
+        if ("asc".equals(request.query("sort"))) {
+            mediaList = mediaService.filterReleaseDateInAscendingOrder(mediaList);
+        } else if ("desc".equals(request.query("sort"))) {
+            mediaList = mediaService.filterReleaseDateInDescendingOrder(mediaList);
+        }
+
+        int size = Math.clamp(request.intQuery("size", DEFAULT_PAGE_SIZE), 1, MAX_PAGE_SIZE);
+        int page = Math.max(0, request.intQuery("page", 0));
+        int from = (int) Math.min(mediaList.size(), (long) page * size);
+        int to = Math.min(mediaList.size(), from + size);
+
+        JsonWriter json = JsonWriter.acquire().beginObject()
+                .name(PAGE).value(page)
+                .name(SIZE).value(size)
+                .name(TOTAL).value(mediaList.size())
+                .name(ITEMS);
+        Json.writeMediaList(json, mediaList.subList(from, to)).endObject();
+        return toBytes(json);
+    }
+
+    /**
+     * Shows a title. The ETag is the catalog epoch and the version of the title, checked before the title is
+     * looked up.
+     */
+    private Response getMedia(Request request) throws Exception {
+        int id = request.intParameter(0);
+        long version = mediaService.getMediaVersion(id);
+        String etag = "\"m" + epoch + "-" + id + "-" + version + "\"";
+        if (version != 0 && request.matchesETag(etag)) {
+            return notModified(etag);
+        }
+
+        String key = "media/" + id;
+        CachedBody cached = cachedBodies.get(key);
+        if (cached == null || cached.version() != version) {
+            Media media = requireMedia(id);
+            cached = cache(key, new CachedBody(version, toBytes(Json.writeMedia(JsonWriter.acquire(), media, true))));
+        }
+        return cachedResponse(etag, cached);
+    }
+
+    private CachedBody cache(String key, CachedBody body) {
+        if (cachedBodies.size() >= MAX_CACHED_BODIES) {
+            cachedBodies.clear();
+        }
+        cachedBodies.put(key, body);
+        return body;
+    }
+
+    private static byte[] toBytes(JsonWriter json) {
+        byte[] bytes = json.toByteArray();
+        json.release();
+        return bytes;
+    }
+
+    private static Response cachedResponse(String etag, CachedBody body) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", etag);
+        headers.put("Cache-Control", "no-cache");
+        return new Response(200, null, body.bytes(), headers);
+    }
+
+    private static Response notModified(String etag) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", etag);
+        headers.put("Cache-Control", "no-cache");
+        return new Response(304, null, null, headers);
+    }
+
+    private Response login(Request request) throws Exception {
+        Map<String, String> body = request.jsonBody();
+        String clientId = request.exchange().getRemoteAddress().getAddress().getHostAddress();
+        String token = loginService.login(body.get("email"), body.get("password"), clientId);
+
+        JsonWriter json = JsonWriter.acquire().beginObject().name(TOKEN).value(token).name(USER);
+        Json.writeUser(json, loginService.getLoggedInUser(token));
+        return ok(json.endObject());
+    }
+
+    private Response logout(Request request) {
+        loginService.logout(request.token());
+        return new Response(204, null, null, new HashMap<>());
+    }
+
+    private Response listProfiles(Request request) throws Exception {
+        User user = requireSession(request).getUser();
+        JsonWriter json = JsonWriter.acquire().beginArray();
+        for (Profile profile : userService.getProfilesByUserId(user.getId())) {
+            Json.writeProfile(json, profile);
+        }
+        return ok(json.endArray());
+    }
+
+    private Response createProfile(Request request) throws Exception {
+        User user = requireSession(request).getUser();
+        String name = request.jsonBody().get("name");
+        if (name == null || name.isBlank()) {
+            throw new Exception("O nome do perfil é obrigatório.");
+        }
+
+        Profile profile = userService.createProfile(user.getId(), name.trim());
+        return new Response(201, Json.writeProfile(JsonWriter.acquire(), profile), null, new HashMap<>());
+    }
+
+    private Response getMyList(Request request) throws Exception {
+        User user = requireSession(request).getUser();
+        List<Media> myList = userService.getProfileMyList(user.getId(), request.intParameter(0));
+        return ok(Json.writeMediaList(JsonWriter.acquire(), myList));
+    }
+
+    private Response addToMyList(Request request) throws Exception {
+        User user = requireSession(request).getUser();
+        userService.addToProfileMyList(user.getId(), request.intParameter(0), requireMedia(request.intParameter(1)));
+        return new Response(204, null, null, new HashMap<>());
+    }
+
+    private Response removeFromMyList(Request request) throws Exception {
+        User user = requireSession(request).getUser();
+        userService.removeFromProfileMyList(user.getId(), request.intParameter(0), requireMedia(request.intParameter(1)));
+        return new Response(204, null, null, new HashMap<>());
+    }
+
+    private JsonWriter metricsJson() {
+        JsonWriter json = JsonWriter.acquire().beginObject();
+        latencies.forEach((name, latency) -> json.name(JsonWriter.name(name)).beginObject()
+                .name(COUNT).value(latency.getCount())
+                .name(MEAN_MICROS).value(latency.getMeanNanos() / 1000)
+                .name(P50_MICROS).value(latency.getPercentileNanos(50) / 1000)
+                .name(P99_MICROS).value(latency.getPercentileNanos(99) / 1000)
+                .name(P999_MICROS).value(latency.getPercentileNanos(99.9) / 1000)
+                .name(MAX_MICROS).value(latency.getMaxNanos() / 1000)
+                .endObject());
+        return json.endObject();
+    }
+
+    private Session requireSession(Request request) throws HttpError {
+        Session session = loginService.getSession(request.token());
+        if (session == null) {
+            throw new HttpError(401, "Sessão expirada. Faça login novamente.");
+        }
+        return session;
+    }
+
+    private Media requireMedia(int id) throws HttpError {
+        Media media = mediaService.getMediaById(id);
+        if (media == null) {
+            throw new HttpError(404, "Mídia não encontrada.");
+        }
+        return media;
+    }
+
+    private static Response ok(JsonWriter body) {
+        return new Response(200, body, null, new HashMap<>());
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, JsonWriter.acquire().beginObject().name(ERROR).value(message).endObject(),
+                null, new HashMap<>());
+    }
+
+    @FunctionalInterface
+    private interface RouteHandler {
+        Response handle(Request request) throws Exception;
+    }
+
+    /**
+     * A route pattern split into path segments; {@code {}} segments match any value and are captured in order.
+     */
+    private record Route(String method, String[] segments, RouteHandler handler, LatencyRecorder latency) {
+        List<String> match(String[] path) {
+            if (path.length != segments.length) {
+                return null;
+            }
+
+            List<String> parameters = new ArrayList<>(2);
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].equals("{}")) {
+                    parameters.add(URLDecoder.decode(path[i], StandardCharsets.UTF_8));
+                } else if (!segments[i].equals(path[i])) {
+                    return null;
+                }
+            }
+            return parameters;
+        }
+    }
+
+    private record Request(HttpExchange exchange, List<String> parameters) {
+        int intParameter(int index) throws HttpError {
+            try {
+                return Integer.parseInt(parameters.get(index));
+            } catch (NumberFormatException e) {
+                throw new HttpError(404, "Recurso não encontrado.");
+            }
+        }
+
+        String query(String name) {
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query == null) {
+                return null;
+            }
+
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+                if (key.equals(name)) {
+                    return equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+                }
+            }
+            return null;
+        }
+
+        int intQuery(String name, int defaultValue) throws Exception {
+            String value = query(name);
+            try {
+                return value == null ? defaultValue : Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new Exception("Parâmetro inválido: " + name);
+            }
+        }
+
+        double doubleQuery(String name, double defaultValue) throws Exception {
+            String value = query(name);
+            try {
+                return value == null ? defaultValue : Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new Exception("Parâmetro inválido: " + name);
+            }
+        }
+
+        /**
+         * @return Whether the {@code If-None-Match} header lists the given ETag, or is {@code *}.
+         */
+        boolean matchesETag(String etag) {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch == null) {
+                return false;
+            }
+
+            for (String candidate : ifNoneMatch.split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String token() {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+                return null;
+            }
+            return authorization.substring(7).trim();
+        }
+
+        Map<String, String> jsonBody() throws Exception {
+            byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new HttpError(413, "Corpo da requisição muito grande.");
+            }
+            return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A response. The body is either a pooled writer, released once sent, or cached bytes; both are null for an
+     * empty body.
+     */
+    private record Response(int status, JsonWriter body, byte[] bytes, Map<String, String> headers) {
+    }
+
+    /**
+     * An encoded response body and the version of the data it was encoded from.
+     */
+    private record CachedBody(long version, byte[] bytes) {
+    }
+
+    private static class HttpError extends Exception {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package com.netflix.api;
+
+import com.netflix.entities.ChangeEvent;
+import com.netflix.entities.Media;
+import com.netflix.services.ChangeFeed;
+import com.netflix.services.MediaService;
+import com.netflix.utils.Json;
+import com.netflix.utils.JsonWriter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes the catalog changes of the {@link ChangeFeed} to browsers and other clients as Server-Sent Events on
+ * {@code GET /api/events}.
+ * <p>
+ * Every media event is encoded once, on the feed thread, as {@code created}, {@code updated} or {@code deleted}
+ * with the sequence number as its id and the title as its data. A single selector thread owns all the streams: it
+ * appends the shared bytes to the output queue of every stream and writes each queue with one gathering write, so
+ * the cost of a connection is its queue, not a thread. The server pulls from the feed only as fast as it fans
+ * out.
+ * <p>
+ * A stream whose queue grows past {@value #MAX_PENDING_BYTES} bytes loses its queued events and, once the client
+ * has read what was already on the wire, receives a single {@code resync} event telling it to reload the catalog;
+ * events published meanwhile are not queued. A stream that accepts no bytes for {@value #STALL_MILLIS} ms is
+ * closed. A reconnecting client sending {@code Last-Event-ID} gets the events it missed from the recent ones the
+ * server keeps, or a {@code resync} if they are gone.
+ */
+public class CatalogEventServer implements Flow.Subscriber<ChangeEvent>, AutoCloseable {
+    public static final String PATH = "/api/events";
+    private static final int MAX_REQUEST_BYTES = 8 * 1024;
+    private static final int MAX_PENDING_BYTES = 256 * 1024;
+    private static final int RECENT_EVENTS = 1024;
+    private static final int FEED_BATCH = 64;
+    private static final int MAX_GATHER = 64;
+    private static final long HEARTBEAT_MILLIS = 15_000;
+    private static final long STALL_MILLIS = 60_000;
+    private static final byte[] STREAM_HEADERS = ("HTTP/1.1 200 OK\r\n" +
+            "Content-Type: text/event-stream; charset=utf-8\r\n" +
+            "Cache-Control: no-cache\r\n" +
+            "Connection: keep-alive\r\n" +
+            "Access-Control-Allow-Origin: *\r\n" +
+            "\r\n" +
+            "retry: 3000\n\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PING = ": ping\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final JsonWriter.Token SEQUENCE = JsonWriter.name("sequence");
+    private static final JsonWriter.Token ID = JsonWriter.name("id");
+    private static final JsonWriter.Token MEDIA = JsonWriter.name("media");
+
+    private final ChangeFeed changeFeed;
+    private final MediaService mediaService;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread loop;
+    private final Queue<Encoded> inbox = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Encoded> recent = new ArrayDeque<>();
+    private final List<Stream> streams = new ArrayList<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean running = true;
+    private long lastSequence;
+    private long evictedThrough;
+    private long lastHeartbeat = System.currentTimeMillis();
+    private boolean streamsClosed;
+
+    /**
+     * @param address      The address to listen on; port 0 picks a free port.
+     * @param changeFeed   The feed the server subscribes to when started.
+     * @param mediaService The catalog the titles of the events are read from.
+     * @throws IOException If the address cannot be bound.
+     */
+    public CatalogEventServer(InetSocketAddress address, ChangeFeed changeFeed, MediaService mediaService)
+            throws IOException {
+        this.changeFeed = changeFeed;
+        this.mediaService = mediaService;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, CatalogApiServer.DEFAULT_BACKLOG);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.loop = new Thread(this::runLoop, "catalog-events");
+        loop.setDaemon(true);
+    }
+
+    public void start() {
+        lastSequence = changeFeed.getLastSequence();
+        evictedThrough = lastSequence;
+        loop.start();
+        changeFeed.subscribe(this, lastSequence + 1);
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    public int getStreamCount() {
+        return openStreams.get();
+    }
+
+    /**
+     * @return A one-line summary of the streams and of the events pushed to them.
+     */
+    public String summary() {
+        return "Streams de eventos: " + openStreams.get() + " | Eventos: " + published.sum() +
+                " | Ressincronizações: " + resyncs.sum() + " | Desconectados por lentidão: " + dropped.sum();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(FEED_BATCH);
+    }
+
+    @Override
+    public void onNext(ChangeEvent event) {
+        inbox.add(new Encoded(event.getSequence(),
+                event.getEntity() == ChangeEvent.Entity.MEDIA ? encode(event) : null));
+        selector.wakeup();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        System.err.println("O feed de alterações foi interrompido: " + throwable.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+        selector.wakeup();
+        try {
+            if (loop.isAlive()) {
+                loop.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encodes a media event as an SSE message. Deleted titles carry only their id; the others carry the title as
+     * it is when the event is encoded, or only the id if it was deleted since. A bulk load becomes a
+     * {@code resync} event for every client.
+     */
+    private byte[] encode(ChangeEvent event) {
+        JsonWriter json = JsonWriter.acquire();
+        try {
+            json.beginObject().name(SEQUENCE).value(event.getSequence());
+            if (event.getOperation() != ChangeEvent.Operation.RESYNC) {
+                json.name(ID).value(event.getId());
+            }
+            if (event.getOperation() == ChangeEvent.Operation.CREATED
+                    || event.getOperation() == ChangeEvent.Operation.UPDATED) {
+                Media media = mediaService.getMediaById(event.getId());
+                if (media != null) {
+                    Json.writeMedia(json.name(MEDIA), media, false);
+                }
+            }
+            json.endObject();
+
+            byte[] head = ("id: " + event.getSequence() + "\nevent: " +
+                    event.getOperation().name().toLowerCase(Locale.ROOT) + "\ndata: ").getBytes(StandardCharsets.US_ASCII);
+            byte[] message = new byte[head.length + json.size() + 2];
+            System.arraycopy(head, 0, message, 0, head.length);
+            System.arraycopy(json.toByteArray(), 0, message, head.length, json.size());
+            message[message.length - 2] = '\n';
+            message[message.length - 1] = '\n';
+            return message;
+        } finally {
+            json.release();
+        }
+    }
+
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select(HEARTBEAT_MILLIS);
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    Stream stream = (Stream) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            stream.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            stream.flush();
+                        }
+                    } catch (IOException e) {
+                        stream.close();
+                    }
+                }
+
+                fanOut();
+                heartbeat();
+                if (streamsClosed) {
+                    streams.removeIf(stream -> stream.closed);
+                    streamsClosed = false;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro no servidor de eventos: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+            openStreams.set(0);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Stream stream = new Stream(channel);
+            stream.key = channel.register(selector, SelectionKey.OP_READ, stream);
+        }
+    }
+
+    /**
+     * Appends the events taken from the feed to every stream, then writes each stream once.
+     */
+    private void fanOut() {
+        int taken = 0;
+        Encoded event;
+        while ((event = inbox.poll()) != null) {
+            taken++;
+            lastSequence = event.sequence();
+            if (event.message() == null) {
+                continue;
+            }
+
+            recent.addLast(event);
+            if (recent.size() > RECENT_EVENTS) {
+                evictedThrough = recent.removeFirst().sequence();
+            }
+            for (int i = 0; i < streams.size(); i++) {
+                streams.get(i).enqueue(event.message());
+            }
+            published.increment();
+        }
+        if (taken == 0) {
+            return;
+        }
+
+        for (int i = 0; i < streams.size(); i++) {
+            Stream stream = streams.get(i);
+            if (!stream.closed && !stream.waitingForWrite) {
+                try {
+                    stream.flush();
+                } catch (IOException e) {
+                    stream.close();
+                }
+            }
+        }
+        subscription.request(taken);
+    }
+
+    /**
+     * Sends a comment to idle streams, so dead peers are noticed, and closes the streams that stopped reading.
+     */
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat < HEARTBEAT_MILLIS) {
+            return;
+        }
+        lastHeartbeat = now;
+
+        for (int i = 0; i < streams.size(); i++) {
+            Stream stream = streams.get(i);
+            if (stream.closed) {
+                continue;
+            }
+            if (!stream.pending.isEmpty() && now - stream.lastProgress > STALL_MILLIS) {
+                dropped.increment();
+                stream.close();
+                continue;
+            }
+            if (stream.pending.isEmpty()) {
+                stream.enqueue(PING);
+                try {
+                    stream.flush();
+                } catch (IOException e) {
+                    stream.close();
+                }
+            }
+        }
+    }
+
+    private record Encoded(long sequence, byte[] message) {
+    }
+
+    private final class Stream {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer request = ByteBuffer.allocate(1024);
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private long pendingBytes;
+        private boolean streaming;
+        private boolean resyncing;
+        private boolean closeWhenFlushed;
+        private boolean waitingForWrite;
+        private boolean closed;
+        private long lastProgress = System.currentTimeMillis();
+
+        Stream(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (streaming || closeWhenFlushed) {
+                ByteBuffer discard = ByteBuffer.allocate(256);
+                if (channel.read(discard) < 0) {
+                    throw new IOException("Conexão encerrada.");
+                }
+                return;
+            }
+
+            if (!request.hasRemaining()) {
+                request = ByteBuffer.allocate(Math.min(request.capacity() * 2, MAX_REQUEST_BYTES)).put(request.flip());
+            }
+            if (channel.read(request) < 0) {
+                throw new IOException("Conexão encerrada.");
+            }
+
+            String text = new String(request.array(), 0, request.position(), StandardCharsets.ISO_8859_1);
+            int end = text.indexOf("\r\n\r\n");
+            if (end >= 0) {
+                handshake(text.substring(0, end));
+            } else if (request.position() >= MAX_REQUEST_BYTES) {
+                reject("431 Request Header Fields Too Large");
+            }
+        }
+
+        private void handshake(String head) throws IOException {
+            String[] lines = head.split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            String path = requestLine.length > 1 ? requestLine[1] : "";
+            int query = path.indexOf('?');
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+
+            if (!path.equals(PATH)) {
+                reject("404 Not Found");
+                return;
+            }
+            if (!requestLine[0].equals("GET")) {
+                reject("405 Method Not Allowed");
+                return;
+            }
+
+            String lastEventId = null;
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0 && lines[i].substring(0, colon).trim().equalsIgnoreCase("Last-Event-ID")) {
+                    lastEventId = lines[i].substring(colon + 1).trim();
+                }
+            }
+
+            request = null;
+            streaming = true;
+            streams.add(this);
+            openStreams.incrementAndGet();
+            enqueue(STREAM_HEADERS);
+            if (lastEventId != null) {
+                replay(lastEventId);
+            }
+            flush();
+        }
+
+        /**
+         * Queues the recent events after the one the client saw last, or a resync if some of them are gone.
+         */
+        private void replay(String lastEventId) {
+            long seen;
+            try {
+                seen = Long.parseLong(lastEventId);
+            } catch (NumberFormatException e) {
+                seen = -1;
+            }
+
+            if (seen < evictedThrough || seen > lastSequence) {
+                startResync();
+                return;
+            }
+            for (Encoded event : recent) {
+                if (event.sequence() > seen) {
+                    enqueue(event.message());
+                }
+            }
+        }
+
+        private void reject(String status) throws IOException {
+            byte[] body = (status.substring(4) + "\n").getBytes(StandardCharsets.US_ASCII);
+            byte[] response = ("HTTP/1.1 " + status + "\r\n" +
+                    "Content-Type: text/plain\r\n" +
+                    "Content-Length: " + body.length + "\r\n" +
+                    "Connection: close\r\n" +
+                    "\r\n" + new String(body, StandardCharsets.US_ASCII)).getBytes(StandardCharsets.US_ASCII);
+            request = null;
+            closeWhenFlushed = true;
+            enqueue(response);
+            flush();
+        }
+
+        /**
+         * Queues a message shared by all streams, or starts a resync if the queue is too long.
+         */
+        void enqueue(byte[] message) {
+            if (closed || resyncing) {
+                return;
+            }
+            if (pendingBytes + message.length > MAX_PENDING_BYTES) {
+                startResync();
+                return;
+            }
+            if (pending.isEmpty()) {
+                lastProgress = System.currentTimeMillis();
+            }
+            pending.addLast(ByteBuffer.wrap(message));
+            pendingBytes += message.length;
+        }
+
+        /**
+         * Drops the queued messages, except one that is partly written or the response headers, and sends the
+         * resync event once the client has read the rest.
+         */
+        private void startResync() {
+            ByteBuffer head = pending.peekFirst();
+            pending.clear();
+            pendingBytes = 0;
+            if (head != null && (head.position() > 0 || head.array() == STREAM_HEADERS)) {
+                pending.addLast(head);
+                pendingBytes = head.remaining();
+            }
+            resyncing = true;
+            resyncs.increment();
+        }
+
+        void flush() throws IOException {
+            while (true) {
+                if (pending.isEmpty() && resyncing) {
+                    resyncing = false;
+                    enqueue(("id: " + lastSequence + "\nevent: resync\ndata: {\"sequence\":" + lastSequence + "}\n\n")
+                            .getBytes(StandardCharsets.US_ASCII));
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                int count = 0;
+                for (ByteBuffer buffer : pending) {
+                    gather[count++] = buffer;
+                    if (count == gather.length) {
+                        break;
+                    }
+                }
+                long written = channel.write(gather, 0, count);
+                if (written > 0) {
+                    lastProgress = System.currentTimeMillis();
+                    pendingBytes -= written;
+                }
+                while (!pending.isEmpty() && !pending.peekFirst().hasRemaining()) {
+                    pending.removeFirst();
+                }
+                if (written == 0 || !pending.isEmpty() && count < gather.length) {
+                    break;
+                }
+            }
+
+            if (pending.isEmpty() && closeWhenFlushed) {
+                close();
+                return;
+            }
+            waitingForWrite = !pending.isEmpty();
+            key.interestOps(waitingForWrite ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            if (streaming) {
+                streamsClosed = true;
+                openStreams.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.netflix.api;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.Episode;
+import com.netflix.entities.Media;
+import com.netflix.entities.Movie;
+import com.netflix.entities.TvShow;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire format of the binary catalog protocol, shared by {@link CatalogProtocolServer} and
+ * {@link CatalogProtocolClient}.
+ * <p>
+ * Every frame is an {@code int} length (of the rest of the frame) followed by an {@code int} request id chosen by
+ * the client. A request continues with an operation code and its arguments; a response continues with a status
+ * and its payload. Responses carry the id of their request and are sent in request order, so a client may
+ * pipeline any number of requests on one connection. All numbers are big-endian.
+ * <pre>
+ * GET        id:int                                  -> media
+ * MULTI_GET  count:short id:int...                   -> count:short (present:byte media?)...
+ * QUERY      type:byte category:byte minRating:double year:short title:string director:string
+ *            offset:int limit:short                  -> total:int count:short media...
+ * VERSION                                            -> version:long
+ * </pre>
+ * Strings are an unsigned short byte length followed by UTF-8 bytes; an empty string in a query means "any".
+ * A media is a type byte, then id, title, description, director, release date (epoch day, or
+ * {@link Integer#MIN_VALUE}), category ordinal (or -1) and rating, then the duration of a movie or the seasons of
+ * a TV show.
+ */
+public final class CatalogProtocol {
+    public static final byte GET = 1;
+    public static final byte MULTI_GET = 2;
+    public static final byte QUERY = 3;
+    public static final byte VERSION = 4;
+
+    public static final byte OK = 0;
+    public static final byte NOT_FOUND = 1;
+    public static final byte BAD_REQUEST = 2;
+
+    public static final byte ANY = 0;
+    public static final byte MOVIES = 1;
+    public static final byte TV_SHOWS = 2;
+
+    public static final int MAX_FRAME_LENGTH = 1 << 20;
+    public static final int MAX_BATCH = 1024;
+    static final int HEADER_LENGTH = 8;
+
+    private static final byte TYPE_MOVIE = 0;
+    private static final byte TYPE_TV_SHOW = 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int MAX_STRING_LENGTH = 0xFFFF;
+
+    private CatalogProtocol() {
+    }
+
+    /**
+     * @return The binary encoding of a title.
+     */
+    public static byte[] encodeMedia(Media media) {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        while (true) {
+            try {
+                writeMedia(buffer, media);
+                byte[] bytes = new byte[buffer.position()];
+                buffer.flip().get(bytes);
+                return bytes;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    private static void writeMedia(ByteBuffer buffer, Media media) {
+        buffer.put(media instanceof TvShow ? TYPE_TV_SHOW : TYPE_MOVIE);
+        buffer.putInt(media.getId());
+        putString(buffer, media.getTitle());
+        putString(buffer, media.getDescription());
+        putString(buffer, media.getDirector());
+        buffer.putInt(media.getReleaseDate() != null ? (int) media.getReleaseDate().toEpochDay() : NO_DATE);
+        buffer.put(media.getCategory() != null ? (byte) media.getCategory().ordinal() : -1);
+        buffer.putDouble(media.getRating());
+
+        if (media instanceof TvShow tvShow) {
+            Map<Integer, List<Episode>> seasons = tvShow.getSeasons();
+            buffer.putShort((short) seasons.size());
+            for (Map.Entry<Integer, List<Episode>> season : seasons.entrySet()) {
+                buffer.putShort(season.getKey().shortValue());
+                buffer.putShort((short) season.getValue().size());
+                for (Episode episode : season.getValue()) {
+                    putString(buffer, episode.getTitle());
+                    buffer.putInt(episode.getDuration());
+                }
+            }
+        } else {
+            buffer.putInt(media instanceof Movie movie ? movie.getDurationInMinutes() : 0);
+        }
+    }
+
+    /**
+     * Decodes a title written by {@link #encodeMedia(Media)}.
+     *
+     * @throws BufferUnderflowException If the buffer ends before the title.
+     */
+    public static Media readMedia(ByteBuffer buffer) {
+        byte type = buffer.get();
+        int id = buffer.getInt();
+        String title = getString(buffer);
+        String description = getString(buffer);
+        String director = getString(buffer);
+        int epochDay = buffer.getInt();
+        LocalDate releaseDate = epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+        byte categoryOrdinal = buffer.get();
+        Category category = categoryOrdinal >= 0 && categoryOrdinal < Category.values().length
+                ? Category.values()[categoryOrdinal] : null;
+        double rating = buffer.getDouble();
+
+        Media media;
+        if (type == TYPE_TV_SHOW) {
+            int seasonCount = Short.toUnsignedInt(buffer.getShort());
+            Map<Integer, List<Episode>> seasons = new LinkedHashMap<>();
+            for (int i = 0; i < seasonCount; i++) {
+                int number = buffer.getShort();
+                int episodeCount = Short.toUnsignedInt(buffer.getShort());
+                List<Episode> episodes = new ArrayList<>(episodeCount);
+                for (int j = 0; j < episodeCount; j++) {
+                    episodes.add(new Episode(getString(buffer), buffer.getInt()));
+                }
+                seasons.put(number, episodes);
+            }
+            media = new TvShow(title, description, director, releaseDate, category, rating, seasons);
+        } else {
+            media = new Movie(title, description, director, releaseDate, category, rating, buffer.getInt());
+        }
+        media.setId(id);
+        return media;
+    }
+
+    /**
+     * Writes a string; strings longer than 65535 UTF-8 bytes are cut.
+     */
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_LENGTH);
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Arguments of a {@link #QUERY}. Zero, null and empty values mean "any".
+     */
+    public record Query(byte type, Category category, double minRating, int year, String title, String director,
+                        int offset, int limit) {
+        public static Query all(int offset, int limit) {
+            return new Query(ANY, null, 0, 0, "", "", offset, limit);
+        }
+
+        void write(ByteBuffer buffer) {
+            buffer.put(type);
+            buffer.put(category != null ? (byte) category.ordinal() : -1);
+            buffer.putDouble(minRating);
+            buffer.putShort((short) year);
+            putString(buffer, title);
+            putString(buffer, director);
+            buffer.putInt(offset);
+            buffer.putShort((short) limit);
+        }
+
+        static Query read(ByteBuffer buffer) {
+            byte type = buffer.get();
+            byte categoryOrdinal = buffer.get();
+            Category category = categoryOrdinal >= 0 && categoryOrdinal < Category.values().length
+                    ? Category.values()[categoryOrdinal] : null;
+            return new Query(type, category, buffer.getDouble(), buffer.getShort(), getString(buffer),
+                    getString(buffer), buffer.getInt(), Short.toUnsignedInt(buffer.getShort()));
+        }
+    }
+
+    /**
+     * A page of query results.
+     */
+    public record QueryResult(int total, List<Media> items) {
+    }
+}
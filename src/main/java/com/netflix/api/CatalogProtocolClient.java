@@ -0,0 +1,204 @@
+package com.netflix.api;
+
+import com.netflix.entities.Media;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blocking client of the binary {@link CatalogProtocol}. Not thread-safe; use one client per thread.
+ * <p>
+ * Besides the one-call-per-request methods, {@link #getMediaPipelined(int[])} writes a whole batch of requests
+ * before reading the responses, so the round trip is paid once per batch instead of once per request.
+ */
+public class CatalogProtocolClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+    private int nextRequestId;
+    private int frameStart;
+
+    public CatalogProtocolClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        in.flip();
+    }
+
+    /**
+     * @return The title, or null if it does not exist.
+     */
+    public Media getMedia(int id) throws Exception {
+        int requestId = beginRequest(CatalogProtocol.GET, 4);
+        out.putInt(id);
+        endRequest();
+        flush();
+
+        ByteBuffer response = readResponse(requestId);
+        return status(response) == CatalogProtocol.NOT_FOUND ? null : CatalogProtocol.readMedia(response);
+    }
+
+    /**
+     * Fetches several titles with one request.
+     *
+     * @return The titles in the order of the ids; null for the ids that do not exist.
+     */
+    public List<Media> getMedia(int... ids) throws Exception {
+        if (ids.length > CatalogProtocol.MAX_BATCH) {
+            throw new Exception("Lote muito grande.");
+        }
+
+        int requestId = beginRequest(CatalogProtocol.MULTI_GET, 2 + ids.length * 4);
+        out.putShort((short) ids.length);
+        for (int id : ids) {
+            out.putInt(id);
+        }
+        endRequest();
+        flush();
+
+        ByteBuffer response = requireOk(readResponse(requestId));
+        int count = Short.toUnsignedInt(response.getShort());
+        List<Media> mediaList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mediaList.add(response.get() == 0 ? null : CatalogProtocol.readMedia(response));
+        }
+        return mediaList;
+    }
+
+    /**
+     * Sends one {@link CatalogProtocol#GET} per id without waiting, then reads all the responses.
+     *
+     * @return The titles in the order of the ids; null for the ids that do not exist.
+     */
+    public List<Media> getMediaPipelined(int[] ids) throws Exception {
+        int firstRequestId = nextRequestId;
+        for (int id : ids) {
+            beginRequest(CatalogProtocol.GET, 4);
+            out.putInt(id);
+            endRequest();
+        }
+        flush();
+
+        List<Media> mediaList = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ByteBuffer response = readResponse(firstRequestId + i);
+            mediaList.add(status(response) == CatalogProtocol.NOT_FOUND ? null : CatalogProtocol.readMedia(response));
+        }
+        return mediaList;
+    }
+
+    public CatalogProtocol.QueryResult query(CatalogProtocol.Query query) throws Exception {
+        int requestId = beginRequest(CatalogProtocol.QUERY, 32 + query.title().length() * 3
+                + query.director().length() * 3);
+        query.write(out);
+        endRequest();
+        flush();
+
+        ByteBuffer response = requireOk(readResponse(requestId));
+        int total = response.getInt();
+        int count = Short.toUnsignedInt(response.getShort());
+        List<Media> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(CatalogProtocol.readMedia(response));
+        }
+        return new CatalogProtocol.QueryResult(total, items);
+    }
+
+    public long getCatalogVersion() throws Exception {
+        int requestId = beginRequest(CatalogProtocol.VERSION, 0);
+        endRequest();
+        flush();
+        return requireOk(readResponse(requestId)).getLong();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int beginRequest(byte operation, int argumentBytes) {
+        int needed = CatalogProtocol.HEADER_LENGTH + 1 + argumentBytes;
+        if (out.remaining() < needed) {
+            out = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + needed)).put(out.flip());
+        }
+
+        int requestId = nextRequestId++;
+        frameStart = out.position();
+        out.putInt(0).putInt(requestId).put(operation);
+        return requestId;
+    }
+
+    private void endRequest() {
+        out.putInt(frameStart, out.position() - frameStart - 4);
+    }
+
+    private void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Reads the next response frame and returns it positioned at its status.
+     */
+    private ByteBuffer readResponse(int expectedRequestId) throws IOException {
+        fill(4);
+        int length = in.getInt();
+        fill(length);
+
+        ByteBuffer frame = in.slice(in.position(), length);
+        in.position(in.position() + length);
+
+        int requestId = frame.getInt();
+        if (requestId != expectedRequestId) {
+            throw new IOException("Resposta fora de ordem: " + requestId + " em vez de " + expectedRequestId);
+        }
+        return frame;
+    }
+
+    private void fill(int bytes) throws IOException {
+        if (in.remaining() >= bytes) {
+            return;
+        }
+
+        in.compact();
+        if (in.capacity() < bytes) {
+            in = ByteBuffer.allocate(bytes).put(in.flip());
+        }
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) {
+                throw new IOException("Conexão encerrada pelo servidor.");
+            }
+        }
+        in.flip();
+    }
+
+    private static ByteBuffer requireOk(ByteBuffer response) throws Exception {
+        byte status = status(response);
+        if (status != CatalogProtocol.OK) {
+            throw new Exception("Status inesperado: " + status);
+        }
+        return response;
+    }
+
+    /**
+     * Reads the status of a response.
+     *
+     * @throws Exception With the message of the server if the request was rejected.
+     */
+    private static byte status(ByteBuffer response) throws Exception {
+        byte status = response.get();
+        if (status == CatalogProtocol.BAD_REQUEST) {
+            byte[] message = new byte[Short.toUnsignedInt(response.getShort())];
+            response.get(message);
+            throw new Exception(new String(message, StandardCharsets.UTF_8));
+        }
+        return status;
+    }
+}
@@ -0,0 +1,114 @@
+package com.netflix.api;
+
+import com.netflix.entities.Media;
+import com.netflix.utils.LatencyRecorder;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for the binary catalog protocol: every connection sends batches of pipelined
+ * {@link CatalogProtocol#GET} requests for random titles of the catalog, for a fixed duration.
+ * <p>
+ * When the server runs in the same process, {@link #run(CatalogProtocolServer, int, int, Duration)} also reports
+ * the requests per CPU-second of its selector thread, which is the throughput of the server per core.
+ */
+public class CatalogProtocolLoad {
+    private CatalogProtocolLoad() {
+    }
+
+    /**
+     * Runs the load against a server of this process and measures its CPU time.
+     */
+    public static Report run(CatalogProtocolServer server, int connections, int pipelineDepth, Duration duration)
+            throws Exception {
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getAddress().getPort());
+        long cpuBefore = server.getCpuTimeNanos();
+        Report report = run(address, connections, pipelineDepth, duration);
+        return report.withServerCpu(server.getCpuTimeNanos() - cpuBefore);
+    }
+
+    /**
+     * @param address       The server.
+     * @param connections   The number of client connections, each driven by its own thread.
+     * @param pipelineDepth The number of requests sent before reading their responses.
+     * @param duration      How long to run.
+     * @return The results; the server CPU time is unknown.
+     * @throws Exception If the catalog cannot be read or a connection fails.
+     */
+    public static Report run(InetSocketAddress address, int connections, int pipelineDepth, Duration duration)
+            throws Exception {
+        int[] ids;
+        try (CatalogProtocolClient client = new CatalogProtocolClient(address)) {
+            ids = client.query(CatalogProtocol.Query.all(0, CatalogProtocol.MAX_BATCH)).items().stream()
+                    .mapToInt(Media::getId)
+                    .toArray();
+        }
+        if (ids.length == 0) {
+            throw new Exception("O catálogo está vazio.");
+        }
+
+        LongAdder requests = new LongAdder();
+        LatencyRecorder batchLatency = new LatencyRecorder();
+        List<Thread> threads = new ArrayList<>(connections);
+        List<Exception> failures = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long startedAt = System.nanoTime();
+
+        for (int i = 0; i < connections; i++) {
+            long seed = i;
+            threads.add(Thread.ofPlatform().name("catalog-load-" + i).start(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                int[] batch = new int[pipelineDepth];
+                try (CatalogProtocolClient client = new CatalogProtocolClient(address)) {
+                    while (System.nanoTime() < deadline) {
+                        for (int j = 0; j < batch.length; j++) {
+                            batch[j] = ids[random.nextInt(ids.length)];
+                        }
+                        long batchStartedAt = System.nanoTime();
+                        client.getMediaPipelined(batch);
+                        batchLatency.recordSince(batchStartedAt);
+                        requests.add(batch.length);
+                    }
+                } catch (Exception e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            throw failures.getFirst();
+        }
+        return new Report(requests.sum(), System.nanoTime() - startedAt, -1, batchLatency);
+    }
+
+    /**
+     * @param serverCpuNanos The CPU time of the server thread during the run, or -1 if unknown.
+     */
+    public record Report(long requests, long elapsedNanos, long serverCpuNanos, LatencyRecorder batchLatency) {
+        Report withServerCpu(long cpuNanos) {
+            return new Report(requests, elapsedNanos, cpuNanos, batchLatency);
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            String perCore = serverCpuNanos > 0
+                    ? String.format(" | Por núcleo do servidor: %.0f req/s", requests / (serverCpuNanos / 1e9))
+                    : "";
+            return String.format("Requisições: %d | Tempo: %d ms | %.0f req/s%s%nPor lote: %s",
+                    requests, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), requests / seconds, perCore,
+                    batchLatency.summary());
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.netflix.api;
+
+import com.netflix.entities.Media;
+import com.netflix.repositories.MediaChangeListener;
+import com.netflix.services.MediaService;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server of the binary {@link CatalogProtocol}, meant for edge caches pulling catalog data.
+ * <p>
+ * A single thread runs a non-blocking selector loop over all connections. Every readable connection is drained
+ * of all the complete frames it holds, the responses are appended to the output buffer of the connection, and the
+ * buffer is written once per loop iteration, so pipelined requests are answered with few system calls. A
+ * connection whose output backs up stops being read until the client catches up.
+ * <p>
+ * Gets are answered on the selector thread: a title is found by id in the repository index, and its encoding is
+ * cached together with the version of the title it was made from, so an encoding is only reused while the title
+ * is unchanged. Queries scan the catalog, so they run on a worker; the connection that sent one is not read again
+ * until the answer is appended, which keeps the responses in request order without stalling the other
+ * connections. An unexpected error while handling a request closes only the connection that sent it.
+ */
+public final class CatalogProtocolServer implements MediaChangeListener, AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HIGH_WATER_MARK = 4 * 1024 * 1024;
+
+    private final MediaService mediaService;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread loop;
+    private final Map<Integer, Encoding> encodings = new ConcurrentHashMap<>();
+    private final ExecutorService queryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Queue<Answer> answers = new ConcurrentLinkedQueue<>();
+    private final LongAdder requests = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * @param address      The address to listen on; port 0 picks a free port.
+     * @param mediaService The catalog. The server registers itself for its changes.
+     * @throws IOException If the address cannot be bound.
+     */
+    public CatalogProtocolServer(InetSocketAddress address, MediaService mediaService) throws IOException {
+        this.mediaService = mediaService;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, CatalogApiServer.DEFAULT_BACKLOG);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        mediaService.addChangeListener(this);
+
+        this.loop = new Thread(this::runLoop, "catalog-protocol");
+        loop.setDaemon(true);
+    }
+
+    public void start() {
+        loop.start();
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return The CPU time used so far by the selector thread, which handles every request except the catalog
+     * scans of queries.
+     */
+    public long getCpuTimeNanos() {
+        return ManagementFactory.getThreadMXBean().getThreadCpuTime(loop.threadId());
+    }
+
+    @Override
+    public void onUpdated(Media previous, Media current) {
+        encodings.remove(previous.getId());
+        encodings.remove(current.getId());
+    }
+
+    @Override
+    public void onDeleted(Media media) {
+        encodings.remove(media.getId());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queryExecutor.shutdownNow();
+    }
+
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        key.cancel();
+                        key.channel().close();
+                    }
+                }
+
+                Answer answer;
+                while ((answer = answers.poll()) != null) {
+                    try {
+                        answer.connection().answer(answer);
+                    } catch (IOException | RuntimeException e) {
+                        answer.connection().key.cancel();
+                        answer.connection().channel.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro no servidor do protocolo binário: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    /**
+     * Returns the cached encoding of a title if it was made from the current version, or encodes it. A new
+     * encoding is cached only if the title is still the stored one after its version was read, so an encoding of a
+     * replaced title is never cached under the version of its replacement.
+     */
+    private byte[] encoding(Media media) {
+        long version = mediaService.getMediaVersion(media.getId());
+        Encoding cached = encodings.get(media.getId());
+        if (cached != null && cached.version() == version) {
+            return cached.bytes();
+        }
+
+        byte[] bytes = CatalogProtocol.encodeMedia(media);
+        if (mediaService.getMediaById(media.getId()) == media) {
+            encodings.put(media.getId(), new Encoding(version, bytes));
+        }
+        return bytes;
+    }
+
+    private record Encoding(long version, byte[] bytes) {
+    }
+
+    /**
+     * The result of a query run on a worker, or the error that ended it.
+     */
+    private record Answer(Connection connection, int requestId, int total, List<byte[]> page, RuntimeException error) {
+    }
+
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        private ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        private boolean waitingForQuery;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                throw new IOException("Conexão encerrada.");
+            }
+            process();
+        }
+
+        /**
+         * Handles the complete frames in the input buffer, up to the first query, and writes the responses.
+         */
+        private void process() throws IOException {
+            in.flip();
+            while (!waitingForQuery && in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < 5 || length > CatalogProtocol.MAX_FRAME_LENGTH) {
+                    throw new IOException("Quadro inválido.");
+                }
+                if (in.remaining() < 4 + length) {
+                    if (in.capacity() < 4 + length) {
+                        in = ByteBuffer.allocate(4 + length).put(in).flip();
+                    }
+                    break;
+                }
+
+                int end = in.position() + 4 + length;
+                int limit = in.limit();
+                in.position(in.position() + 4).limit(end);
+                handle(in);
+                in.limit(limit).position(end);
+            }
+            in.compact();
+
+            flush();
+        }
+
+        void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+
+            int read = waitingForQuery ? 0 : SelectionKey.OP_READ;
+            if (out.position() == 0) {
+                key.interestOps(read);
+            } else {
+                key.interestOps(out.position() > HIGH_WATER_MARK ? SelectionKey.OP_WRITE
+                        : read | SelectionKey.OP_WRITE);
+            }
+        }
+
+        /**
+         * Appends the response of the query this connection was waiting for and goes on with its next frames.
+         */
+        void answer(Answer answer) throws IOException {
+            if (answer.error() != null) {
+                throw answer.error();
+            }
+
+            int start = out.position();
+            reserve(CatalogProtocol.HEADER_LENGTH + 7);
+            out.putInt(0).putInt(answer.requestId()).put(CatalogProtocol.OK);
+            out.putInt(answer.total()).putShort((short) answer.page().size());
+            for (byte[] bytes : answer.page()) {
+                putBytes(bytes);
+            }
+            out.putInt(start, out.position() - start - 4);
+            requests.increment();
+
+            waitingForQuery = false;
+            process();
+        }
+
+        /**
+         * Handles one request frame, positioned after its length, and appends the response.
+         */
+        private void handle(ByteBuffer frame) {
+            int requestId = frame.getInt();
+            int start = out.position();
+            reserve(CatalogProtocol.HEADER_LENGTH + 1);
+            out.putInt(0).putInt(requestId).put(CatalogProtocol.OK);
+
+            try {
+                switch (frame.get()) {
+                    case CatalogProtocol.GET -> {
+                        Media media = mediaService.getMediaById(frame.getInt());
+                        if (media == null) {
+                            out.put(start + CatalogProtocol.HEADER_LENGTH, CatalogProtocol.NOT_FOUND);
+                        } else {
+                            putBytes(encoding(media));
+                        }
+                    }
+                    case CatalogProtocol.MULTI_GET -> {
+                        int count = Short.toUnsignedInt(frame.getShort());
+                        if (count > CatalogProtocol.MAX_BATCH) {
+                            throw new IllegalArgumentException("Lote muito grande.");
+                        }
+                        reserve(2);
+                        out.putShort((short) count);
+                        for (int i = 0; i < count; i++) {
+                            Media media = mediaService.getMediaById(frame.getInt());
+                            reserve(1);
+                            out.put((byte) (media == null ? 0 : 1));
+                            if (media != null) {
+                                putBytes(encoding(media));
+                            }
+                        }
+                    }
+                    case CatalogProtocol.QUERY -> {
+                        CatalogProtocol.Query query = CatalogProtocol.Query.read(frame);
+                        out.position(start);
+                        waitingForQuery = true;
+                        queryExecutor.execute(() -> runQuery(requestId, query));
+                        return;
+                    }
+                    case CatalogProtocol.VERSION -> {
+                        reserve(8);
+                        out.putLong(mediaService.getCatalogVersion());
+                    }
+                    default -> throw new IllegalArgumentException("Operação desconhecida.");
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                out.position(start + CatalogProtocol.HEADER_LENGTH);
+                out.put(CatalogProtocol.BAD_REQUEST);
+                String text = e.getMessage() != null ? e.getMessage() : "Requisição inválida.";
+                byte[] message = text.getBytes(StandardCharsets.UTF_8);
+                reserve(2 + message.length);
+                out.putShort((short) message.length).put(message);
+            }
+
+            out.putInt(start, out.position() - start - 4);
+            requests.increment();
+        }
+
+        /**
+         * Runs on a worker: scans the catalog, encodes the requested page and hands it to the selector thread.
+         */
+        private void runQuery(int requestId, CatalogProtocol.Query query) {
+            Answer answer;
+            try {
+                List<Media> result = query(query);
+                int from = Math.min(result.size(), Math.max(0, query.offset()));
+                int to = Math.min(result.size(), from + Math.min(query.limit(), CatalogProtocol.MAX_BATCH));
+                List<byte[]> page = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    page.add(encoding(result.get(i)));
+                }
+                answer = new Answer(this, requestId, result.size(), page, null);
+            } catch (RuntimeException e) {
+                answer = new Answer(this, requestId, 0, List.of(), e);
+            }
+            answers.add(answer);
+            selector.wakeup();
+        }
+
+        private List<Media> query(CatalogProtocol.Query query) {
+            List<Media> result = switch (query.type()) {
+                case CatalogProtocol.MOVIES -> mediaService.getAllMovies();
+                case CatalogProtocol.TV_SHOWS -> mediaService.getAllTvShows();
+                default -> mediaService.getAllMedia();
+            };
+
+            if (query.category() != null) {
+                result = mediaService.filterByCategory(result, query.category());
+            }
+            if (!query.title().isEmpty()) {
+                result = mediaService.filterByTitle(result, query.title());
+            }
+            if (!query.director().isEmpty()) {
+                result = mediaService.filterByDirector(result, query.director());
+            }
+            if (query.year() != 0) {
+                result = mediaService.filterByYearAndRating(result, query.year(), query.minRating());
+            } else if (query.minRating() > 0) {
+                result = mediaService.filterByRating(result, query.minRating());
+            }
+            return result;
+        }
+
+        private void putBytes(byte[] bytes) {
+            reserve(bytes.length);
+            out.put(bytes);
+        }
+
+        private void reserve(int bytes) {
+            if (out.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + bytes));
+                out = larger.put(out.flip());
+            }
+        }
+    }
+}
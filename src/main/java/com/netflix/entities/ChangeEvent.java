@@ -0,0 +1,77 @@
+package com.netflix.entities;
+
+/**
+ * One write to the catalog or to the users, as published by the change feed.
+ * Events carry only identifiers; consumers read the current state from the services when they need it.
+ */
+public class ChangeEvent {
+    public enum Entity {
+        MEDIA,
+        USER,
+        PROFILE
+    }
+
+    public enum Operation {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /**
+         * Many entities were written at once, such as by a bulk load. Instead of one event per entity the feed
+         * publishes this one, whose id is the number of entities; consumers reload what they keep of that entity.
+         */
+        RESYNC
+    }
+
+    private final long sequence;
+    private final Entity entity;
+    private final Operation operation;
+    private final int id;
+    private final int ownerId;
+    private final long timestamp;
+
+    /**
+     * @param sequence  The position of the event in the feed; it grows by one for every event.
+     * @param entity    What was written.
+     * @param operation How it was written.
+     * @param id        The id of the media, user or profile.
+     * @param ownerId   The id of the user that owns the profile, or -1 for media and users.
+     * @param timestamp When the event was published, in epoch milliseconds.
+     */
+    public ChangeEvent(long sequence, Entity entity, Operation operation, int id, int ownerId, long timestamp) {
+        this.sequence = sequence;
+        this.entity = entity;
+        this.operation = operation;
+        this.id = id;
+        this.ownerId = ownerId;
+        this.timestamp = timestamp;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getOwnerId() {
+        return ownerId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + entity + " " + operation + " " + id + (ownerId >= 0 ? " (usuário " + ownerId + ")" : "");
+    }
+}
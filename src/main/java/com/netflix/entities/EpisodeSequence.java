@@ -0,0 +1,143 @@
+package com.netflix.entities;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Immutable, flattened view of every episode of a {@link TvShow} in watching order.
+ * <p>
+ * Each episode gets a global index and the start offset of every episode is kept as a prefix sum of the
+ * durations, so "next episode" and "time remaining in the season" are O(1) and "minute X of the season"
+ * is a binary search.
+ */
+public class EpisodeSequence {
+    private final Episode[] episodes;
+    private final int[] seasonNumbers;
+    private final int[] episodeNumbers;
+    private final long[] startSeconds;
+    private final Map<Integer, int[]> seasonRanges;
+
+    EpisodeSequence(SortedMap<Integer, List<Episode>> seasons) {
+        int size = seasons.values().stream().mapToInt(List::size).sum();
+
+        this.episodes = new Episode[size];
+        this.seasonNumbers = new int[size];
+        this.episodeNumbers = new int[size];
+        this.startSeconds = new long[size + 1];
+        this.seasonRanges = new HashMap<>();
+
+        int index = 0;
+        for (Map.Entry<Integer, List<Episode>> season : seasons.entrySet()) {
+            int first = index;
+            List<Episode> seasonEpisodes = season.getValue();
+
+            for (int i = 0; i < seasonEpisodes.size(); i++) {
+                episodes[index] = seasonEpisodes.get(i);
+                seasonNumbers[index] = season.getKey();
+                episodeNumbers[index] = i + 1;
+                startSeconds[index + 1] = startSeconds[index] + seasonEpisodes.get(i).getDuration() * 60L;
+                index++;
+            }
+
+            seasonRanges.put(season.getKey(), new int[]{first, index});
+        }
+    }
+
+    public int size() {
+        return episodes.length;
+    }
+
+    public Episode getEpisode(int index) {
+        return episodes[index];
+    }
+
+    public int getSeasonNumber(int index) {
+        return seasonNumbers[index];
+    }
+
+    public int getEpisodeNumber(int index) {
+        return episodeNumbers[index];
+    }
+
+    /**
+     * @return The global index of the episode, or -1 if it does not exist.
+     */
+    public int indexOf(int seasonNumber, int episodeNumber) {
+        int[] range = seasonRanges.get(seasonNumber);
+        if (range == null || episodeNumber < 1 || range[0] + episodeNumber > range[1]) {
+            return -1;
+        }
+        return range[0] + episodeNumber - 1;
+    }
+
+    /**
+     * @return The index of the episode after the given one, crossing season boundaries, or -1 at the end of the show.
+     */
+    public int next(int index) {
+        return index + 1 < episodes.length ? index + 1 : -1;
+    }
+
+    /**
+     * @return The offset of the episode from the beginning of the show, in seconds.
+     */
+    public long getStartSeconds(int index) {
+        return startSeconds[index];
+    }
+
+    /**
+     * @return The total duration of a season in seconds, or 0 if it does not exist.
+     */
+    public long getSeasonDurationSeconds(int seasonNumber) {
+        int[] range = seasonRanges.get(seasonNumber);
+        return range != null ? startSeconds[range[1]] - startSeconds[range[0]] : 0;
+    }
+
+    /**
+     * Finds the episode playing at the given offset from the beginning of a season.
+     *
+     * @param seasonNumber  The season.
+     * @param offsetSeconds The offset from the beginning of the season.
+     * @return The global index of the episode, or -1 if the season does not exist or is shorter than the offset.
+     */
+    public int indexAtSeasonOffset(int seasonNumber, long offsetSeconds) {
+        int[] range = seasonRanges.get(seasonNumber);
+        if (range == null || offsetSeconds < 0) {
+            return -1;
+        }
+
+        long target = startSeconds[range[0]] + offsetSeconds;
+        if (target >= startSeconds[range[1]]) {
+            return -1;
+        }
+
+        int found = Arrays.binarySearch(startSeconds, range[0], range[1] + 1, target);
+        int index = found >= 0 ? found : -found - 2;
+
+        while (index + 1 < range[1] && startSeconds[index + 1] == target) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @param index           The episode being watched.
+     * @param positionSeconds The position inside that episode.
+     * @return The time left until the end of the episode's season, in seconds.
+     */
+    public long getRemainingInSeasonSeconds(int index, long positionSeconds) {
+        int[] range = seasonRanges.get(seasonNumbers[index]);
+        return Math.max(0, startSeconds[range[1]] - startSeconds[index] - positionSeconds);
+    }
+
+    /**
+     * @param index           The episode being watched.
+     * @param positionSeconds The position inside that episode.
+     * @return The time left until the end of the show, in seconds.
+     */
+    public long getRemainingInShowSeconds(int index, long positionSeconds) {
+        return Math.max(0, startSeconds[episodes.length] - startSeconds[index] - positionSeconds);
+    }
+}
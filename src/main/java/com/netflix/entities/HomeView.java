@@ -0,0 +1,68 @@
+package com.netflix.entities;
+
+import java.util.List;
+
+/**
+ * Materialized home screen of a profile. Instances are immutable; a change produces a new view.
+ */
+public class HomeView {
+    private final List<Media> myList;
+    private final List<Media> continueWatching;
+    private final List<Category> favoriteCategories;
+    private final List<Media> topPicks;
+    private final List<Media> trending;
+
+    public HomeView(List<Media> myList, List<Media> continueWatching, List<Category> favoriteCategories,
+                    List<Media> topPicks, List<Media> trending) {
+        this.myList = List.copyOf(myList);
+        this.continueWatching = List.copyOf(continueWatching);
+        this.favoriteCategories = List.copyOf(favoriteCategories);
+        this.topPicks = List.copyOf(topPicks);
+        this.trending = List.copyOf(trending);
+    }
+
+    public List<Media> getMyList() {
+        return myList;
+    }
+
+    public List<Media> getContinueWatching() {
+        return continueWatching;
+    }
+
+    public List<Category> getFavoriteCategories() {
+        return favoriteCategories;
+    }
+
+    public List<Media> getTopPicks() {
+        return topPicks;
+    }
+
+    public List<Media> getTrending() {
+        return trending;
+    }
+
+    public HomeView withMyList(List<Media> myList) {
+        return new HomeView(myList, continueWatching, favoriteCategories, topPicks, trending);
+    }
+
+    public HomeView withContinueWatching(List<Media> continueWatching) {
+        return new HomeView(myList, continueWatching, favoriteCategories, topPicks, trending);
+    }
+
+    public HomeView withTopPicks(List<Category> favoriteCategories, List<Media> topPicks) {
+        return new HomeView(myList, continueWatching, favoriteCategories, topPicks, trending);
+    }
+
+    public HomeView withTrending(List<Media> trending) {
+        return new HomeView(myList, continueWatching, favoriteCategories, topPicks, trending);
+    }
+
+    /**
+     * @return A rough estimate of the memory held by the view itself. The titles are shared with the catalog
+     * and are not counted.
+     */
+    public long getApproximateSizeInBytes() {
+        int references = myList.size() + continueWatching.size() + favoriteCategories.size() + topPicks.size() + trending.size();
+        return 24L + 5 * 32L + 8L * references;
+    }
+}
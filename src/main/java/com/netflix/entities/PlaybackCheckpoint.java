@@ -0,0 +1,60 @@
+package com.netflix.entities;
+
+public class PlaybackCheckpoint {
+    private final int userId;
+    private final int profileId;
+    private final int mediaId;
+    private final int seasonNumber;
+    private final int episodeNumber;
+    private final long positionSeconds;
+    private final long updatedAt;
+
+    public PlaybackCheckpoint(int userId, int profileId, int mediaId, int seasonNumber, int episodeNumber,
+                              long positionSeconds, long updatedAt) {
+        this.userId = userId;
+        this.profileId = profileId;
+        this.mediaId = mediaId;
+        this.seasonNumber = seasonNumber;
+        this.episodeNumber = episodeNumber;
+        this.positionSeconds = positionSeconds;
+        this.updatedAt = updatedAt;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getProfileId() {
+        return profileId;
+    }
+
+    public int getMediaId() {
+        return mediaId;
+    }
+
+    public int getSeasonNumber() {
+        return seasonNumber;
+    }
+
+    public int getEpisodeNumber() {
+        return episodeNumber;
+    }
+
+    public long getPositionSeconds() {
+        return positionSeconds;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PlaybackCheckpoint{" +
+                "mediaId=" + mediaId +
+                ", season=" + seasonNumber +
+                ", episode=" + episodeNumber +
+                ", position=" + positionSeconds + "s" +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.netflix.entities;
+
+/**
+ * Mutable heartbeat slot of the playback ingestion ring buffer.
+ * Instances are preallocated and overwritten for every event, so consumers must copy what they keep.
+ */
+public class PlaybackHeartbeat {
+    public enum Type {
+        START,
+        PROGRESS,
+        STOP,
+        END
+    }
+
+    private Type type;
+    private long sessionId;
+    private int userId;
+    private int profileId;
+    private int mediaId;
+    private Category category;
+    private int seasonNumber;
+    private int episodeNumber;
+    private long positionNanos;
+    private long durationNanos;
+    private long timestamp;
+
+    public void set(Type type, PlaybackSession session, long positionNanos, long timestamp) {
+        this.type = type;
+        this.sessionId = session.getId();
+        this.userId = session.getUserId();
+        this.profileId = session.getProfileId();
+        this.mediaId = session.getMedia().getId();
+        this.category = session.getMedia().getCategory();
+        this.seasonNumber = session.getSeasonNumber();
+        this.episodeNumber = session.getEpisodeNumber();
+        this.positionNanos = positionNanos;
+        this.durationNanos = session.getDurationNanos();
+        this.timestamp = timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getProfileId() {
+        return profileId;
+    }
+
+    public int getMediaId() {
+        return mediaId;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public int getSeasonNumber() {
+        return seasonNumber;
+    }
+
+    public int getEpisodeNumber() {
+        return episodeNumber;
+    }
+
+    public long getPositionNanos() {
+        return positionNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "PlaybackHeartbeat{" +
+                "type=" + type +
+                ", sessionId=" + sessionId +
+                ", mediaId=" + mediaId +
+                ", position=" + positionNanos / 1_000_000_000L + "s" +
+                '}';
+    }
+}
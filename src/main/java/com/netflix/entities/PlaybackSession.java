@@ -0,0 +1,179 @@
+package com.netflix.entities;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State machine of one playback: {@code PLAYING <-> PAUSED -> ENDED | STOPPED}.
+ * <p>
+ * The position is not advanced by a timer. It is derived from the {@link System#nanoTime()} instant at which
+ * playback last resumed, so a session costs nothing while nobody looks at it.
+ */
+public class PlaybackSession {
+    private final long id;
+    private final int userId;
+    private final int profileId;
+    private final Media media;
+    private final Episode episode;
+    private final int seasonNumber;
+    private final int episodeNumber;
+    private final long durationNanos;
+
+    private PlaybackState state;
+    private long positionNanos;
+    private long resumedAtNanos;
+    private long lastProgressNanos;
+
+    public PlaybackSession(long id, int userId, int profileId, Media media, Episode episode,
+                           int seasonNumber, int episodeNumber, long startPositionNanos, long nowNanos) {
+        this.id = id;
+        this.userId = userId;
+        this.profileId = profileId;
+        this.media = media;
+        this.episode = episode;
+        this.seasonNumber = seasonNumber;
+        this.episodeNumber = episodeNumber;
+        this.durationNanos = TimeUnit.MINUTES.toNanos(durationInMinutes(media, episode));
+        this.positionNanos = Math.max(0, Math.min(startPositionNanos, durationNanos));
+        this.resumedAtNanos = nowNanos;
+        this.lastProgressNanos = nowNanos;
+        this.state = PlaybackState.PLAYING;
+    }
+
+    private static int durationInMinutes(Media media, Episode episode) {
+        if (episode != null) {
+            return episode.getDuration();
+        }
+        return media instanceof Movie movie ? movie.getDurationInMinutes() : 0;
+    }
+
+    public synchronized boolean play(long nowNanos) {
+        if (state != PlaybackState.PAUSED) {
+            return false;
+        }
+        resumedAtNanos = nowNanos;
+        state = PlaybackState.PLAYING;
+        return true;
+    }
+
+    public synchronized boolean pause(long nowNanos) {
+        if (state != PlaybackState.PLAYING) {
+            return false;
+        }
+        positionNanos = getPositionNanos(nowNanos);
+        state = PlaybackState.PAUSED;
+        return true;
+    }
+
+    public synchronized boolean seek(long targetNanos, long nowNanos) {
+        if (isFinished()) {
+            return false;
+        }
+        positionNanos = Math.max(0, Math.min(targetNanos, durationNanos));
+        resumedAtNanos = nowNanos;
+        return true;
+    }
+
+    public synchronized boolean end() {
+        if (isFinished()) {
+            return false;
+        }
+        positionNanos = durationNanos;
+        state = PlaybackState.ENDED;
+        return true;
+    }
+
+    public synchronized boolean stop(long nowNanos) {
+        if (isFinished()) {
+            return false;
+        }
+        positionNanos = getPositionNanos(nowNanos);
+        state = PlaybackState.STOPPED;
+        return true;
+    }
+
+    /**
+     * Marks a progress report if at least {@code intervalNanos} have passed since the previous one.
+     *
+     * @return True if a progress event is due.
+     */
+    public synchronized boolean markProgressDue(long nowNanos, long intervalNanos) {
+        if (state != PlaybackState.PLAYING || nowNanos - lastProgressNanos < intervalNanos) {
+            return false;
+        }
+        lastProgressNanos = nowNanos;
+        return true;
+    }
+
+    public synchronized long getPositionNanos(long nowNanos) {
+        if (state != PlaybackState.PLAYING) {
+            return positionNanos;
+        }
+        return Math.min(durationNanos, positionNanos + (nowNanos - resumedAtNanos));
+    }
+
+    public long getPositionSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(getPositionNanos(System.nanoTime()));
+    }
+
+    public synchronized PlaybackState getState() {
+        return state;
+    }
+
+    public synchronized boolean isPaused() {
+        return state == PlaybackState.PAUSED;
+    }
+
+    public synchronized boolean isFinished() {
+        return state == PlaybackState.ENDED || state == PlaybackState.STOPPED;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getProfileId() {
+        return profileId;
+    }
+
+    public Media getMedia() {
+        return media;
+    }
+
+    public Episode getEpisode() {
+        return episode;
+    }
+
+    public int getSeasonNumber() {
+        return seasonNumber;
+    }
+
+    public int getEpisodeNumber() {
+        return episodeNumber;
+    }
+
+    public String getTitle() {
+        return episode != null ? episode.getTitle() : media.getTitle();
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getDurationSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(durationNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "PlaybackSession{" +
+                "id=" + id +
+                ", title='" + getTitle() + '\'' +
+                ", state=" + getState() +
+                ", position=" + getPositionSeconds() + "s" +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.netflix.entities;
+
+public enum PlaybackState {
+    PLAYING("Assistindo"),
+    PAUSED("Pausado"),
+    ENDED("Finalizado"),
+    STOPPED("Interrompido");
+
+    private final String description;
+
+    PlaybackState(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
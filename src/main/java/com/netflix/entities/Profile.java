@@ -1,13 +1,13 @@
 package com.netflix.entities;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Profile {
     private int id;
     private String name;
     private User owner;
-    private final List<Media> myList = new ArrayList<>();
+    private final CopyOnWriteArrayList<Media> myList = new CopyOnWriteArrayList<>();
 
     public Profile(int id, String name, User owner) {
         this.id = id;
@@ -47,14 +47,12 @@ public class Profile {
         return myList;
     }
 
-    public void addToMyList(Media media) {
-        if (media != null && !myList.contains(media)) {
-            myList.add(media);
-        }
+    public boolean addToMyList(Media media) {
+        return media != null && myList.addIfAbsent(media);
     }
 
-    public void removeFromMyList(Media media) {
-        myList.remove(media);
+    public boolean removeFromMyList(Media media) {
+        return myList.remove(media);
     }
 
     @Override
@@ -0,0 +1,50 @@
+package com.netflix.entities;
+
+public class Session {
+    private final String token;
+    private final User user;
+    private volatile Profile profile;
+    private volatile long expiresAtNanos;
+
+    public Session(String token, User user, long expiresAtNanos) {
+        this.token = token;
+        this.user = user;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(Profile profile) {
+        this.profile = profile;
+    }
+
+    public long getExpiresAtNanos() {
+        return expiresAtNanos;
+    }
+
+    public void setExpiresAtNanos(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Session{" +
+                "user=" + user.getEmail() +
+                ", profile=" + (profile != null ? profile.getName() : null) +
+                '}';
+    }
+}
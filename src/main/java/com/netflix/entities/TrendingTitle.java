@@ -0,0 +1,30 @@
+package com.netflix.entities;
+
+public class TrendingTitle {
+    private final Media media;
+    private final long recentPlays;
+    private final long concurrentViewers;
+
+    public TrendingTitle(Media media, long recentPlays, long concurrentViewers) {
+        this.media = media;
+        this.recentPlays = recentPlays;
+        this.concurrentViewers = concurrentViewers;
+    }
+
+    public Media getMedia() {
+        return media;
+    }
+
+    public long getRecentPlays() {
+        return recentPlays;
+    }
+
+    public long getConcurrentViewers() {
+        return concurrentViewers;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + media.getId() + "] " + media.getTitle() + " (" + concurrentViewers + " assistindo agora)";
+    }
+}
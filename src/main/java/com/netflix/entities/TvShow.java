@@ -1,26 +1,70 @@
 package com.netflix.entities;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class TvShow extends Media {
-    private Map<Integer, List<Episode>> seasons;
+    private volatile SortedMap<Integer, List<Episode>> seasons = Collections.emptySortedMap();
+    private volatile EpisodeSequence episodeSequence = new EpisodeSequence(Collections.emptySortedMap());
 
     public TvShow(){
     }
 
     public TvShow(String title, String description, String director, LocalDate releaseDate, Category category, double rating, Map<Integer, List<Episode>> seasons) {
         super(title, description, director, releaseDate, category, rating);
-        this.seasons = seasons;
+        publish(copyOf(seasons));
     }
 
+    /**
+     * @return A read-only snapshot of the seasons, ordered by season number.
+     * Use {@link #setSeasons}, {@link #putSeason} or {@link #removeSeason} to edit them.
+     */
     public Map<Integer, List<Episode>> getSeasons() {
         return this.seasons;
     }
 
-    public void setSeasons(Map<Integer, List<Episode>> seasons) {
-        this.seasons = seasons;
+    public synchronized void setSeasons(Map<Integer, List<Episode>> seasons) {
+        publish(copyOf(seasons));
+    }
+
+    public synchronized void putSeason(int seasonNumber, List<Episode> episodes) {
+        TreeMap<Integer, List<Episode>> copy = new TreeMap<>(this.seasons);
+        copy.put(seasonNumber, List.copyOf(episodes));
+        publish(copy);
+    }
+
+    public synchronized void removeSeason(int seasonNumber) {
+        TreeMap<Integer, List<Episode>> copy = new TreeMap<>(this.seasons);
+        copy.remove(seasonNumber);
+        publish(copy);
+    }
+
+    /**
+     * Returns the flattened episode sequence of the show.
+     * It is rebuilt whenever the seasons are edited, so callers holding an older sequence keep a consistent
+     * snapshot of the seasons they started with.
+     *
+     * @return The episode sequence.
+     */
+    public EpisodeSequence getEpisodeSequence() {
+        return this.episodeSequence;
+    }
+
+    private static TreeMap<Integer, List<Episode>> copyOf(Map<Integer, List<Episode>> seasons) {
+        TreeMap<Integer, List<Episode>> copy = new TreeMap<>();
+        if (seasons != null) {
+            seasons.forEach((number, episodes) -> copy.put(number, List.copyOf(episodes)));
+        }
+        return copy;
+    }
+
+    private void publish(TreeMap<Integer, List<Episode>> seasons) {
+        this.seasons = Collections.unmodifiableSortedMap(seasons);
+        this.episodeSequence = new EpisodeSequence(seasons);
     }
 
     @Override
@@ -2,14 +2,18 @@ package com.netflix.entities;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class User {
     private int id;
     private String name;
     private String email;
     private String password;
+    private String passwordHash;
     private boolean isAdmin;
-    private final List<Profile> profiles;
+    private final ConcurrentSkipListMap<Integer, Profile> profiles = new ConcurrentSkipListMap<>();
+    private final AtomicInteger lastProfileId = new AtomicInteger();
     private List<String> watchedMovies;
 
     public User(int id, String name, String email, String password, boolean isAdmin) {
@@ -18,7 +22,6 @@ public class User {
         this.email = email;
         this.password = password;
         this.isAdmin = isAdmin;
-        this.profiles = new ArrayList<>();
         this.watchedMovies = new ArrayList<>();
     }
 
@@ -27,7 +30,6 @@ public class User {
         this.email = email;
         this.password = password;
         this.isAdmin = false;
-        this.profiles = new ArrayList<>();
     }
 
     public int getId() {
@@ -70,6 +72,21 @@ public class User {
         }
     }
 
+    /**
+     * Drops the plaintext password once it has been hashed.
+     */
+    public void clearPassword() {
+        this.password = null;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
     public boolean isAdmin() {
         return isAdmin;
     }
@@ -96,25 +113,38 @@ public class User {
     }
 
     public List<Profile> getProfiles() {
-        return profiles;
+        return List.copyOf(profiles.values());
+    }
+
+    /**
+     * Reserves the next profile id of this user. Safe to call concurrently; every call hands out a new id.
+     *
+     * @return A profile id that has not been handed out before.
+     */
+    public int reserveProfileId() {
+        return lastProfileId.incrementAndGet();
+    }
+
+    /**
+     * @return The id the next {@link #reserveProfileId()} would hand out, without reserving it.
+     */
+    public int peekNextProfileId() {
+        return lastProfileId.get() + 1;
     }
 
     public void addProfile(Profile profile) {
-        if (profile != null && !profiles.contains(profile)) {
-            profiles.add(profile);
+        if (profile != null && profiles.putIfAbsent(profile.getId(), profile) == null) {
+            lastProfileId.accumulateAndGet(profile.getId(), Math::max);
         }
     }
 
     public void removeProfile(Profile profile) {
-        profiles.remove(profile);
+        if (profile != null) {
+            profiles.remove(profile.getId(), profile);
+        }
     }
 
     public Profile getProfileById(int id) {
-        for (Profile profile : profiles) {
-            if (profile.getId() == id) {
-                return profile;
-            }
-        }
-        return null;
+        return profiles.get(id);
     }
 }
@@ -0,0 +1,53 @@
+package com.netflix.entities;
+
+public class WatchHistoryEntry {
+    private final int mediaId;
+    private final int seasonNumber;
+    private final int episodeNumber;
+    private final long positionSeconds;
+    private final boolean finished;
+    private final long watchedAt;
+
+    public WatchHistoryEntry(int mediaId, int seasonNumber, int episodeNumber, long positionSeconds, boolean finished, long watchedAt) {
+        this.mediaId = mediaId;
+        this.seasonNumber = seasonNumber;
+        this.episodeNumber = episodeNumber;
+        this.positionSeconds = positionSeconds;
+        this.finished = finished;
+        this.watchedAt = watchedAt;
+    }
+
+    public int getMediaId() {
+        return mediaId;
+    }
+
+    public int getSeasonNumber() {
+        return seasonNumber;
+    }
+
+    public int getEpisodeNumber() {
+        return episodeNumber;
+    }
+
+    public long getPositionSeconds() {
+        return positionSeconds;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public long getWatchedAt() {
+        return watchedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "WatchHistoryEntry{" +
+                "mediaId=" + mediaId +
+                ", season=" + seasonNumber +
+                ", episode=" + episodeNumber +
+                ", finished=" + finished +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package com.netflix.repositories;
+
+import com.netflix.entities.Media;
+
+import java.util.List;
+
+/**
+ * Receives the writes made to a {@link MediaRepository}.
+ * Callbacks run on the writing thread after the change is stored and must not block.
+ */
+public interface MediaChangeListener {
+    default void onSaved(Media media) {
+    }
+
+    /**
+     * @param previous The stored media before the update. It may be the same instance as {@code current} when
+     *                 the caller edited the media in place.
+     * @param current  The stored media after the update.
+     */
+    default void onUpdated(Media previous, Media current) {
+    }
+
+    default void onDeleted(Media media) {
+    }
+
+    /**
+     * Called once by {@link MediaRepository#saveAll(List)} instead of {@link #onSaved(Media)} for every media, so
+     * listeners that keep derived state can build it in one pass. By default it calls {@link #onSaved(Media)} for
+     * each of them.
+     */
+    default void onMediaBulkSaved(List<Media> medias) {
+        medias.forEach(this::onSaved);
+    }
+}
@@ -7,4 +7,21 @@ import java.util.List;
 public interface MediaRepository extends Repository<Media> {
     List<Media> findAllMovies();
     List<Media> findAllTvShows();
+    void addListener(MediaChangeListener listener);
+
+    /**
+     * @return A number that grows on every write to the catalog. It changes only after the write is visible.
+     */
+    long getCatalogVersion();
+
+    /**
+     * @return The catalog version of the last write of a title, or 0 if the title does not exist.
+     */
+    long getVersion(int mediaId);
+
+    /**
+     * @return A random number chosen when the repository is created. Versions start over with every repository,
+     * so they only identify the same content together with the epoch.
+     */
+    long getEpoch();
 }
@@ -4,6 +4,12 @@ import java.util.List;
 
 public interface Repository<T> {
     void save(T entity);
+
+    /**
+     * Saves many entities at once, in order. Equivalent to calling {@link #save(Object)} for each of them, but the
+     * entities become visible together and listeners are notified once with the whole list.
+     */
+    void saveAll(List<T> entities);
     T findById(int id);
     List<T> findAll();
     void update(T entity) throws Exception;
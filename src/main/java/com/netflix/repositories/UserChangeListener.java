@@ -0,0 +1,44 @@
+package com.netflix.repositories;
+
+import com.netflix.entities.Profile;
+import com.netflix.entities.User;
+
+import java.util.List;
+
+/**
+ * Receives the writes made to a {@link UserRepository}.
+ * Callbacks run on the writing thread after the change is stored and must not block.
+ */
+public interface UserChangeListener {
+    default void onSaved(User user) {
+    }
+
+    /**
+     * Called for every {@link UserRepository#update(Object)}, including the ones that only change a profile.
+     */
+    default void onUpdated(User user) {
+    }
+
+    default void onDeleted(User user) {
+    }
+
+    /**
+     * Called once by {@link UserRepository#saveAll(List)} instead of {@link #onSaved(User)} for every user. By
+     * default it calls {@link #onSaved(User)} for each of them.
+     */
+    default void onUserBulkSaved(List<User> users) {
+        users.forEach(this::onSaved);
+    }
+
+    /**
+     * Called by the update that first stores a profile of the user, after {@link #onUpdated(User)}.
+     */
+    default void onProfileAdded(User user, Profile profile) {
+    }
+
+    /**
+     * Called by the update that first stores the user without one of its profiles, after {@link #onUpdated(User)}.
+     */
+    default void onProfileRemoved(User user, int profileId) {
+    }
+}
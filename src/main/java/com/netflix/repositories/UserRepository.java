@@ -4,4 +4,5 @@ import com.netflix.entities.User;
 
 public interface UserRepository extends Repository<User> {
     User findByEmail(String email);
+    void addListener(UserChangeListener listener);
 }
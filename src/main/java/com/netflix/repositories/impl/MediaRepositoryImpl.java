@@ -3,68 +3,130 @@ package com.netflix.repositories.impl;
 import com.netflix.entities.Media;
 import com.netflix.entities.Movie;
 import com.netflix.entities.TvShow;
+import com.netflix.repositories.MediaChangeListener;
 import com.netflix.repositories.MediaRepository;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Keeps the catalog in a map ordered by id, so lookups by id are logarithmic and listing keeps the order in which
+ * titles were added. Writes are serialized, which keeps the versions and the listener callbacks in the order of
+ * the writes; reads never lock. {@link #findAll()} returns an immutable snapshot that is built on the first read
+ * after a write and shared until the next one. Every write changes the map before it bumps the catalog version, so
+ * a snapshot tagged with a version holds at least the writes up to it.
+ */
 public class MediaRepositoryImpl implements MediaRepository {
-    private final List<Media> medias = new ArrayList<>();
-    private int idMedia = 1;
+    private final ConcurrentSkipListMap<Integer, Media> medias = new ConcurrentSkipListMap<>();
+    private final List<MediaChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger idMedia = new AtomicInteger(1);
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
 
     @Override
-    public void save(Media media) {
-        media.setId(idMedia++);
-        medias.add(media);
+    public synchronized void save(Media media) {
+        media.setId(idMedia.getAndIncrement());
+        medias.put(media.getId(), media);
+        versions.put(media.getId(), catalogVersion.incrementAndGet());
+        listeners.forEach(listener -> listener.onSaved(media));
+    }
+
+    @Override
+    public synchronized void saveAll(List<Media> entities) {
+        for (Media media : entities) {
+            media.setId(idMedia.getAndIncrement());
+            medias.put(media.getId(), media);
+        }
+        for (Media media : entities) {
+            versions.put(media.getId(), catalogVersion.incrementAndGet());
+        }
+        List<Media> saved = List.copyOf(entities);
+        listeners.forEach(listener -> listener.onMediaBulkSaved(saved));
     }
 
     @Override
     public Media findById(int id) {
-        return medias.stream()
-                .filter(user -> user.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return medias.get(id);
     }
 
     @Override
     public List<Media> findAll() {
-        return medias;
+        long version = catalogVersion.get();
+        Snapshot current = snapshot;
+        if (current.version() != version) {
+            current = new Snapshot(version, List.copyOf(medias.values()));
+            snapshot = current;
+        }
+        return current.medias();
     }
 
     @Override
-    public void update(Media entity) throws Exception {
-        Media oldMedia = findById(entity.getId());
+    public synchronized void update(Media entity) throws Exception {
+        Media oldMedia = medias.replace(entity.getId(), entity);
 
         if (oldMedia == null) {
             throw new Exception("Não foi possível encontrar a mídia desejada.");
         }
 
-        medias.remove(oldMedia);
-        medias.add(entity);
+        versions.put(entity.getId(), catalogVersion.incrementAndGet());
+        listeners.forEach(listener -> listener.onUpdated(oldMedia, entity));
     }
 
     @Override
-    public void delete(int id) throws Exception {
-        Media media = findById(id);
+    public synchronized void delete(int id) throws Exception {
+        Media media = medias.remove(id);
 
         if (media == null) {
             throw new Exception("Não foi possível encontrar a mídia desejada.");
         }
 
-        medias.remove(media);
+        versions.remove(id);
+        catalogVersion.incrementAndGet();
+        listeners.forEach(listener -> listener.onDeleted(media));
+    }
+
+    @Override
+    public void addListener(MediaChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    @Override
+    public long getVersion(int mediaId) {
+        return versions.getOrDefault(mediaId, 0L);
+    }
+
+    @Override
+    public long getEpoch() {
+        return epoch;
     }
 
     @Override
     public List<Media> findAllMovies() {
-        return this.medias.stream()
+        return findAll().stream()
                 .filter(media -> media instanceof Movie)
                 .toList();
     }
 
     @Override
     public List<Media> findAllTvShows() {
-        return this.medias.stream()
+        return findAll().stream()
                 .filter(media -> media instanceof TvShow)
                 .toList();
     }
+
+    private record Snapshot(long version, List<Media> medias) {
+    }
 }
@@ -1,48 +1,152 @@
 package com.netflix.repositories.impl;
 
+import com.netflix.entities.Profile;
 import com.netflix.entities.User;
+import com.netflix.repositories.UserChangeListener;
 import com.netflix.repositories.UserRepository;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Keeps the users in a map ordered by id, with an index by e-mail. Writes are serialized and notify the listeners
+ * in the order of the writes; reads never lock. {@link #findAll()} returns an immutable snapshot that is rebuilt on the first read after
+ * a write.
+ */
 public class UserRepositoryImpl implements UserRepository {
-    private final List<User> users = new ArrayList<>();
-    private int idUser = 0;
+    private final ConcurrentSkipListMap<Integer, User> users = new ConcurrentSkipListMap<>();
+    private final List<UserChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger idUser = new AtomicInteger(1);
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final Map<Integer, String> storedEmails = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> storedProfileIds = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
 
     @Override
-    public void save(User user) {
-        user.setId(idUser++);
-        users.add(user);
+    public synchronized void save(User user) {
+        store(user);
+        writes.incrementAndGet();
+        listeners.forEach(listener -> listener.onSaved(user));
+    }
+
+    @Override
+    public synchronized void saveAll(List<User> entities) {
+        for (User user : entities) {
+            store(user);
+        }
+        writes.incrementAndGet();
+        List<User> saved = List.copyOf(entities);
+        listeners.forEach(listener -> listener.onUserBulkSaved(saved));
     }
 
     @Override
     public User findById(int id) {
-        return users.stream()
-                .filter(user -> user.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return users.get(id);
     }
 
     @Override
     public List<User> findAll() {
-        return users;
+        long version = writes.get();
+        Snapshot current = snapshot;
+        if (current.version() != version) {
+            current = new Snapshot(version, List.copyOf(users.values()));
+            snapshot = current;
+        }
+        return current.users();
+    }
+
+    /**
+     * Users are edited in place, so an update only reindexes the e-mail, compares the profiles with the ones seen by
+     * the previous write and notifies the listeners.
+     */
+    @Override
+    public synchronized void update(User user) {
+        indexEmail(user);
+        Set<Integer> current = profileIds(user);
+        Set<Integer> previous = storedProfileIds.put(user.getId(), current);
+        listeners.forEach(listener -> listener.onUpdated(user));
+        if (previous == null) {
+            return;
+        }
+
+        for (Profile profile : user.getProfiles()) {
+            if (!previous.contains(profile.getId())) {
+                listeners.forEach(listener -> listener.onProfileAdded(user, profile));
+            }
+        }
+        for (int profileId : previous) {
+            if (!current.contains(profileId)) {
+                listeners.forEach(listener -> listener.onProfileRemoved(user, profileId));
+            }
+        }
     }
 
     @Override
-    public void update(User user) {
+    public synchronized void delete(int id) {
+        User user = users.remove(id);
+        if (user != null) {
+            String email = storedEmails.remove(id);
+            if (email != null) {
+                usersByEmail.remove(email, user);
+            }
+            storedProfileIds.remove(id);
+            writes.incrementAndGet();
+            listeners.forEach(listener -> listener.onDeleted(user));
+        }
     }
 
     @Override
-    public void delete(int id) {
-        users.removeIf(user -> user.getId() == id);
+    public void addListener(UserChangeListener listener) {
+        listeners.add(listener);
     }
 
     @Override
     public User findByEmail(String email) {
-        return users.stream()
-                .filter(user -> user.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        return email == null ? null : usersByEmail.get(email);
+    }
+
+    /**
+     * Gives the user the next id and stores it. Ids start at 1, since {@link User#setId(int)} ignores the others,
+     * and a stored user is never replaced.
+     */
+    private void store(User user) {
+        int id = idUser.getAndIncrement();
+        user.setId(id);
+        if (user.getId() != id || users.putIfAbsent(id, user) != null) {
+            throw new IllegalStateException("Não foi possível atribuir o id " + id + " ao usuário.");
+        }
+        indexEmail(user);
+        storedProfileIds.put(id, profileIds(user));
+    }
+
+    private void indexEmail(User user) {
+        String previous = user.getEmail() == null
+                ? storedEmails.remove(user.getId())
+                : storedEmails.put(user.getId(), user.getEmail());
+        if (previous != null && !previous.equals(user.getEmail())) {
+            usersByEmail.remove(previous, user);
+        }
+        if (user.getEmail() != null) {
+            usersByEmail.put(user.getEmail(), user);
+        }
+    }
+
+    private static Set<Integer> profileIds(User user) {
+        Set<Integer> ids = new HashSet<>();
+        for (Profile profile : user.getProfiles()) {
+            ids.add(profile.getId());
+        }
+        return ids;
+    }
+
+    private record Snapshot(long version, List<User> users) {
     }
 }
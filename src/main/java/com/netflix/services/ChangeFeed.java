@@ -0,0 +1,608 @@
+package com.netflix.services;
+
+import com.netflix.entities.ChangeEvent;
+import com.netflix.entities.Media;
+import com.netflix.entities.Profile;
+import com.netflix.entities.User;
+import com.netflix.repositories.MediaChangeListener;
+import com.netflix.repositories.UserChangeListener;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ordered feed of the writes made to the media and user repositories, for indexes, caches and external consumers.
+ * <p>
+ * Every write becomes a {@link ChangeEvent} with the next sequence number, appended to a log file and kept in a
+ * ring of the most recent events; a bulk load becomes a single {@link ChangeEvent.Operation#RESYNC} event.
+ * Subscribers receive the events in sequence order through {@link Flow}: each subscription buffers at most a fixed
+ * number of events, and a subscriber that falls behind is not slowed down by the writers nor drops anything. Its buffer simply stops taking live events and is refilled from the ring, or
+ * from the log file once the ring has moved past it, as the subscriber requests more. The same path lets a
+ * subscriber resume from the sequence number after the last event it processed.
+ * <p>
+ * The repository callbacks only append to the log and to the buffers; delivery runs on the executor. The log is
+ * flushed every {@value #FLUSH_MILLIS} ms rather than per event, and once it holds {@value #LOG_EVENTS_PER_RETAINED}
+ * times as many events as the ring it is rewritten with only the events of the ring.
+ * <p>
+ * The repositories assign new ids on every start, so the events of earlier runs are dropped from the log when the
+ * feed is created. Only their last sequence number is kept, in an epoch line ({@code #<sequence>}) at the top of
+ * the log: numbering continues from it, and a subscriber resuming from an earlier run receives {@code onError}
+ * instead of events about other entities.
+ */
+public class ChangeFeed implements Flow.Publisher<ChangeEvent>, MediaChangeListener, UserChangeListener, AutoCloseable {
+    public static final int DEFAULT_RETAINED_EVENTS = 10_000;
+    public static final int DEFAULT_BUFFER_CAPACITY = 256;
+    private static final int NO_OWNER = -1;
+    private static final long FLUSH_MILLIS = 100;
+    private static final int LOG_EVENTS_PER_RETAINED = 100;
+    private static final String EPOCH = "#";
+
+    private final Path file;
+    private final ChangeEvent[] retained;
+    private final int bufferCapacity;
+    private final Executor executor;
+    private final ScheduledExecutorService flusher;
+    private final List<FeedSubscription> subscriptions = new ArrayList<>();
+    private BufferedWriter writer;
+    private long eventsInLog;
+    private boolean dirty;
+    private long lastSequence;
+    private long firstRetained = 1;
+    private boolean closed;
+
+    public ChangeFeed(Path file) {
+        this(file, DEFAULT_RETAINED_EVENTS, DEFAULT_BUFFER_CAPACITY, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param file           The log file, or null to keep only the events of the ring. An existing file is reset to
+     *                       an epoch line, and sequence numbers continue from its last event.
+     * @param retainedEvents How many recent events are kept in memory.
+     * @param bufferCapacity How many events each subscription buffers.
+     * @param executor       Runs the delivery to the subscribers.
+     */
+    public ChangeFeed(Path file, int retainedEvents, int bufferCapacity, Executor executor) {
+        if (retainedEvents < 1 || bufferCapacity < 1) {
+            throw new IllegalArgumentException("A capacidade do feed de alterações deve ser positiva.");
+        }
+
+        this.file = file;
+        this.retained = new ChangeEvent[retainedEvents];
+        this.bufferCapacity = bufferCapacity;
+        this.executor = executor;
+
+        if (file == null) {
+            this.flusher = null;
+            return;
+        }
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            load();
+            rewriteLog();
+        } catch (IOException e) {
+            System.err.println("Não foi possível abrir o log de alterações: " + e.getMessage());
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushLog, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Subscribes to the events published from now on.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ChangeEvent> subscriber) {
+        long next;
+        synchronized (this) {
+            next = lastSequence + 1;
+        }
+        subscribe(subscriber, next);
+    }
+
+    /**
+     * Subscribes to the events starting at the given sequence number. The subscriber receives
+     * {@code onError} if those events are no longer retained in memory nor in the log file.
+     *
+     * @param fromSequence The first sequence number to deliver; values past the last event mean "from now on".
+     */
+    public void subscribe(Flow.Subscriber<? super ChangeEvent> subscriber, long fromSequence) {
+        FeedSubscription subscription;
+        synchronized (this) {
+            subscription = new FeedSubscription(subscriber, Math.max(1, Math.min(fromSequence, lastSequence + 1)));
+            if (closed) {
+                subscription.completed = true;
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    /**
+     * @return The sequence number of the last published event, or 0 if there is none.
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void onSaved(Media media) {
+        publish(ChangeEvent.Entity.MEDIA, ChangeEvent.Operation.CREATED, media.getId(), NO_OWNER);
+    }
+
+    @Override
+    public void onUpdated(Media previous, Media current) {
+        publish(ChangeEvent.Entity.MEDIA, ChangeEvent.Operation.UPDATED, current.getId(), NO_OWNER);
+    }
+
+    @Override
+    public void onDeleted(Media media) {
+        publish(ChangeEvent.Entity.MEDIA, ChangeEvent.Operation.DELETED, media.getId(), NO_OWNER);
+    }
+
+    @Override
+    public void onMediaBulkSaved(List<Media> medias) {
+        if (!medias.isEmpty()) {
+            publish(ChangeEvent.Entity.MEDIA, ChangeEvent.Operation.RESYNC, medias.size(), NO_OWNER);
+        }
+    }
+
+    @Override
+    public void onSaved(User user) {
+        publish(ChangeEvent.Entity.USER, ChangeEvent.Operation.CREATED, user.getId(), NO_OWNER);
+    }
+
+    @Override
+    public void onUpdated(User user) {
+        publish(ChangeEvent.Entity.USER, ChangeEvent.Operation.UPDATED, user.getId(), NO_OWNER);
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        publish(ChangeEvent.Entity.USER, ChangeEvent.Operation.DELETED, user.getId(), NO_OWNER);
+    }
+
+    @Override
+    public void onUserBulkSaved(List<User> users) {
+        if (!users.isEmpty()) {
+            publish(ChangeEvent.Entity.USER, ChangeEvent.Operation.RESYNC, users.size(), NO_OWNER);
+        }
+    }
+
+    @Override
+    public void onProfileAdded(User user, Profile profile) {
+        publish(ChangeEvent.Entity.PROFILE, ChangeEvent.Operation.CREATED, profile.getId(), user.getId());
+    }
+
+    @Override
+    public void onProfileRemoved(User user, int profileId) {
+        publish(ChangeEvent.Entity.PROFILE, ChangeEvent.Operation.DELETED, profileId, user.getId());
+    }
+
+    private synchronized void publish(ChangeEvent.Entity entity, ChangeEvent.Operation operation, int id, int ownerId) {
+        if (closed) {
+            return;
+        }
+
+        ChangeEvent event = new ChangeEvent(lastSequence + 1, entity, operation, id, ownerId, System.currentTimeMillis());
+        retain(event);
+
+        if (writer != null) {
+            try {
+                writer.write(encode(event));
+                writer.newLine();
+                dirty = true;
+                if (++eventsInLog > (long) retained.length * LOG_EVENTS_PER_RETAINED) {
+                    rewriteLog();
+                }
+            } catch (IOException e) {
+                System.err.println("Não foi possível gravar o log de alterações: " + e.getMessage());
+            }
+        }
+
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    private void retain(ChangeEvent event) {
+        lastSequence = event.getSequence();
+        retained[(int) (lastSequence % retained.length)] = event;
+        firstRetained = Math.max(firstRetained, lastSequence - retained.length + 1);
+    }
+
+    private synchronized void flushLog() {
+        if (writer != null && dirty) {
+            try {
+                writer.flush();
+                dirty = false;
+            } catch (IOException e) {
+                System.err.println("Não foi possível gravar o log de alterações: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replaces the log with an epoch line and the events of the ring, and reopens it for appending. The new file
+     * is moved over the old one, so a subscriber still reading the old file is not disturbed.
+     */
+    private void rewriteLog() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            out.write(EPOCH + (firstRetained - 1));
+            out.newLine();
+            for (long sequence = firstRetained; sequence <= lastSequence; sequence++) {
+                out.write(encode(retained[(int) (sequence % retained.length)]));
+                out.newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        eventsInLog = lastSequence - firstRetained + 1;
+        dirty = false;
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Completes the subscriptions once they have received the events published so far and closes the log file.
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        List<FeedSubscription> open;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            open = List.copyOf(subscriptions);
+
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    System.err.println("Não foi possível fechar o log de alterações: " + e.getMessage());
+                }
+            }
+        }
+        open.forEach(FeedSubscription::complete);
+    }
+
+    /**
+     * Reads the highest sequence number of the log, so numbering continues after every event of earlier runs,
+     * including one cut short by a crash.
+     */
+    private void load() throws IOException {
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lastSequence = Math.max(lastSequence, sequenceOf(line));
+                }
+            }
+        }
+        firstRetained = lastSequence + 1;
+    }
+
+    /**
+     * @return The sequence number of an event or epoch line, or 0 if the line is damaged.
+     */
+    private static long sequenceOf(String line) {
+        if (line.startsWith(EPOCH)) {
+            try {
+                return Long.parseLong(line.substring(EPOCH.length()));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        ChangeEvent event = decode(line);
+        return event == null ? 0 : event.getSequence();
+    }
+
+    private static String encode(ChangeEvent event) {
+        return event.getSequence() + ";" + event.getEntity() + ";" + event.getOperation() + ";" + event.getId() + ";" +
+                event.getOwnerId() + ";" + event.getTimestamp();
+    }
+
+    /**
+     * @return The event of a log line, or null if the line is incomplete.
+     */
+    private static ChangeEvent decode(String line) {
+        String[] fields = line.split(";");
+        if (fields.length != 6) {
+            return null;
+        }
+
+        try {
+            return new ChangeEvent(Long.parseLong(fields[0]), ChangeEvent.Entity.valueOf(fields[1]),
+                    ChangeEvent.Operation.valueOf(fields[2]), Integer.parseInt(fields[3]), Integer.parseInt(fields[4]),
+                    Long.parseLong(fields[5]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * State of one subscriber. {@code nextSequence} is the first event not yet in the buffer; while
+     * {@code catchingUp} is set the live events are skipped and the buffer is refilled from the ring or the log.
+     * The feed lock is always taken before the subscription lock, and no lock is held while calling the subscriber.
+     */
+    private final class FeedSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super ChangeEvent> subscriber;
+        private final ArrayDeque<ChangeEvent> buffer = new ArrayDeque<>();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private long nextSequence;
+        private boolean catchingUp = true;
+        private long demand;
+        private boolean completed;
+        private boolean cancelled;
+        private Throwable error;
+        private BufferedReader logReader;
+
+        FeedSubscription(Flow.Subscriber<? super ChangeEvent> subscriber, long nextSequence) {
+            this.subscriber = subscriber;
+            this.nextSequence = nextSequence;
+        }
+
+        /**
+         * Releases the delivery, which is held until {@code onSubscribe} returns.
+         */
+        void start() {
+            executor.execute(this);
+        }
+
+        /**
+         * Called with the feed lock held.
+         */
+        void offer(ChangeEvent event) {
+            synchronized (this) {
+                if (cancelled || catchingUp) {
+                    return;
+                }
+                if (buffer.size() >= bufferCapacity) {
+                    catchingUp = true;
+                    return;
+                }
+                buffer.add(event);
+                nextSequence = event.getSequence() + 1;
+            }
+            schedule();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("A demanda deve ser positiva: " + n);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (!drain()) {
+                    release();
+                    return;
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Delivers the buffered events the subscriber asked for.
+         *
+         * @return False once the subscription is over.
+         */
+        private boolean drain() {
+            while (true) {
+                ChangeEvent event;
+                boolean refill = false;
+                Throwable failure;
+                synchronized (this) {
+                    if (cancelled) {
+                        return false;
+                    }
+                    failure = error;
+                    if (failure == null) {
+                        if (demand == 0) {
+                            return true;
+                        }
+                        event = buffer.poll();
+                        if (event != null) {
+                            demand--;
+                        } else if (catchingUp) {
+                            refill = true;
+                        } else if (completed) {
+                            cancelled = true;
+                        } else {
+                            return true;
+                        }
+                    } else {
+                        cancelled = true;
+                        event = null;
+                    }
+                }
+
+                try {
+                    if (failure != null) {
+                        subscriber.onError(failure);
+                        return false;
+                    }
+                    if (refill) {
+                        refill();
+                    } else if (event != null) {
+                        subscriber.onNext(event);
+                    } else {
+                        subscriber.onComplete();
+                        return false;
+                    }
+                } catch (IOException e) {
+                    fail(e);
+                } catch (RuntimeException e) {
+                    System.err.println("Erro em um assinante do feed de alterações: " + e.getMessage());
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * Moves the next events after the buffer from the ring, or from the log if the ring has moved past them.
+         */
+        private void refill() throws IOException {
+            long from;
+            long to;
+            boolean fromLog;
+            synchronized (ChangeFeed.this) {
+                synchronized (this) {
+                    from = nextSequence;
+                    fromLog = from < firstRetained;
+                    to = Math.min(fromLog ? firstRetained : lastSequence + 1, from + bufferCapacity);
+                    if (fromLog) {
+                        flushLog();
+                    } else {
+                        for (long sequence = from; sequence < to; sequence++) {
+                            buffer.add(retained[(int) (sequence % retained.length)]);
+                        }
+                        nextSequence = to;
+                        catchingUp = to <= lastSequence;
+                    }
+                }
+            }
+            if (!fromLog) {
+                closeLogReader();
+                return;
+            }
+
+            List<ChangeEvent> events = readLog(from, to);
+            synchronized (this) {
+                buffer.addAll(events);
+                nextSequence = to;
+            }
+        }
+
+        /**
+         * Reads the events in {@code [from, to)} from the log file. Those events are older than the ring, so they
+         * are complete on disk. The reader stays open until the subscription reaches the ring.
+         */
+        private List<ChangeEvent> readLog(long from, long to) throws IOException {
+            if (file == null) {
+                throw unavailable(from);
+            }
+            if (logReader == null) {
+                logReader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            }
+
+            List<ChangeEvent> events = new ArrayList<>((int) (to - from));
+            long expected = from;
+            String line;
+            while (expected < to && (line = logReader.readLine()) != null) {
+                ChangeEvent event = decode(line);
+                if (event == null || event.getSequence() < expected) {
+                    continue;
+                }
+                if (event.getSequence() > expected) {
+                    throw unavailable(expected);
+                }
+                events.add(event);
+                expected++;
+            }
+            if (expected < to) {
+                throw unavailable(expected);
+            }
+            return events;
+        }
+
+        private IOException unavailable(long sequence) {
+            return new IOException("O evento #" + sequence + " não está mais disponível.");
+        }
+
+        private void fail(Throwable failure) {
+            synchronized (this) {
+                if (error == null) {
+                    error = failure;
+                }
+            }
+        }
+
+        private void release() {
+            synchronized (ChangeFeed.this) {
+                subscriptions.remove(this);
+            }
+            synchronized (this) {
+                buffer.clear();
+            }
+            closeLogReader();
+        }
+
+        private void closeLogReader() {
+            if (logReader != null) {
+                try {
+                    logReader.close();
+                } catch (IOException ignored) {
+                }
+                logReader = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package com.netflix.services;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.HomeView;
+import com.netflix.entities.Media;
+import com.netflix.entities.Movie;
+import com.netflix.entities.PlaybackCheckpoint;
+import com.netflix.entities.PlaybackHeartbeat;
+import com.netflix.entities.Profile;
+import com.netflix.entities.WatchHistoryEntry;
+import com.netflix.repositories.MediaChangeListener;
+import com.netflix.utils.RingBufferConsumer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-profile cache of the home screen: "My List", "Continuar assistindo", top titles of the favourite categories
+ * of the profile and the trending titles.
+ * <p>
+ * A view is built the first time a profile asks for it and is then patched by events instead of being rebuilt:
+ * "My List" changes replace that section, playback heartbeats move titles in and out of "Continuar assistindo"
+ * and update the category counts, and catalog writes remove deleted titles and update the per-category rankings.
+ * Each ranking keeps a few more than the titles shown, so a write only moves one title in or out of it; a category
+ * is scanned again only when deletions leave its ranking shorter than a section. The trending section is shared
+ * by all views and refreshed at most once per {@code trendingTtl}.
+ * <p>
+ * All views together are kept under a memory budget. The least recently used views are evicted when the budget
+ * is exceeded, and views idle for longer than {@code idleTimeout} are evicted on the next access.
+ */
+public class HomeViewService implements MyListListener, MediaChangeListener, RingBufferConsumer.Handler<PlaybackHeartbeat> {
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 4L * 1024 * 1024;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_TRENDING_TTL = Duration.ofSeconds(30);
+    private static final int SECTION_SIZE = 10;
+    private static final int FAVORITE_CATEGORIES = 2;
+    private static final int RANKING_SIZE = 4 * SECTION_SIZE;
+    private static final long ENTRY_OVERHEAD_BYTES = 96L + Category.values().length * 4L;
+
+    private final MediaService mediaService;
+    private final PlaybackCheckpointService checkpointService;
+    private final WatchHistoryService watchHistoryService;
+    private final PopularityService popularityService;
+    private final long memoryBudgetBytes;
+    private final long idleTimeoutNanos;
+    private final long trendingTtlNanos;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private final Map<Category, Ranking> rankings = new EnumMap<>(Category.class);
+    private List<Media> trending = List.of();
+    private long trendingVersion;
+    private long trendingAt;
+
+    public HomeViewService(MediaService mediaService, PlaybackCheckpointService checkpointService,
+                           WatchHistoryService watchHistoryService, PopularityService popularityService) {
+        this(mediaService, checkpointService, watchHistoryService, popularityService,
+                DEFAULT_MEMORY_BUDGET_BYTES, DEFAULT_IDLE_TIMEOUT, DEFAULT_TRENDING_TTL);
+    }
+
+    /**
+     * @param memoryBudgetBytes The approximate memory all cached views may use together.
+     * @param idleTimeout       How long a view may go unread before it is evicted.
+     * @param trendingTtl       How long the shared trending section is reused.
+     */
+    public HomeViewService(MediaService mediaService, PlaybackCheckpointService checkpointService,
+                           WatchHistoryService watchHistoryService, PopularityService popularityService,
+                           long memoryBudgetBytes, Duration idleTimeout, Duration trendingTtl) {
+        this.mediaService = mediaService;
+        this.checkpointService = checkpointService;
+        this.watchHistoryService = watchHistoryService;
+        this.popularityService = popularityService;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.trendingTtlNanos = trendingTtl.toNanos();
+        this.trendingAt = System.nanoTime() - trendingTtlNanos;
+
+        for (Category category : Category.values()) {
+            rankings.put(category, new Ranking());
+        }
+        rankAll(mediaService.getAllMedia());
+    }
+
+    /**
+     * @return The home screen of the profile, built on first access and patched afterwards.
+     */
+    public synchronized HomeView getHomeView(Profile profile) {
+        long now = System.nanoTime();
+        long key = key(profile.getOwner().getId(), profile.getId());
+
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            misses++;
+            entry = build(profile);
+        } else {
+            hits++;
+        }
+        entries.put(key, entry);
+        entry.lastAccessNanos = now;
+
+        refreshTrending(now);
+        if (entry.trendingVersion != trendingVersion) {
+            replace(entry, entry.view.withTrending(trending));
+            entry.trendingVersion = trendingVersion;
+        }
+        if (entry.topPicksVersion != catalogVersion.get()) {
+            refreshTopPicks(entry);
+        }
+
+        evict(now, key);
+        return entry.view;
+    }
+
+    /**
+     * Drops the cached view of a profile, e.g. after the profile is removed.
+     */
+    public synchronized void invalidate(int userId, int profileId) {
+        Entry entry = entries.remove(key(userId, profileId));
+        if (entry != null) {
+            usedBytes -= entry.sizeInBytes;
+        }
+    }
+
+    @Override
+    public void onAdded(Profile profile, Media media) {
+        refreshMyList(profile);
+    }
+
+    @Override
+    public void onRemoved(Profile profile, Media media) {
+        refreshMyList(profile);
+    }
+
+    private synchronized void refreshMyList(Profile profile) {
+        Entry entry = entries.get(key(profile.getOwner().getId(), profile.getId()));
+        if (entry != null) {
+            replace(entry, entry.view.withMyList(profile.getMyList()));
+        }
+    }
+
+    @Override
+    public void onSaved(Media media) {
+        rankAll(List.of(media));
+    }
+
+    @Override
+    public void onMediaBulkSaved(List<Media> medias) {
+        rankAll(medias);
+    }
+
+    /**
+     * Repository listeners are called one write at a time, so a category scanned here cannot change before its
+     * ranking is replaced.
+     */
+    @Override
+    public void onUpdated(Media previous, Media current) {
+        List<Category> depleted;
+        synchronized (this) {
+            unrank(previous.getId());
+            rank(current);
+            depleted = depletedCategories();
+            catalogVersion.incrementAndGet();
+        }
+        rescan(depleted);
+        if (previous != current) {
+            replaceEverywhere(previous, current);
+        }
+    }
+
+    @Override
+    public void onDeleted(Media media) {
+        List<Category> depleted;
+        synchronized (this) {
+            unrank(media.getId());
+            depleted = depletedCategories();
+            catalogVersion.incrementAndGet();
+        }
+        rescan(depleted);
+        replaceEverywhere(media, null);
+    }
+
+    /**
+     * Patches the views of profiles that are cached: stopping a title moves it to the front of
+     * "Continuar assistindo", finishing a movie removes it, and every start counts towards the favourite
+     * categories. Profiles without a cached view are ignored; their view will be built from the stored state.
+     */
+    @Override
+    public void onEvent(PlaybackHeartbeat heartbeat, long sequence, boolean endOfBatch) {
+        Media stopped = heartbeat.getType() == PlaybackHeartbeat.Type.STOP && heartbeat.getPositionNanos() > 0
+                ? mediaService.getMediaById(heartbeat.getMediaId()) : null;
+        synchronized (this) {
+            apply(heartbeat, stopped);
+        }
+    }
+
+    private void apply(PlaybackHeartbeat heartbeat, Media stopped) {
+        Entry entry = entries.get(key(heartbeat.getUserId(), heartbeat.getProfileId()));
+        if (entry == null) {
+            return;
+        }
+
+        switch (heartbeat.getType()) {
+            case START -> {
+                if (heartbeat.getCategory() != null) {
+                    entry.categoryCounts[heartbeat.getCategory().ordinal()]++;
+                    entry.topPicksVersion = -1;
+                }
+            }
+            case STOP -> {
+                if (stopped != null) {
+                    List<Media> continueWatching = new ArrayList<>(SECTION_SIZE);
+                    continueWatching.add(stopped);
+                    entry.view.getContinueWatching().stream()
+                            .filter(other -> other.getId() != stopped.getId())
+                            .limit(SECTION_SIZE - 1)
+                            .forEach(continueWatching::add);
+                    replace(entry, entry.view.withContinueWatching(continueWatching));
+                }
+            }
+            case END -> {
+                List<Media> continueWatching = entry.view.getContinueWatching().stream()
+                        .filter(media -> media.getId() != heartbeat.getMediaId() || !(media instanceof Movie))
+                        .toList();
+                if (continueWatching.size() != entry.view.getContinueWatching().size()) {
+                    replace(entry, entry.view.withContinueWatching(continueWatching));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    public synchronized int getCachedViewCount() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized String metricsSummary() {
+        return "views=" + entries.size() + " bytes=" + usedBytes + "/" + memoryBudgetBytes
+                + " hits=" + hits + " misses=" + misses + " evictions=" + evictions;
+    }
+
+    private Entry build(Profile profile) {
+        int userId = profile.getOwner().getId();
+
+        List<Media> continueWatching = checkpointService.findByProfile(userId, profile.getId()).stream()
+                .map(PlaybackCheckpoint::getMediaId)
+                .distinct()
+                .map(mediaService::getMediaById)
+                .filter(Objects::nonNull)
+                .limit(SECTION_SIZE)
+                .toList();
+
+        Entry entry = new Entry();
+        for (WatchHistoryEntry watched : watchHistoryService.getHistory(userId, profile.getId())) {
+            Media media = mediaService.getMediaById(watched.getMediaId());
+            if (media != null && media.getCategory() != null) {
+                entry.categoryCounts[media.getCategory().ordinal()]++;
+            }
+        }
+
+        entry.view = new HomeView(profile.getMyList(), continueWatching, List.of(), List.of(), trending);
+        entry.trendingVersion = trendingVersion;
+        replace(entry, entry.view);
+        refreshTopPicks(entry);
+        return entry;
+    }
+
+    private void refreshTopPicks(Entry entry) {
+        long version = catalogVersion.get();
+
+        List<Category> favorites = new ArrayList<>(FAVORITE_CATEGORIES);
+        for (Category category : Category.values()) {
+            if (entry.categoryCounts[category.ordinal()] > 0) {
+                favorites.add(category);
+            }
+        }
+        favorites.sort(Comparator.comparingInt((Category category) -> entry.categoryCounts[category.ordinal()]).reversed());
+        if (favorites.size() > FAVORITE_CATEGORIES) {
+            favorites = favorites.subList(0, FAVORITE_CATEGORIES);
+        }
+
+        List<Media> topPicks = favorites.stream()
+                .flatMap(category -> rankings.get(category).top(SECTION_SIZE).stream())
+                .limit(SECTION_SIZE)
+                .toList();
+
+        replace(entry, entry.view.withTopPicks(favorites, topPicks));
+        entry.topPicksVersion = version;
+    }
+
+    private synchronized void rankAll(List<Media> medias) {
+        for (Media media : medias) {
+            rank(media);
+        }
+        catalogVersion.incrementAndGet();
+    }
+
+    private void rank(Media media) {
+        if (media.getCategory() != null) {
+            rankings.get(media.getCategory()).offer(media);
+        }
+    }
+
+    /**
+     * Removes a title from whichever ranking holds it; its category may have changed since it was ranked.
+     */
+    private void unrank(int mediaId) {
+        for (Ranking ranking : rankings.values()) {
+            if (ranking.remove(mediaId)) {
+                return;
+            }
+        }
+    }
+
+    private List<Category> depletedCategories() {
+        List<Category> depleted = new ArrayList<>();
+        rankings.forEach((category, ranking) -> {
+            if (ranking.isDepleted()) {
+                depleted.add(category);
+            }
+        });
+        return depleted;
+    }
+
+    /**
+     * Rebuilds the rankings of the given categories from the catalog, scanning it without holding the lock.
+     */
+    private void rescan(List<Category> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+
+        Map<Category, Ranking> rebuilt = new EnumMap<>(Category.class);
+        for (Category category : categories) {
+            rebuilt.put(category, new Ranking());
+        }
+        for (Media media : mediaService.getAllMedia()) {
+            Ranking ranking = media.getCategory() != null ? rebuilt.get(media.getCategory()) : null;
+            if (ranking != null) {
+                ranking.offer(media);
+            }
+        }
+
+        synchronized (this) {
+            rankings.putAll(rebuilt);
+            catalogVersion.incrementAndGet();
+        }
+    }
+
+    private void refreshTrending(long now) {
+        if (now - trendingAt >= trendingTtlNanos) {
+            trending = popularityService.getTrending(SECTION_SIZE);
+            trendingVersion++;
+            trendingAt = now;
+        }
+    }
+
+    private synchronized void replaceEverywhere(Media previous, Media current) {
+        for (Entry entry : entries.values()) {
+            HomeView view = entry.view;
+            List<Media> myList = replaceIn(view.getMyList(), previous, current);
+            List<Media> continueWatching = replaceIn(view.getContinueWatching(), previous, current);
+            List<Media> topPicks = replaceIn(view.getTopPicks(), previous, current);
+            List<Media> trendingTitles = replaceIn(view.getTrending(), previous, current);
+
+            if (myList != null || continueWatching != null || topPicks != null || trendingTitles != null) {
+                replace(entry, new HomeView(
+                        myList != null ? myList : view.getMyList(),
+                        continueWatching != null ? continueWatching : view.getContinueWatching(),
+                        view.getFavoriteCategories(),
+                        topPicks != null ? topPicks : view.getTopPicks(),
+                        trendingTitles != null ? trendingTitles : view.getTrending()));
+            }
+        }
+        trendingAt = System.nanoTime() - trendingTtlNanos;
+    }
+
+    /**
+     * @return The section with {@code previous} replaced by {@code current} (or removed when it is null), or
+     * null when the section does not contain it.
+     */
+    private static List<Media> replaceIn(List<Media> section, Media previous, Media current) {
+        int index = section.indexOf(previous);
+        if (index < 0) {
+            return null;
+        }
+
+        List<Media> patched = new ArrayList<>(section);
+        if (current != null) {
+            patched.set(index, current);
+        } else {
+            patched.remove(index);
+        }
+        return patched;
+    }
+
+    private void replace(Entry entry, HomeView view) {
+        long size = ENTRY_OVERHEAD_BYTES + view.getApproximateSizeInBytes();
+        usedBytes += size - entry.sizeInBytes;
+        entry.sizeInBytes = size;
+        entry.view = view;
+    }
+
+    /**
+     * Evicts idle views and then the least recently used ones until the cache fits the budget. The view that was
+     * just returned is never evicted.
+     */
+    private void evict(long now, long keep) {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Entry> eldest = iterator.next();
+            if (eldest.getKey() == keep) {
+                break;
+            }
+
+            boolean idle = now - eldest.getValue().lastAccessNanos > idleTimeoutNanos;
+            if (!idle && usedBytes <= memoryBudgetBytes) {
+                break;
+            }
+
+            usedBytes -= eldest.getValue().sizeInBytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static long key(int userId, int profileId) {
+        return ((long) userId << 32) | (profileId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The best rated titles of one category, best first and ties by id. It always holds the exact top
+     * {@code size()} titles of the category: a new title only enters if it beats the last one, unless the ranking
+     * holds the whole category, and removing a title keeps the rest exact. It is depleted when removals leave it
+     * shorter than a section while the category has more titles.
+     */
+    private static final class Ranking {
+        private static final Comparator<Ranked> ORDER = Comparator.comparingDouble(Ranked::rating).reversed()
+                .thenComparingInt(Ranked::id);
+
+        private final TreeSet<Ranked> titles = new TreeSet<>(ORDER);
+        private final Map<Integer, Ranked> byId = new HashMap<>();
+        private boolean complete = true;
+
+        void offer(Media media) {
+            Ranked ranked = new Ranked(media.getRating(), media.getId(), media);
+            if (!complete && ORDER.compare(ranked, titles.last()) > 0) {
+                return;
+            }
+
+            titles.add(ranked);
+            byId.put(ranked.id(), ranked);
+            if (titles.size() > RANKING_SIZE) {
+                byId.remove(titles.pollLast().id());
+                complete = false;
+            }
+        }
+
+        /**
+         * @return Whether the title was in the ranking. The stored rating is used, so titles edited in place are
+         * found too.
+         */
+        boolean remove(int mediaId) {
+            Ranked ranked = byId.remove(mediaId);
+            return ranked != null && titles.remove(ranked);
+        }
+
+        boolean isDepleted() {
+            return !complete && titles.size() < SECTION_SIZE;
+        }
+
+        List<Media> top(int limit) {
+            return titles.stream().limit(limit).map(Ranked::media).toList();
+        }
+    }
+
+    private record Ranked(double rating, int id, Media media) {
+    }
+
+    private static class Entry {
+        private final int[] categoryCounts = new int[Category.values().length];
+        private HomeView view;
+        private long sizeInBytes;
+        private long lastAccessNanos;
+        private long topPicksVersion = -1;
+        private long trendingVersion;
+    }
+}
@@ -1,41 +1,61 @@
 package com.netflix.services;
 
+import com.netflix.entities.Profile;
+import com.netflix.entities.Session;
 import com.netflix.entities.User;
 
-import java.util.List;
-
 public class LoginService {
+    public static final String CONSOLE_CLIENT_ID = "console";
+
     private final UserService userService;
-    private User loggedInUser;
+    private final SessionManager sessionManager;
+    private final LoginThrottler loginThrottler;
 
-    public LoginService(UserService userService) {
+    public LoginService(UserService userService, SessionManager sessionManager, LoginThrottler loginThrottler) {
         this.userService = userService;
+        this.sessionManager = sessionManager;
+        this.loginThrottler = loginThrottler;
     }
 
-    public boolean authenticate(String email, String password) {
-        List<User> users = userService.getAllUsers();
-        for (User user : users) {
-            if (user.getEmail().equals(email) && user.getPassword().equals(password)) {
-                loggedInUser = user;
-                return true;
-            }
+    public User authenticate(String email, String password) throws Exception {
+        User user = userService.getUserByEmail(email);
+
+        if (user != null && userService.verifyPassword(user, password)) {
+            return user;
         }
-        return false;
+        return null;
     }
 
-    public void login(String email, String password) throws Exception {
-        if (authenticate(email, password)) {
-            return;
+    public String login(String email, String password) throws Exception {
+        return login(email, password, CONSOLE_CLIENT_ID);
+    }
+
+    public String login(String email, String password, String clientId) throws Exception {
+        loginThrottler.acquire(email, clientId);
+
+        User user = authenticate(email, password);
+
+        if (user != null) {
+            return sessionManager.create(user).getToken();
         }
 
         throw new Exception("Credenciais inválidas.");
     }
 
-    public void logout() {
-        loggedInUser = null;
+    public void logout(String token) {
+        sessionManager.invalidate(token);
+    }
+
+    public Session getSession(String token) {
+        return sessionManager.validate(token);
+    }
+
+    public User getLoggedInUser(String token) {
+        Session session = sessionManager.validate(token);
+        return session != null ? session.getUser() : null;
     }
 
-    public User getLoggedInUser() {
-        return loggedInUser;
+    public void selectProfile(String token, Profile profile) throws Exception {
+        sessionManager.selectProfile(token, profile);
     }
 }
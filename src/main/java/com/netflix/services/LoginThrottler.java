@@ -0,0 +1,124 @@
+package com.netflix.services;
+
+import com.netflix.utils.TokenBucket;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limits login attempts per account and per client before any credential is checked.
+ * <p>
+ * Every e-mail and every client id gets its own {@link TokenBucket}. Rejections are decided with a single
+ * read of the bucket, so shedding abusive traffic costs far less than the password verification it
+ * protects. Buckets that have refilled completely are dropped in the background.
+ */
+public class LoginThrottler implements AutoCloseable {
+    public static final int DEFAULT_ACCOUNT_CAPACITY = 5;
+    public static final Duration DEFAULT_ACCOUNT_REFILL = Duration.ofSeconds(12);
+    public static final int DEFAULT_CLIENT_CAPACITY = 20;
+    public static final Duration DEFAULT_CLIENT_REFILL = Duration.ofSeconds(3);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+
+    private final ConcurrentHashMap<String, TokenBucket> accountBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final int accountCapacity;
+    private final long accountRefillNanos;
+    private final int clientCapacity;
+    private final long clientRefillNanos;
+    private final ScheduledExecutorService evictor;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public LoginThrottler() {
+        this(DEFAULT_ACCOUNT_CAPACITY, DEFAULT_ACCOUNT_REFILL, DEFAULT_CLIENT_CAPACITY, DEFAULT_CLIENT_REFILL);
+    }
+
+    /**
+     * @param accountCapacity The burst of attempts allowed per e-mail.
+     * @param accountRefill   The time to regain one attempt per e-mail.
+     * @param clientCapacity  The burst of attempts allowed per client id.
+     * @param clientRefill    The time to regain one attempt per client id.
+     */
+    public LoginThrottler(int accountCapacity, Duration accountRefill, int clientCapacity, Duration clientRefill) {
+        this.accountCapacity = accountCapacity;
+        this.accountRefillNanos = accountRefill.toNanos();
+        this.clientCapacity = clientCapacity;
+        this.clientRefillNanos = clientRefill.toNanos();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-throttler-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleAtFixedRate(this::evictIdleBuckets,
+                EVICTION_INTERVAL.toMillis(), EVICTION_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes one attempt from the client bucket and from the account bucket. Both are checked first, so an attempt
+     * rejected by one bucket does not use up a token of the other.
+     *
+     * @param email    The e-mail used in the attempt.
+     * @param clientId The id of the client (address, device, ...) making the attempt.
+     * @throws TooManyAttemptsException If either bucket is empty.
+     */
+    public void acquire(String email, String clientId) throws TooManyAttemptsException {
+        long now = System.nanoTime();
+        String client = clientId == null ? "" : clientId;
+        String account = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+
+        long wait = Math.max(waitNanos(clientBuckets.get(client), now), waitNanos(accountBuckets.get(account), now));
+        if (wait == 0) {
+            TokenBucket clientBucket = clientBuckets.computeIfAbsent(client,
+                    _ -> new TokenBucket(clientCapacity, clientRefillNanos));
+            wait = clientBucket.tryAcquire(now);
+
+            // Another attempt may take the last account token between the check and here.
+            if (wait == 0) {
+                wait = accountBuckets.computeIfAbsent(account,
+                        _ -> new TokenBucket(accountCapacity, accountRefillNanos)).tryAcquire(now);
+                if (wait > 0) {
+                    clientBucket.release();
+                }
+            }
+        }
+
+        if (wait > 0) {
+            rejected.increment();
+            throw new TooManyAttemptsException(Duration.ofNanos(wait));
+        }
+
+        accepted.increment();
+    }
+
+    private static long waitNanos(TokenBucket bucket, long now) {
+        return bucket != null ? bucket.getWaitNanos(now) : 0;
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getTrackedBucketCount() {
+        return accountBuckets.size() + clientBuckets.size();
+    }
+
+    private void evictIdleBuckets() {
+        long now = System.nanoTime();
+        accountBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+    }
+}
@@ -2,6 +2,7 @@ package com.netflix.services;
 
 import com.netflix.entities.Category;
 import com.netflix.entities.Media;
+import com.netflix.repositories.MediaChangeListener;
 import com.netflix.repositories.MediaRepository;
 
 import java.time.LocalDate;
@@ -16,10 +17,30 @@ public class MediaService {
         this.mediaRepository = mediaRepository;
     }
 
+    public void addChangeListener(MediaChangeListener listener) {
+        mediaRepository.addListener(listener);
+    }
+
+    public long getCatalogVersion() {
+        return mediaRepository.getCatalogVersion();
+    }
+
+    public long getMediaVersion(int id) {
+        return mediaRepository.getVersion(id);
+    }
+
+    public long getCatalogEpoch() {
+        return mediaRepository.getEpoch();
+    }
+
     public void addMedia(Media media) {
         mediaRepository.save(media);
     }
 
+    public void addAllMedia(List<Media> mediaList) {
+        mediaRepository.saveAll(mediaList);
+    }
+
     public Media getMediaById(int id) {
         return mediaRepository.findById(id);
     }
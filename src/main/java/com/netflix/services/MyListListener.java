@@ -0,0 +1,16 @@
+package com.netflix.services;
+
+import com.netflix.entities.Media;
+import com.netflix.entities.Profile;
+
+/**
+ * Receives changes made to the "My List" of profiles through the {@link UserService}.
+ * Callbacks run on the thread that made the change and must not block.
+ */
+public interface MyListListener {
+    default void onAdded(Profile profile, Media media) {
+    }
+
+    default void onRemoved(Profile profile, Media media) {
+    }
+}
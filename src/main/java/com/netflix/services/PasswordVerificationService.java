@@ -0,0 +1,204 @@
+package com.netflix.services;
+
+import com.netflix.entities.User;
+import com.netflix.utils.LatencyRecorder;
+import com.netflix.utils.PasswordHasher;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies passwords off the request path.
+ * <p>
+ * Each verification runs on a virtual thread, but only a bounded number of them may run the expensive
+ * key derivation at the same time and only a bounded number may wait for their turn. A burst of logins
+ * therefore occupies at most {@code maxConcurrent} CPU cores and excess attempts are rejected quickly
+ * instead of queueing without limit. Recent successful verifications are remembered for a short time
+ * so that repeated logins by the same user skip the key derivation.
+ */
+public class PasswordVerificationService implements AutoCloseable {
+    public static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int MAX_CACHE_ENTRIES = 10_000;
+
+    private final PasswordHasher hasher;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore running;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConcurrentHashMap<String, CachedVerification> recent = new ConcurrentHashMap<>();
+    private final long cacheTtlNanos;
+    private final long timeoutNanos;
+    private final byte[] pepper = new byte[32];
+
+    private final LatencyRecorder verificationLatency = new LatencyRecorder();
+    private final LatencyRecorder queueLatency = new LatencyRecorder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public PasswordVerificationService(PasswordHasher hasher) {
+        this(hasher, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 256, DEFAULT_CACHE_TTL, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * @param hasher        The hasher used to check passwords.
+     * @param maxConcurrent The maximum number of key derivations running at once.
+     * @param maxQueued     The maximum number of verifications waiting for a slot.
+     * @param cacheTtl      How long a successful verification is remembered.
+     * @param timeout       How long a caller waits for its verification.
+     */
+    public PasswordVerificationService(PasswordHasher hasher, int maxConcurrent, int maxQueued, Duration cacheTtl, Duration timeout) {
+        this.hasher = hasher;
+        this.running = new Semaphore(maxConcurrent);
+        this.maxQueued = maxQueued;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        new SecureRandom().nextBytes(pepper);
+    }
+
+    /**
+     * Hashes a new password. Used when credentials are created or changed.
+     *
+     * @param password The plaintext password.
+     * @return The encoded hash.
+     */
+    public String hash(String password) {
+        return hasher.hash(password);
+    }
+
+    /**
+     * Checks a password against the stored hash of a user.
+     *
+     * @param user     The user whose credentials are checked.
+     * @param password The plaintext password.
+     * @return True if the password matches.
+     * @throws Exception If the verification queue is full or the verification timed out.
+     */
+    public boolean verify(User user, String password) throws Exception {
+        String passwordHash = user.getPasswordHash();
+        if (password == null || passwordHash == null) {
+            return false;
+        }
+
+        byte[] digest = digest(password);
+        CachedVerification cached = recent.get(user.getEmail());
+        if (cached != null && cached.matches(passwordHash, digest, System.nanoTime())) {
+            cacheHits.increment();
+            return true;
+        }
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejections.increment();
+            throw new Exception("Muitas tentativas de login simultâneas. Tente novamente em instantes.");
+        }
+
+        long submittedAt = System.nanoTime();
+        Future<Boolean> result = executor.submit(() -> {
+            try {
+                running.acquire();
+            } finally {
+                queued.decrementAndGet();
+            }
+            long startedAt = System.nanoTime();
+            queueLatency.record(startedAt - submittedAt);
+            try {
+                return hasher.verify(password, passwordHash);
+            } finally {
+                verificationLatency.recordSince(startedAt);
+                running.release();
+            }
+        });
+
+        boolean valid;
+        try {
+            valid = result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejections.increment();
+            throw new Exception("Tempo de verificação esgotado. Tente novamente.");
+        } catch (ExecutionException e) {
+            throw new Exception("Não foi possível verificar as credenciais.", e.getCause());
+        }
+
+        if (valid) {
+            remember(user.getEmail(), passwordHash, digest);
+        }
+
+        return valid;
+    }
+
+    /**
+     * Forgets any cached verification for the given e-mail, e.g. after a password change.
+     *
+     * @param email The e-mail of the user.
+     */
+    public void invalidate(String email) {
+        recent.remove(email);
+    }
+
+    public LatencyRecorder getVerificationLatency() {
+        return verificationLatency;
+    }
+
+    public LatencyRecorder getQueueLatency() {
+        return queueLatency;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private void remember(String email, String passwordHash, byte[] digest) {
+        long now = System.nanoTime();
+        if (recent.size() >= MAX_CACHE_ENTRIES) {
+            recent.values().removeIf(entry -> entry.isExpired(now));
+        }
+        if (recent.size() < MAX_CACHE_ENTRIES) {
+            recent.put(email, new CachedVerification(passwordHash, digest, now + cacheTtlNanos));
+        }
+    }
+
+    private byte[] digest(String password) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(pepper);
+            return sha.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível nesta JVM.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        recent.clear();
+    }
+
+    private record CachedVerification(String passwordHash, byte[] digest, long expiresAtNanos) {
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+
+        boolean matches(String currentHash, byte[] candidate, long nowNanos) {
+            return !isExpired(nowNanos) && passwordHash.equals(currentHash) && MessageDigest.isEqual(digest, candidate);
+        }
+    }
+}
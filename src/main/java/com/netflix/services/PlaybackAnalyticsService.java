@@ -0,0 +1,54 @@
+package com.netflix.services;
+
+import com.netflix.entities.PlaybackHeartbeat;
+import com.netflix.utils.RingBufferConsumer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates watch time per title from the heartbeat pipeline.
+ * Only the consumer thread touches the per-session positions; totals can be read from any thread.
+ */
+public class PlaybackAnalyticsService implements RingBufferConsumer.Handler<PlaybackHeartbeat> {
+    private final Map<Long, Long> lastPositions = new HashMap<>();
+    private final ConcurrentHashMap<Integer, LongAdder> watchedNanos = new ConcurrentHashMap<>();
+    private final LongAdder heartbeats = new LongAdder();
+
+    @Override
+    public void onEvent(PlaybackHeartbeat heartbeat, long sequence, boolean endOfBatch) {
+        heartbeats.increment();
+
+        if (heartbeat.getType() == PlaybackHeartbeat.Type.START) {
+            lastPositions.put(heartbeat.getSessionId(), heartbeat.getPositionNanos());
+            return;
+        }
+
+        Long previous = lastPositions.get(heartbeat.getSessionId());
+        long delta = heartbeat.getPositionNanos() - (previous != null ? previous : 0);
+        if (delta > 0) {
+            watchedNanos.computeIfAbsent(heartbeat.getMediaId(), _ -> new LongAdder()).add(delta);
+        }
+
+        if (heartbeat.getType() == PlaybackHeartbeat.Type.PROGRESS) {
+            lastPositions.put(heartbeat.getSessionId(), heartbeat.getPositionNanos());
+        } else {
+            lastPositions.remove(heartbeat.getSessionId());
+        }
+    }
+
+    /**
+     * @return The total number of seconds watched of the given title.
+     */
+    public long getWatchedSeconds(int mediaId) {
+        LongAdder total = watchedNanos.get(mediaId);
+        return total != null ? TimeUnit.NANOSECONDS.toSeconds(total.sum()) : 0;
+    }
+
+    public long getHeartbeatCount() {
+        return heartbeats.sum();
+    }
+}
@@ -0,0 +1,304 @@
+package com.netflix.services;
+
+import com.netflix.entities.PlaybackCheckpoint;
+import com.netflix.entities.PlaybackHeartbeat;
+import com.netflix.entities.PlaybackSession;
+import com.netflix.utils.ConsoleMessage;
+import com.netflix.utils.RingBufferConsumer;
+import org.fusesource.jansi.Ansi;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the last playback position of each (profile, title, episode) so playback can be resumed.
+ * <p>
+ * Positions are updated in memory on every progress heartbeat and only the keys that changed are marked dirty.
+ * A background task appends the dirty entries to a local log file in one batch per flush interval, so each
+ * session causes at most one write per interval no matter how often it reports progress. The log is
+ * compacted into a snapshot when it grows well beyond the number of live entries.
+ * <p>
+ * Heartbeats arrive asynchronously through the heartbeat pipeline, but the service also listens to the
+ * {@link PlaybackEngine} directly and saves the final position of a stopped session on the thread that stopped it,
+ * so it can be offered for resuming right away. A checkpoint only replaces an older one, so a progress heartbeat
+ * still in the pipeline cannot undo it, and an end heartbeat only removes checkpoints that are not newer than it.
+ * <p>
+ * The log is keyed by user, profile and media ids and is loaded back when the service is created, so positions
+ * survive a restart. The ids are stable across runs: the repositories number users and titles from 1 in the order
+ * they are added, and the startup data (the administrator and the titles of the seeded generator) is always added
+ * in the same order.
+ */
+public final class PlaybackCheckpointService implements RingBufferConsumer.Handler<PlaybackHeartbeat>, PlaybackListener,
+        AutoCloseable {
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(30);
+    private static final String PUT = "P";
+    private static final String DELETE = "D";
+    private static final int COMPACTION_SLACK = 1_000;
+
+    private final ConcurrentHashMap<ProfileKey, ConcurrentHashMap<TitleKey, PlaybackCheckpoint>> checkpoints = new ConcurrentHashMap<>();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+    private final Path file;
+    private final ScheduledExecutorService flusher;
+    private long logEntries;
+
+    public PlaybackCheckpointService(Path file) {
+        this(file, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * @param file          The log file the checkpoints are persisted to and loaded from.
+     * @param flushInterval How often dirty checkpoints are written.
+     */
+    public PlaybackCheckpointService(Path file, Duration flushInterval) {
+        this.file = file;
+        load();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The checkpoint of the given title and episode, or null if there is none.
+     */
+    public PlaybackCheckpoint find(int userId, int profileId, int mediaId, int seasonNumber, int episodeNumber) {
+        Map<TitleKey, PlaybackCheckpoint> titles = checkpoints.get(new ProfileKey(userId, profileId));
+        return titles != null ? titles.get(new TitleKey(mediaId, seasonNumber, episodeNumber)) : null;
+    }
+
+    /**
+     * @return The most recently updated checkpoint of any episode of the given title, or null if there is none.
+     */
+    public PlaybackCheckpoint findLatest(int userId, int profileId, int mediaId) {
+        Map<TitleKey, PlaybackCheckpoint> titles = checkpoints.get(new ProfileKey(userId, profileId));
+        if (titles == null) {
+            return null;
+        }
+
+        return titles.values().stream()
+                .filter(checkpoint -> checkpoint.getMediaId() == mediaId)
+                .max(Comparator.comparingLong(PlaybackCheckpoint::getUpdatedAt))
+                .orElse(null);
+    }
+
+    /**
+     * @return Every checkpoint of a profile, most recently updated first.
+     */
+    public List<PlaybackCheckpoint> findByProfile(int userId, int profileId) {
+        Map<TitleKey, PlaybackCheckpoint> titles = checkpoints.get(new ProfileKey(userId, profileId));
+        if (titles == null) {
+            return List.of();
+        }
+
+        return titles.values().stream()
+                .sorted(Comparator.comparingLong(PlaybackCheckpoint::getUpdatedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Saves a checkpoint unless the one already saved for the same title and episode is at least as recent.
+     */
+    public void save(PlaybackCheckpoint checkpoint) {
+        ProfileKey profileKey = new ProfileKey(checkpoint.getUserId(), checkpoint.getProfileId());
+        TitleKey titleKey = new TitleKey(checkpoint.getMediaId(), checkpoint.getSeasonNumber(), checkpoint.getEpisodeNumber());
+
+        PlaybackCheckpoint saved = checkpoints.computeIfAbsent(profileKey, _ -> new ConcurrentHashMap<>())
+                .merge(titleKey, checkpoint, (old, current) -> current.getUpdatedAt() > old.getUpdatedAt() ? current : old);
+        if (saved == checkpoint) {
+            dirty.add(new Key(profileKey, titleKey));
+        }
+    }
+
+    public void remove(int userId, int profileId, int mediaId, int seasonNumber, int episodeNumber) {
+        ProfileKey profileKey = new ProfileKey(userId, profileId);
+        TitleKey titleKey = new TitleKey(mediaId, seasonNumber, episodeNumber);
+
+        Map<TitleKey, PlaybackCheckpoint> titles = checkpoints.get(profileKey);
+        if (titles != null && titles.remove(titleKey) != null) {
+            dirty.add(new Key(profileKey, titleKey));
+        }
+    }
+
+    /**
+     * Removes a checkpoint unless it was updated after the given instant.
+     */
+    private void remove(int userId, int profileId, int mediaId, int seasonNumber, int episodeNumber, long endedAt) {
+        ProfileKey profileKey = new ProfileKey(userId, profileId);
+        TitleKey titleKey = new TitleKey(mediaId, seasonNumber, episodeNumber);
+
+        Map<TitleKey, PlaybackCheckpoint> titles = checkpoints.get(profileKey);
+        if (titles == null) {
+            return;
+        }
+
+        boolean[] removed = {false};
+        titles.computeIfPresent(titleKey, (_, checkpoint) -> {
+            removed[0] = checkpoint.getUpdatedAt() <= endedAt;
+            return removed[0] ? null : checkpoint;
+        });
+        if (removed[0]) {
+            dirty.add(new Key(profileKey, titleKey));
+        }
+    }
+
+    /**
+     * Saves the final position of a stopped session before its stop heartbeat is queued.
+     */
+    @Override
+    public void onStop(PlaybackSession session, long positionNanos) {
+        save(new PlaybackCheckpoint(session.getUserId(), session.getProfileId(), session.getMedia().getId(),
+                session.getSeasonNumber(), session.getEpisodeNumber(), TimeUnit.NANOSECONDS.toSeconds(positionNanos),
+                System.currentTimeMillis()));
+    }
+
+    @Override
+    public void onEvent(PlaybackHeartbeat heartbeat, long sequence, boolean endOfBatch) {
+        switch (heartbeat.getType()) {
+            case PROGRESS, STOP -> save(new PlaybackCheckpoint(heartbeat.getUserId(), heartbeat.getProfileId(),
+                    heartbeat.getMediaId(), heartbeat.getSeasonNumber(), heartbeat.getEpisodeNumber(),
+                    TimeUnit.NANOSECONDS.toSeconds(heartbeat.getPositionNanos()), heartbeat.getTimestamp()));
+            case END -> remove(heartbeat.getUserId(), heartbeat.getProfileId(), heartbeat.getMediaId(),
+                    heartbeat.getSeasonNumber(), heartbeat.getEpisodeNumber(), heartbeat.getTimestamp());
+            case START -> {
+            }
+        }
+    }
+
+    /**
+     * Appends every dirty checkpoint to the log file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Key key : dirty) {
+                dirty.remove(key);
+
+                Map<TitleKey, PlaybackCheckpoint> titles = checkpoints.get(key.profile());
+                PlaybackCheckpoint checkpoint = titles != null ? titles.get(key.title()) : null;
+
+                writer.write(checkpoint != null ? encode(checkpoint) : encodeDeletion(key));
+                writer.newLine();
+                logEntries++;
+            }
+        }
+
+        long live = checkpoints.values().stream().mapToLong(Map::size).sum();
+        if (logEntries > 2 * live + COMPACTION_SLACK) {
+            compact();
+        }
+    }
+
+    private void compact() throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long written = 0;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Map<TitleKey, PlaybackCheckpoint> titles : checkpoints.values()) {
+                for (PlaybackCheckpoint checkpoint : titles.values()) {
+                    writer.write(encode(checkpoint));
+                    writer.newLine();
+                    written++;
+                }
+            }
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logEntries = written;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            ConsoleMessage.println("Não foi possível salvar o progresso de reprodução: " + e.getMessage(), Ansi.Color.RED);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(";");
+                if (fields.length < 6) {
+                    continue;
+                }
+
+                ProfileKey profileKey = new ProfileKey(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+                TitleKey titleKey = new TitleKey(Integer.parseInt(fields[3]), Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
+
+                if (fields[0].equals(PUT) && fields.length == 8) {
+                    checkpoints.computeIfAbsent(profileKey, _ -> new ConcurrentHashMap<>()).put(titleKey,
+                            new PlaybackCheckpoint(profileKey.userId(), profileKey.profileId(), titleKey.mediaId(),
+                                    titleKey.seasonNumber(), titleKey.episodeNumber(),
+                                    Long.parseLong(fields[6]), Long.parseLong(fields[7])));
+                } else if (fields[0].equals(DELETE)) {
+                    Map<TitleKey, PlaybackCheckpoint> titles = checkpoints.get(profileKey);
+                    if (titles != null) {
+                        titles.remove(titleKey);
+                    }
+                }
+                logEntries++;
+            }
+        } catch (IOException | NumberFormatException e) {
+            ConsoleMessage.println("Não foi possível carregar o progresso de reprodução: " + e.getMessage(), Ansi.Color.RED);
+        }
+    }
+
+    private static String encode(PlaybackCheckpoint checkpoint) {
+        return PUT + ";" + checkpoint.getUserId() + ";" + checkpoint.getProfileId() + ";" + checkpoint.getMediaId() + ";" +
+                checkpoint.getSeasonNumber() + ";" + checkpoint.getEpisodeNumber() + ";" +
+                checkpoint.getPositionSeconds() + ";" + checkpoint.getUpdatedAt();
+    }
+
+    private static String encodeDeletion(Key key) {
+        return DELETE + ";" + key.profile().userId() + ";" + key.profile().profileId() + ";" + key.title().mediaId() + ";" +
+                key.title().seasonNumber() + ";" + key.title().episodeNumber();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    private record ProfileKey(int userId, int profileId) {
+    }
+
+    private record TitleKey(int mediaId, int seasonNumber, int episodeNumber) {
+    }
+
+    private record Key(ProfileKey profile, TitleKey title) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.netflix.services;
+
+import com.netflix.entities.Episode;
+import com.netflix.entities.Media;
+import com.netflix.entities.PlaybackSession;
+import com.netflix.utils.ConsoleMessage;
+import org.fusesource.jansi.Ansi;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Drives every active {@link PlaybackSession} from one shared scheduler thread.
+ * <p>
+ * Commands (play, pause, seek, stop) are applied directly to the session by the caller. Once per tick the
+ * engine walks the active sessions, ends the ones that reached the end of the title and emits progress
+ * events at the configured interval, so no thread is ever parked per session. A screen showing a session can
+ * observe it to be called on every tick as well, e.g. to redraw its progress.
+ */
+public class PlaybackEngine implements AutoCloseable {
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(500);
+    public static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(10);
+
+    private final ConcurrentHashMap<Long, PlaybackSession> sessions = new ConcurrentHashMap<>();
+    private final List<PlaybackListener> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<Long, PlaybackListener> observers = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private final long progressIntervalNanos;
+
+    public PlaybackEngine() {
+        this(DEFAULT_TICK, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    /**
+     * @param tick             How often active sessions are checked.
+     * @param progressInterval How often a progress event is emitted per playing session.
+     */
+    public PlaybackEngine(Duration tick, Duration progressInterval) {
+        this.progressIntervalNanos = progressInterval.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "playback-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::tick, tick.toNanos(), tick.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void addListener(PlaybackListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts a new playback session.
+     *
+     * @param userId         The id of the user watching.
+     * @param profileId      The id of the profile watching, or 0 when no profile is selected.
+     * @param media          The movie or TV show.
+     * @param episode        The episode being watched, or null for movies.
+     * @param seasonNumber   The season of the episode, or 0 for movies.
+     * @param episodeNumber  The 1-based number of the episode in its season, or 0 for movies.
+     * @param startPosition  Where playback starts.
+     * @return The new session, already playing.
+     */
+    public PlaybackSession start(int userId, int profileId, Media media, Episode episode,
+                                 int seasonNumber, int episodeNumber, Duration startPosition) {
+        PlaybackSession session = new PlaybackSession(ids.incrementAndGet(), userId, profileId, media, episode,
+                seasonNumber, episodeNumber, startPosition.toNanos(), System.nanoTime());
+        sessions.put(session.getId(), session);
+        emit(listener -> listener.onStart(session));
+        return session;
+    }
+
+    /**
+     * Calls {@link PlaybackListener#onTick} of the observer for the given session on every tick, until the session
+     * stops or ends. A session has at most one observer.
+     *
+     * @param sessionId The session id.
+     * @param observer  The observer, replacing the previous one.
+     */
+    public void observe(long sessionId, PlaybackListener observer) {
+        observers.put(sessionId, observer);
+        if (!sessions.containsKey(sessionId)) {
+            observers.remove(sessionId);
+        }
+    }
+
+    public PlaybackSession getSession(long sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public boolean play(long sessionId) {
+        PlaybackSession session = sessions.get(sessionId);
+        return session != null && session.play(System.nanoTime());
+    }
+
+    public boolean pause(long sessionId) {
+        PlaybackSession session = sessions.get(sessionId);
+        return session != null && session.pause(System.nanoTime());
+    }
+
+    public boolean togglePause(long sessionId) {
+        PlaybackSession session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        return session.isPaused() ? session.play(System.nanoTime()) : session.pause(System.nanoTime());
+    }
+
+    public boolean seek(long sessionId, Duration position) {
+        PlaybackSession session = sessions.get(sessionId);
+        return session != null && session.seek(position.toNanos(), System.nanoTime());
+    }
+
+    /**
+     * Stops a session before its end. Does nothing if the session already ended.
+     *
+     * @param sessionId The session id.
+     */
+    public void stop(long sessionId) {
+        PlaybackSession session = sessions.remove(sessionId);
+        observers.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (session.stop(now)) {
+            long position = session.getPositionNanos(now);
+            emit(listener -> listener.onStop(session, position));
+        }
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+
+        for (PlaybackSession session : sessions.values()) {
+            long position = session.getPositionNanos(now);
+
+            if (position >= session.getDurationNanos()) {
+                if (session.end()) {
+                    sessions.remove(session.getId(), session);
+                    observers.remove(session.getId());
+                    emit(listener -> listener.onEnd(session));
+                }
+                continue;
+            }
+            if (session.markProgressDue(now, progressIntervalNanos)) {
+                emit(listener -> listener.onProgress(session, position));
+            }
+
+            PlaybackListener observer = observers.get(session.getId());
+            if (observer != null) {
+                try {
+                    observer.onTick(session, position);
+                } catch (RuntimeException e) {
+                    ConsoleMessage.println("Falha ao atualizar a reprodução: " + e.getMessage(), Ansi.Color.RED);
+                }
+            }
+        }
+    }
+
+    private void emit(Consumer<PlaybackListener> event) {
+        for (PlaybackListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                ConsoleMessage.println("Falha ao notificar evento de reprodução: " + e.getMessage(), Ansi.Color.RED);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        sessions.clear();
+        observers.clear();
+    }
+}
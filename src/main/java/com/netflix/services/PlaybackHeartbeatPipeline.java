@@ -0,0 +1,153 @@
+package com.netflix.services;
+
+import com.netflix.entities.PlaybackHeartbeat;
+import com.netflix.entities.PlaybackSession;
+import com.netflix.utils.RingBuffer;
+import com.netflix.utils.RingBufferConsumer;
+import com.netflix.utils.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests playback heartbeats into a preallocated {@link RingBuffer} and fans them out to batching consumers.
+ * <p>
+ * Publishing copies a few primitive fields into an existing slot, so the engine thread does not allocate per
+ * event. Progress heartbeats are dropped (and counted) when the buffer is full, while start, stop and end
+ * events wait for space because consumers rely on them to keep their state consistent.
+ */
+public class PlaybackHeartbeatPipeline implements PlaybackListener, AutoCloseable {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final RingBuffer<PlaybackHeartbeat> ringBuffer;
+    private final List<RingBufferConsumer<PlaybackHeartbeat>> consumers = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private boolean started;
+
+    public PlaybackHeartbeatPipeline() {
+        this(DEFAULT_BUFFER_SIZE, new WaitStrategy.Sleeping());
+    }
+
+    /**
+     * @param bufferSize   The number of preallocated heartbeat slots.
+     * @param waitStrategy How consumers wait for new heartbeats.
+     */
+    public PlaybackHeartbeatPipeline(int bufferSize, WaitStrategy waitStrategy) {
+        this.ringBuffer = new RingBuffer<>(bufferSize, PlaybackHeartbeat::new, waitStrategy);
+    }
+
+    /**
+     * Registers a consumer. Every consumer sees every heartbeat, on its own thread.
+     * Must be called before {@link #start()}.
+     *
+     * @param name    The name of the consumer thread.
+     * @param handler The handler receiving the heartbeats.
+     */
+    public synchronized void addConsumer(String name, RingBufferConsumer.Handler<PlaybackHeartbeat> handler) {
+        if (started) {
+            throw new IllegalStateException("O pipeline já foi iniciado.");
+        }
+
+        RingBufferConsumer<PlaybackHeartbeat> consumer = new RingBufferConsumer<>(ringBuffer, handler);
+        Thread thread = new Thread(consumer, "heartbeat-" + name);
+        thread.setDaemon(true);
+
+        consumers.add(consumer);
+        threads.add(thread);
+    }
+
+    public synchronized void start() {
+        if (!started) {
+            started = true;
+            threads.forEach(Thread::start);
+        }
+    }
+
+    @Override
+    public void onStart(PlaybackSession session) {
+        publish(PlaybackHeartbeat.Type.START, session, session.getPositionNanos(System.nanoTime()), true);
+    }
+
+    @Override
+    public void onProgress(PlaybackSession session, long positionNanos) {
+        publish(PlaybackHeartbeat.Type.PROGRESS, session, positionNanos, false);
+    }
+
+    @Override
+    public void onStop(PlaybackSession session, long positionNanos) {
+        publish(PlaybackHeartbeat.Type.STOP, session, positionNanos, true);
+    }
+
+    @Override
+    public void onEnd(PlaybackSession session) {
+        publish(PlaybackHeartbeat.Type.END, session, session.getDurationNanos(), true);
+    }
+
+    private void publish(PlaybackHeartbeat.Type type, PlaybackSession session, long positionNanos, boolean waitForSpace) {
+        long sequence = waitForSpace ? ringBuffer.next() : ringBuffer.tryNext();
+        if (sequence < 0) {
+            return;
+        }
+
+        try {
+            ringBuffer.get(sequence).set(type, session, positionNanos, System.currentTimeMillis());
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    public long getPublishedCount() {
+        return ringBuffer.getPublishedCount();
+    }
+
+    public long getDroppedCount() {
+        return ringBuffer.getRejectedCount();
+    }
+
+    public long getProducerWaitNanos() {
+        return ringBuffer.getProducerWaitNanos();
+    }
+
+    public long getRemainingCapacity() {
+        return ringBuffer.getRemainingCapacity();
+    }
+
+    /**
+     * @return The largest number of heartbeats waiting for any consumer.
+     */
+    public long getMaxConsumerLag() {
+        return consumers.stream().mapToLong(RingBufferConsumer::getLag).max().orElse(0);
+    }
+
+    /**
+     * @return A one-line summary of the backpressure metrics.
+     */
+    public String metricsSummary() {
+        return String.format("published=%d dropped=%d producerWait=%dms remaining=%d/%d maxLag=%d",
+                getPublishedCount(), getDroppedCount(), TimeUnit.NANOSECONDS.toMillis(getProducerWaitNanos()),
+                getRemainingCapacity(), ringBuffer.getBufferSize(), getMaxConsumerLag());
+    }
+
+    /**
+     * Waits briefly for the consumers to catch up and then stops them.
+     */
+    @Override
+    public void close() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (started && getMaxConsumerLag() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.onSpinWait();
+        }
+
+        consumers.forEach(RingBufferConsumer::halt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.netflix.services;
+
+import com.netflix.entities.PlaybackSession;
+
+/**
+ * Receives the events emitted by the {@link PlaybackEngine}.
+ * Progress, tick and end events are delivered on the engine thread, start and stop events on the thread
+ * that issued the command. Implementations must not block.
+ */
+public interface PlaybackListener {
+    default void onStart(PlaybackSession session) {
+    }
+
+    default void onProgress(PlaybackSession session, long positionNanos) {
+    }
+
+    default void onEnd(PlaybackSession session) {
+    }
+
+    /**
+     * Called on every tick of the engine, only for a session observed with {@link PlaybackEngine#observe}.
+     */
+    default void onTick(PlaybackSession session, long positionNanos) {
+    }
+
+    default void onStop(PlaybackSession session, long positionNanos) {
+    }
+}
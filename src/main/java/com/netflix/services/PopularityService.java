@@ -0,0 +1,126 @@
+package com.netflix.services;
+
+import com.netflix.entities.Media;
+import com.netflix.entities.PlaybackHeartbeat;
+import com.netflix.entities.Profile;
+import com.netflix.utils.CountMinSketch;
+import com.netflix.utils.RingBufferConsumer;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Time-decayed popularity of titles in fixed memory.
+ * <p>
+ * Playback starts and "My List" additions are counted in a {@link CountMinSketch} whose weights decay with a
+ * configurable half-life, so the ranking reflects what is popular lately instead of all time. A min-heap keeps
+ * the current heavy hitters: a title enters it only when its estimate beats the weakest candidate. Memory
+ * depends on the sketch dimensions and on {@code K}, never on the size of the catalog.
+ */
+public class PopularityService implements RingBufferConsumer.Handler<PlaybackHeartbeat>, MyListListener {
+    public static final Duration DEFAULT_HALF_LIFE = Duration.ofHours(84);
+    public static final int DEFAULT_TOP_K = 20;
+    public static final double PLAY_WEIGHT = 1.0;
+    public static final double MY_LIST_WEIGHT = 3.0;
+    private static final int SKETCH_DEPTH = 5;
+    private static final int SKETCH_WIDTH = 1 << 14;
+
+    private final MediaService mediaService;
+    private final CountMinSketch sketch;
+    private final int topK;
+    private final Map<Integer, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+
+    public PopularityService(MediaService mediaService) {
+        this(mediaService, DEFAULT_HALF_LIFE, DEFAULT_TOP_K);
+    }
+
+    /**
+     * @param mediaService Used to resolve the ranked ids into titles.
+     * @param halfLife     The time after which an event counts half as much.
+     * @param topK         The number of heavy hitters tracked.
+     */
+    public PopularityService(MediaService mediaService, Duration halfLife, int topK) {
+        this.mediaService = mediaService;
+        this.sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH, halfLife.toMillis(), System.currentTimeMillis());
+        this.topK = topK;
+    }
+
+    @Override
+    public void onEvent(PlaybackHeartbeat heartbeat, long sequence, boolean endOfBatch) {
+        if (heartbeat.getType() == PlaybackHeartbeat.Type.START) {
+            record(heartbeat.getMediaId(), PLAY_WEIGHT, heartbeat.getTimestamp());
+        }
+    }
+
+    @Override
+    public void onAdded(Profile profile, Media media) {
+        record(media.getId(), MY_LIST_WEIGHT, System.currentTimeMillis());
+    }
+
+    /**
+     * Counts a weighted event for a title and updates the heavy hitters.
+     */
+    public synchronized void record(int mediaId, double weight, long nowMillis) {
+        long landmark = sketch.getLandmarkMillis();
+        double estimate = sketch.add(mediaId, weight, nowMillis);
+
+        if (sketch.getLandmarkMillis() != landmark) {
+            refreshCandidates();
+        }
+
+        Candidate current = candidates.get(mediaId);
+        if (current != null) {
+            heap.remove(current);
+        } else if (candidates.size() >= topK) {
+            if (heap.isEmpty() || heap.peek().score() >= estimate) {
+                return;
+            }
+            candidates.remove(heap.poll().mediaId());
+        }
+
+        Candidate updated = new Candidate(mediaId, estimate);
+        candidates.put(mediaId, updated);
+        heap.add(updated);
+    }
+
+    /**
+     * @return The decayed popularity score of a title as of now.
+     */
+    public synchronized double getScore(int mediaId) {
+        return sketch.estimate(mediaId, System.currentTimeMillis());
+    }
+
+    /**
+     * @param limit The maximum number of titles.
+     * @return The most popular titles lately, most popular first. Deleted titles are skipped.
+     */
+    public List<Media> getTrending(int limit) {
+        List<Candidate> ranking;
+        synchronized (this) {
+            ranking = candidates.values().stream()
+                    .sorted(Comparator.comparingDouble(Candidate::score).reversed())
+                    .toList();
+        }
+
+        return ranking.stream()
+                .map(candidate -> mediaService.getMediaById(candidate.mediaId()))
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .toList();
+    }
+
+    private void refreshCandidates() {
+        heap.clear();
+        candidates.replaceAll((mediaId, _) -> new Candidate(mediaId, sketch.estimateRaw(mediaId)));
+        heap.addAll(candidates.values());
+    }
+
+    private record Candidate(int mediaId, double score) {
+    }
+}
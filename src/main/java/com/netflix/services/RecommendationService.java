@@ -0,0 +1,247 @@
+package com.netflix.services;
+
+import com.netflix.entities.Media;
+import com.netflix.entities.Profile;
+import com.netflix.utils.ConsoleMessage;
+import com.netflix.utils.CooccurrenceMatrix;
+import org.fusesource.jansi.Ansi;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Item-to-item recommendations learned from "My List" co-occurrence ("Porque você adicionou ...").
+ * <p>
+ * Every addition or removal updates a sparse {@link CooccurrenceMatrix} right away. Reading recommendations
+ * never touches the matrix: a background job periodically takes a snapshot of it, computes the cosine-similar
+ * neighbours of every title in parallel on a {@link ForkJoinPool} and swaps in the new neighbour lists at once.
+ * Readers always see one complete snapshot, which lags the latest changes by at most one rebuild interval.
+ */
+public final class RecommendationService implements MyListListener, AutoCloseable {
+    public static final Duration DEFAULT_REBUILD_INTERVAL = Duration.ofSeconds(10);
+    public static final int DEFAULT_NEIGHBORS = 20;
+    private static final int ITEMS_PER_TASK = 64;
+
+    private final MediaService mediaService;
+    private final int maxNeighbors;
+    private final CooccurrenceMatrix matrix = new CooccurrenceMatrix();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService scheduler;
+    private volatile Map<Integer, Neighbors> neighbors = Map.of();
+
+    public RecommendationService(MediaService mediaService) {
+        this(mediaService, DEFAULT_NEIGHBORS, DEFAULT_REBUILD_INTERVAL);
+    }
+
+    /**
+     * @param mediaService    Used to resolve the recommended ids into titles.
+     * @param maxNeighbors    How many similar titles are kept per title.
+     * @param rebuildInterval How often the neighbour lists are rebuilt when something changed.
+     */
+    public RecommendationService(MediaService mediaService, int maxNeighbors, Duration rebuildInterval) {
+        this.mediaService = mediaService;
+        this.maxNeighbors = maxNeighbors;
+        this.pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::rebuildIfDirty, rebuildInterval.toMillis(), rebuildInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pairs the added title with every other title already in the list of the profile.
+     */
+    @Override
+    public void onAdded(Profile profile, Media media) {
+        update(profile, media, 1);
+    }
+
+    /**
+     * Undoes the pairs of the removed title with the titles that remain in the list of the profile.
+     */
+    @Override
+    public void onRemoved(Profile profile, Media media) {
+        update(profile, media, -1);
+    }
+
+    private void update(Profile profile, Media media, int delta) {
+        int mediaId = media.getId();
+        matrix.addOccurrence(mediaId, delta);
+        for (Media other : profile.getMyList()) {
+            matrix.addPair(mediaId, other.getId(), delta);
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * @param mediaId The title the user added.
+     * @param limit   The maximum number of titles.
+     * @return The titles most often kept together with the given one, most similar first. Deleted titles are
+     * skipped.
+     */
+    public List<Media> getSimilar(int mediaId, int limit) {
+        Neighbors entry = neighbors.get(mediaId);
+        if (entry == null) {
+            return List.of();
+        }
+
+        List<Media> similar = new ArrayList<>(Math.min(limit, entry.mediaIds.length));
+        for (int i = 0; i < entry.mediaIds.length && similar.size() < limit; i++) {
+            Media media = mediaService.getMediaById(entry.mediaIds[i]);
+            if (media != null) {
+                similar.add(media);
+            }
+        }
+        return similar;
+    }
+
+    /**
+     * @return The cosine similarity of two titles in the current snapshot, or zero if it is not a neighbour.
+     */
+    public float getSimilarity(int mediaId, int otherId) {
+        Neighbors entry = neighbors.get(mediaId);
+        if (entry != null) {
+            for (int i = 0; i < entry.mediaIds.length; i++) {
+                if (entry.mediaIds[i] == otherId) {
+                    return entry.scores[i];
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Rebuilds the neighbour lists now and waits for the new snapshot to be published.
+     */
+    public void rebuild() {
+        dirty.set(false);
+        CooccurrenceMatrix.Snapshot snapshot = matrix.snapshot();
+        int[] ids = snapshot.ids();
+        Neighbors[] result = new Neighbors[ids.length];
+
+        pool.invoke(new NeighborTask(snapshot, ids, result, 0, ids.length));
+
+        Map<Integer, Neighbors> rebuilt = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            if (result[i] != null) {
+                rebuilt.put(ids[i], result[i]);
+            }
+        }
+        neighbors = Map.copyOf(rebuilt);
+    }
+
+    private void rebuildIfDirty() {
+        if (!dirty.get()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            ConsoleMessage.println("Falha ao recalcular as recomendações: " + e.getMessage(), Ansi.Color.RED);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Computes the top neighbours of a range of titles, splitting the range until it is small.
+     */
+    private class NeighborTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are never serialized; the shared snapshot and output array only live for one rebuild.
+        private final transient CooccurrenceMatrix.Snapshot snapshot;
+        private final int[] ids;
+        private final transient Neighbors[] result;
+        private final int from;
+        private final int to;
+
+        NeighborTask(CooccurrenceMatrix.Snapshot snapshot, int[] ids, Neighbors[] result, int from, int to) {
+            this.snapshot = snapshot;
+            this.ids = ids;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ITEMS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    result[i] = topNeighbors(snapshot, ids[i]);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new NeighborTask(snapshot, ids, result, from, middle),
+                    new NeighborTask(snapshot, ids, result, middle, to));
+        }
+    }
+
+    /**
+     * Keeps the best {@code maxNeighbors} cells of a row in two sorted primitive arrays.
+     */
+    private Neighbors topNeighbors(CooccurrenceMatrix.Snapshot snapshot, int mediaId) {
+        int occurrences = snapshot.getOccurrences(mediaId);
+        if (occurrences <= 0) {
+            return null;
+        }
+
+        int[] bestIds = new int[maxNeighbors];
+        float[] bestScores = new float[maxNeighbors];
+        int[] size = {0};
+
+        snapshot.forEachInRow(mediaId, (otherId, count) -> {
+            int otherOccurrences = snapshot.getOccurrences(otherId);
+            if (otherOccurrences <= 0) {
+                return;
+            }
+
+            float score = (float) (count / Math.sqrt((double) occurrences * otherOccurrences));
+            int position = size[0];
+            while (position > 0 && bestScores[position - 1] < score) {
+                position--;
+            }
+            if (position >= maxNeighbors) {
+                return;
+            }
+
+            int shift = Math.min(size[0], maxNeighbors - 1) - position;
+            System.arraycopy(bestIds, position, bestIds, position + 1, shift);
+            System.arraycopy(bestScores, position, bestScores, position + 1, shift);
+            bestIds[position] = otherId;
+            bestScores[position] = score;
+            size[0] = Math.min(size[0] + 1, maxNeighbors);
+        });
+
+        if (size[0] == 0) {
+            return null;
+        }
+        return new Neighbors(Arrays.copyOf(bestIds, size[0]), Arrays.copyOf(bestScores, size[0]));
+    }
+
+    private record Neighbors(int[] mediaIds, float[] scores) {
+    }
+}
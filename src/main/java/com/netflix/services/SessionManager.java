@@ -0,0 +1,152 @@
+package com.netflix.services;
+
+import com.netflix.entities.Profile;
+import com.netflix.entities.Session;
+import com.netflix.entities.User;
+import com.netflix.utils.HashedTimingWheel;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues opaque session tokens and keeps track of the authenticated user and selected profile of each one.
+ * <p>
+ * Validation is a lock-free map lookup followed by a deadline check. Idle sessions are expired by a single
+ * background thread driving a {@link HashedTimingWheel}, so no timer is created per session.
+ */
+public class SessionManager implements AutoCloseable {
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_BUCKETS = 512;
+    private static final int TOKEN_BYTES = 32;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final HashedTimingWheel<Session> wheel;
+    private final ScheduledExecutorService ticker;
+    private final long ttlNanos;
+
+    public SessionManager() {
+        this(DEFAULT_TTL);
+    }
+
+    public SessionManager(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.wheel = new HashedTimingWheel<>(TICK.toNanos(), WHEEL_BUCKETS);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::expireSessions, TICK.toMillis(), TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a new session for the given user.
+     *
+     * @param user The authenticated user.
+     * @return The newly created session.
+     */
+    public Session create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+
+        Session session = new Session(encoder.encodeToString(bytes), user, System.nanoTime() + ttlNanos);
+        sessions.put(session.getToken(), session);
+        wheel.schedule(session, session.getExpiresAtNanos());
+
+        return session;
+    }
+
+    /**
+     * Validates a token and slides its expiry forward.
+     * The deadline is only rewritten once per wheel tick to keep concurrent validations of the same token cheap.
+     *
+     * @param token The session token.
+     * @return The active session, or null if the token is unknown or expired.
+     */
+    public Session validate(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        if (session.isExpired(now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+
+        long deadline = now + ttlNanos;
+        if (deadline - session.getExpiresAtNanos() > wheel.getTickNanos()) {
+            session.setExpiresAtNanos(deadline);
+        }
+
+        return session;
+    }
+
+    /**
+     * Associates a profile with an active session.
+     *
+     * @param token   The session token.
+     * @param profile The selected profile, or null to clear it.
+     * @throws Exception If the session does not exist or has expired.
+     */
+    public void selectProfile(String token, Profile profile) throws Exception {
+        Session session = validate(token);
+        if (session == null) {
+            throw new Exception("Sessão expirada. Faça login novamente.");
+        }
+
+        session.setProfile(profile);
+    }
+
+    /**
+     * Ends a session immediately.
+     *
+     * @param token The session token.
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * @return The number of sessions currently registered.
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    private void expireSessions() {
+        long now = System.nanoTime();
+        wheel.advance(now, session -> {
+            if (sessions.get(session.getToken()) != session) {
+                return;
+            }
+
+            if (session.isExpired(now)) {
+                sessions.remove(session.getToken(), session);
+            } else {
+                wheel.schedule(session, session.getExpiresAtNanos());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        sessions.clear();
+    }
+}
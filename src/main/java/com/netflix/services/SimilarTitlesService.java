@@ -0,0 +1,186 @@
+package com.netflix.services;
+
+import com.netflix.entities.Media;
+import com.netflix.repositories.MediaChangeListener;
+import com.netflix.utils.LshIndex;
+import com.netflix.utils.MinHash;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * "Títulos semelhantes" based on the description, director and category of each title.
+ * <p>
+ * Every title is reduced to a set of features (description words and word pairs, plus its director and category)
+ * and summarized by a {@link MinHash} signature, which is indexed in an {@link LshIndex}. A lookup only compares
+ * the signature with the titles sharing an LSH bucket, instead of scanning the whole catalog. The index is kept
+ * current by listening to the writes of the media repository. The band layout trades precision for recall; see
+ * {@link LshIndex}.
+ */
+public final class SimilarTitlesService implements MediaChangeListener {
+    public static final int DEFAULT_BANDS = 40;
+    public static final int DEFAULT_ROWS = 3;
+    private static final long SEED = 0x5EED_717L;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "uma", "uns", "umas", "para", "com", "que", "dos", "das", "nos", "nas", "por", "pelo", "pela",
+            "seu", "sua", "seus", "suas", "ele", "ela", "eles", "elas", "mas", "como", "quando", "sobre", "entre",
+            "the", "and", "for", "with");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^a-z0-9]+");
+
+    private final MediaService mediaService;
+    private final MinHash minHash;
+    private final LshIndex index;
+    private final Map<Integer, int[]> signatures = new ConcurrentHashMap<>();
+
+    public SimilarTitlesService(MediaService mediaService) {
+        this(mediaService, DEFAULT_BANDS, DEFAULT_ROWS);
+    }
+
+    /**
+     * @param mediaService Used to resolve the similar ids into titles. The titles already in the catalog are
+     *                     indexed right away, in one batch.
+     * @param bands        The number of LSH bands. More bands find more similar titles.
+     * @param rows         The number of signature positions per band. More rows return fewer false candidates.
+     */
+    public SimilarTitlesService(MediaService mediaService, int bands, int rows) {
+        this.mediaService = mediaService;
+        this.minHash = new MinHash(bands * rows, SEED);
+        this.index = new LshIndex(bands, rows);
+
+        onMediaBulkSaved(mediaService.getAllMedia());
+    }
+
+    @Override
+    public void onSaved(Media media) {
+        int[] signature = minHash.signature(features(media));
+        signatures.put(media.getId(), signature);
+        index.put(media.getId(), signature);
+    }
+
+    /**
+     * Computes the signatures of the titles in parallel and adds them to the index in one batch.
+     */
+    @Override
+    public void onMediaBulkSaved(List<Media> medias) {
+        int[] ids = new int[medias.size()];
+        int[][] batch = new int[medias.size()][];
+        IntStream.range(0, medias.size()).parallel().forEach(i -> {
+            ids[i] = medias.get(i).getId();
+            batch[i] = minHash.signature(features(medias.get(i)));
+        });
+
+        for (int i = 0; i < ids.length; i++) {
+            signatures.put(ids[i], batch[i]);
+        }
+        index.putAll(ids, batch);
+    }
+
+    @Override
+    public void onUpdated(Media previous, Media current) {
+        if (previous.getId() != current.getId()) {
+            onDeleted(previous);
+        }
+        onSaved(current);
+    }
+
+    @Override
+    public void onDeleted(Media media) {
+        signatures.remove(media.getId());
+        index.remove(media.getId());
+    }
+
+    /**
+     * @param mediaId The title to compare with.
+     * @param limit   The maximum number of titles.
+     * @return The titles sharing an LSH bucket with the given one, most similar first.
+     */
+    public List<Media> getSimilar(int mediaId, int limit) {
+        int[] signature = signatures.get(mediaId);
+        if (signature == null) {
+            return List.of();
+        }
+
+        return index.candidates(signature).stream()
+                .filter(candidateId -> candidateId != mediaId)
+                .map(candidateId -> new Match(candidateId, similarity(signature, candidateId)))
+                .sorted(Comparator.comparingDouble(Match::similarity).reversed())
+                .map(match -> mediaService.getMediaById(match.mediaId()))
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return The estimated Jaccard similarity of two titles, or zero if either is not indexed.
+     */
+    public double getSimilarity(int mediaId, int otherId) {
+        int[] signature = signatures.get(mediaId);
+        return signature == null ? 0 : similarity(signature, otherId);
+    }
+
+    public double getThreshold() {
+        return index.getThreshold();
+    }
+
+    private double similarity(int[] signature, int otherId) {
+        int[] other = signatures.get(otherId);
+        return other == null ? 0 : MinHash.similarity(signature, other);
+    }
+
+    /**
+     * Builds the feature set of a title. The director and the category get more than one feature each so that
+     * they weigh more than any single word of the description.
+     */
+    private static Set<String> features(Media media) {
+        Set<String> features = new HashSet<>();
+
+        String previous = null;
+        for (String word : WORD_SEPARATOR.split(normalize(media.getDescription()))) {
+            if (word.length() < 3 || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            features.add("w:" + word);
+            if (previous != null) {
+                features.add("b:" + previous + "_" + word);
+            }
+            previous = word;
+        }
+
+        String director = normalize(media.getDirector()).trim();
+        if (!director.isEmpty()) {
+            for (int i = 0; i < 3; i++) {
+                features.add("d" + i + ":" + director);
+            }
+        }
+
+        if (media.getCategory() != null) {
+            for (int i = 0; i < 2; i++) {
+                features.add("c" + i + ":" + media.getCategory().name());
+            }
+        }
+
+        return features;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private record Match(int mediaId, double similarity) {
+    }
+}
@@ -0,0 +1,339 @@
+package com.netflix.services;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.Episode;
+import com.netflix.entities.Media;
+import com.netflix.entities.Movie;
+import com.netflix.entities.Profile;
+import com.netflix.entities.TvShow;
+import com.netflix.entities.User;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded generator of a synthetic catalog and user base, for observing the application at production scale.
+ * <p>
+ * Categories follow a skewed distribution, directors and My List picks are Zipfian (a few directors sign many
+ * titles, a few titles are in most lists), release years lean towards recent ones, ratings and durations are
+ * roughly normal, and TV shows get a geometric number of seasons with varied episode counts and durations. Titles,
+ * descriptions and names come from a small pt-BR vocabulary; descriptions and episode titles are drawn from
+ * precomputed pools, so millions of titles do not mean millions of distinct strings.
+ * <p>
+ * Entities are generated in fixed-size chunks, each with its own random stream derived from the seed, and the
+ * chunks run in parallel. The output depends only on the seed and the counts, not on the number of cores.
+ */
+public class SyntheticDataGenerator {
+    public static final long DEFAULT_SEED = 42;
+    public static final String DEFAULT_PASSWORD = "senha1234";
+
+    private static final int CHUNK_SIZE = 16_384;
+    private static final long USER_STREAM = 0x5DEECE66DL;
+    private static final double ZIPF_EXPONENT = 1.07;
+    private static final double TV_SHOW_SHARE = 0.3;
+
+    private static final Category[] CATEGORIES = {Category.DRAMA, Category.COMEDY, Category.ADVENTURE,
+            Category.TERROR, Category.ROMANCE, Category.SCIENCE_FICTION, Category.ANIMATION, Category.FANTASY};
+    private static final double[] CATEGORY_WEIGHTS = {24, 20, 14, 10, 10, 9, 7, 6};
+
+    private static final String[] MASCULINE_NOUNS = {"Segredo", "Caminho", "Silêncio", "Retorno", "Jardim",
+            "Horizonte", "Destino", "Reino", "Mar", "Sol", "Rio", "Sertão", "Herdeiro", "Espelho", "Pacto", "Farol",
+            "Labirinto", "Inverno", "Verão", "Acordo"};
+    private static final String[] FEMININE_NOUNS = {"Noite", "Cidade", "Promessa", "Memória", "Estrada", "Casa",
+            "Ilha", "Sombra", "Tempestade", "Herança", "Fronteira", "Canção", "Floresta", "Viagem", "Chama", "Lua",
+            "Carta", "Aliança", "Muralha", "Travessia"};
+    private static final String[][] ADJECTIVES = {{"Perdido", "Perdida"}, {"Esquecido", "Esquecida"},
+            {"Eterno", "Eterna"}, {"Proibido", "Proibida"}, {"Silencioso", "Silenciosa"}, {"Escuro", "Escura"},
+            {"Dourado", "Dourada"}, {"Distante", "Distante"}, {"Secreto", "Secreta"}, {"Selvagem", "Selvagem"}};
+    private static final String[][] LEADING_ADJECTIVES = {{"Último", "Última"}, {"Grande", "Grande"},
+            {"Primeiro", "Primeira"}, {"Novo", "Nova"}, {"Velho", "Velha"}};
+    private static final String[] PLACES = {"São Paulo", "Recife", "Ouro Preto", "Manaus", "Salvador",
+            "Florianópolis", "Belém", "Porto Alegre", "Olinda", "Paraty", "Fortaleza", "Curitiba", "Cuiabá",
+            "Natal", "Bonito", "Lençóis"};
+    private static final String[] THEMES = {"amizade", "vingança", "amor", "sobrevivência", "família", "poder",
+            "culpa", "liberdade", "coragem", "saudade", "ambição", "redenção"};
+    private static final String[] FIRST_NAMES = {"Ana", "João", "Maria", "José", "Francisca", "Antônio", "Juliana",
+            "Carlos", "Mariana", "Paulo", "Beatriz", "Pedro", "Camila", "Lucas", "Larissa", "Rafael", "Fernanda",
+            "Gabriel", "Letícia", "Felipe", "Amanda", "Bruno", "Patrícia", "Rodrigo", "Aline", "Thiago", "Vitória",
+            "Mateus", "Luana", "Gustavo", "Isabela", "Diego", "Lúcia", "Marcelo", "Renata", "Vinícius", "Sofia",
+            "Eduardo", "Helena", "Caio"};
+    private static final String[] LAST_NAMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes",
+            "Marques", "Machado", "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira",
+            "Araújo", "Barros", "Pinto", "Moura", "Cavalcanti"};
+    private static final String[] NAME_SUFFIXES = {"", " Filho", " Neto", " Júnior"};
+    private static final int[] EPISODES_PER_SEASON = {6, 8, 10, 10, 12, 13, 22, 24};
+    private static final int[] PROFILE_COUNT_WEIGHTS = {30, 25, 20, 15, 10};
+
+    private final long seed;
+    private final String[] descriptions;
+    private final String[] episodeTitles;
+    private final String[] emailFirstNames;
+    private final String[] emailLastNames;
+
+    public SyntheticDataGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        this.descriptions = new String[256];
+        for (int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = "Uma história de " + pick(random, THEMES) + " entre " + pick(random, FIRST_NAMES) +
+                    " e " + pick(random, FIRST_NAMES) + ", em " + pick(random, PLACES) + ".";
+        }
+        this.episodeTitles = new String[512];
+        for (int i = 0; i < episodeTitles.length; i++) {
+            episodeTitles[i] = title(random);
+        }
+        this.emailFirstNames = Arrays.stream(FIRST_NAMES).map(SyntheticDataGenerator::emailPart).toArray(String[]::new);
+        this.emailLastNames = Arrays.stream(LAST_NAMES).map(SyntheticDataGenerator::emailPart).toArray(String[]::new);
+    }
+
+    /**
+     * Generates titles without ids; about {@value #TV_SHOW_SHARE} of them are TV shows.
+     */
+    public List<Media> generateCatalog(int count) {
+        Zipf directors = new Zipf(Math.clamp(count / 25, 50, FIRST_NAMES.length * LAST_NAMES.length * NAME_SUFFIXES.length));
+        double[] categoryTable = cumulative(CATEGORY_WEIGHTS);
+
+        return generate(count, seed, (random, index) -> {
+            Category category = CATEGORIES[sample(random, categoryTable)];
+            String title = title(random);
+            String description = pick(random, descriptions);
+            String director = personName(directors.sample(random));
+            LocalDate releaseDate = releaseDate(random);
+            double rating = Math.round(Math.clamp(6.8 + random.nextGaussian() * 1.3, 1, 10) * 10) / 10.0;
+
+            if (random.nextDouble() < TV_SHOW_SHARE) {
+                return new TvShow(title, description, director, releaseDate, category, rating, seasons(random, category));
+            }
+            int duration = (int) Math.clamp(105 + random.nextGaussian() * 20, 70, 200);
+            return new Movie(title, description, director, releaseDate, category, rating, duration);
+        });
+    }
+
+    /**
+     * Generates users without ids, with one to five profiles each and My Lists drawn from the catalog.
+     *
+     * @param catalog      The stored catalog; its order is not its popularity, which is derived from the seed.
+     * @param passwordHash The password hash given to every user, computed once by the caller.
+     */
+    public List<User> generateUsers(int count, List<Media> catalog, String passwordHash) {
+        Zipf popularity = catalog.isEmpty() ? null : new Zipf(catalog.size());
+        int stride = coprimeStride(catalog.size());
+        double[] profileTable = cumulative(Arrays.stream(PROFILE_COUNT_WEIGHTS).asDoubleStream().toArray());
+
+        return generate(count, seed ^ USER_STREAM, (random, index) -> {
+            int first = random.nextInt(FIRST_NAMES.length);
+            int last = random.nextInt(LAST_NAMES.length);
+            User user = new User(FIRST_NAMES[first] + " " + LAST_NAMES[last],
+                    emailFirstNames[first] + "." + emailLastNames[last] + "." + index + "@exemplo.com.br", null);
+            user.setPasswordHash(passwordHash);
+
+            int profiles = sample(random, profileTable) + 1;
+            for (int i = 0; i < profiles; i++) {
+                String name = i > 0 && random.nextDouble() < 0.2 ? "Infantil" : pick(random, FIRST_NAMES);
+                Profile profile = new Profile(user.reserveProfileId(), name, user);
+                if (popularity != null) {
+                    int listSize = Math.min(50, (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1.0 / 8)));
+                    for (int j = 0; j < listSize; j++) {
+                        long rank = popularity.sample(random);
+                        profile.addToMyList(catalog.get((int) (rank * stride % catalog.size())));
+                    }
+                }
+                user.addProfile(profile);
+            }
+            return user;
+        });
+    }
+
+    /**
+     * Generates the catalog and the users and stores them with the bulk operations of the services.
+     *
+     * @param password The password of every generated user.
+     * @throws Exception If a generated e-mail is already registered.
+     */
+    public Report populate(MediaService mediaService, UserService userService, int titles, int users, String password)
+            throws Exception {
+        long startedAt = System.nanoTime();
+        List<Media> catalog = generateCatalog(titles);
+        mediaService.addAllMedia(catalog);
+        List<User> userList = generateUsers(users, catalog, userService.hashPassword(password));
+        userService.addAllUsers(userList);
+
+        int tvShows = 0;
+        long episodes = 0;
+        for (Media media : catalog) {
+            if (media instanceof TvShow tvShow) {
+                tvShows++;
+                episodes += tvShow.getSeasons().values().stream().mapToInt(List::size).sum();
+            }
+        }
+        long profiles = 0;
+        long myListEntries = 0;
+        for (User user : userList) {
+            for (Profile profile : user.getProfiles()) {
+                profiles++;
+                myListEntries += profile.getMyList().size();
+            }
+        }
+        return new Report(titles - tvShows, tvShows, episodes, users, profiles, myListEntries,
+                System.nanoTime() - startedAt);
+    }
+
+    private <T> List<T> generate(int count, long streamSeed, Factory<T> factory) {
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<List<T>> generated = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    SplittableRandom random = new SplittableRandom(streamSeed ^ (chunk + 1) * 0x9E3779B97F4A7C15L);
+                    int from = chunk * CHUNK_SIZE;
+                    int to = Math.min(count, from + CHUNK_SIZE);
+                    List<T> items = new ArrayList<>(to - from);
+                    for (int index = from; index < to; index++) {
+                        items.add(factory.create(random, index));
+                    }
+                    return items;
+                })
+                .toList();
+
+        List<T> all = new ArrayList<>(count);
+        generated.forEach(all::addAll);
+        return all;
+    }
+
+    private TreeMap<Integer, List<Episode>> seasons(SplittableRandom random, Category category) {
+        int seasonCount = Math.min(10, 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(0.6)));
+        boolean shortEpisodes = category == Category.COMEDY || category == Category.ANIMATION;
+        int baseDuration = shortEpisodes ? 22 + random.nextInt(8) : 42 + random.nextInt(18);
+
+        TreeMap<Integer, List<Episode>> seasons = new TreeMap<>();
+        for (int season = 1; season <= seasonCount; season++) {
+            int episodeCount = EPISODES_PER_SEASON[random.nextInt(EPISODES_PER_SEASON.length)];
+            List<Episode> episodes = new ArrayList<>(episodeCount);
+            for (int i = 0; i < episodeCount; i++) {
+                episodes.add(new Episode(pick(random, episodeTitles), baseDuration - 4 + random.nextInt(9)));
+            }
+            seasons.put(season, episodes);
+        }
+        return seasons;
+    }
+
+    private static String title(SplittableRandom random) {
+        boolean feminine = random.nextBoolean();
+        String noun = pick(random, feminine ? FEMININE_NOUNS : MASCULINE_NOUNS);
+        String article = feminine ? "A " : "O ";
+        int gender = feminine ? 1 : 0;
+
+        return switch (random.nextInt(4)) {
+            case 0 -> article + noun + " " + pick(random, ADJECTIVES)[gender];
+            case 1 -> article + noun + " de " + pick(random, PLACES);
+            case 2 -> article + pick(random, LEADING_ADJECTIVES)[gender] + " " + noun;
+            default -> {
+                boolean otherFeminine = random.nextBoolean();
+                String other = pick(random, otherFeminine ? FEMININE_NOUNS : MASCULINE_NOUNS);
+                yield article + noun + " e " + (otherFeminine ? "a " : "o ") + other;
+            }
+        };
+    }
+
+    /**
+     * Release years follow an exponential distribution back from 2025, with a mean age of eight years.
+     */
+    private static LocalDate releaseDate(SplittableRandom random) {
+        int age = (int) (-Math.log(1 - random.nextDouble()) * 8);
+        return LocalDate.of(Math.max(1950, 2025 - age), 1, 1).plusDays(random.nextInt(365));
+    }
+
+    private static String personName(int index) {
+        int names = FIRST_NAMES.length * LAST_NAMES.length;
+        return FIRST_NAMES[index % FIRST_NAMES.length] + " " + LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length] +
+                NAME_SUFFIXES[index / names % NAME_SUFFIXES.length];
+    }
+
+    private static String emailPart(String name) {
+        return Normalizer.normalize(name, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return A stride coprime with {@code size}, so {@code rank * stride % size} visits every title once.
+     */
+    private static int coprimeStride(int size) {
+        int stride = size / 2 + 1;
+        while (size > 1 && gcd(stride, size) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] table = new double[weights.length];
+        double total = Arrays.stream(weights).sum();
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            table[i] = sum / total;
+        }
+        return table;
+    }
+
+    private static int sample(SplittableRandom random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    @FunctionalInterface
+    private interface Factory<T> {
+        T create(SplittableRandom random, int index);
+    }
+
+    /**
+     * Zipfian ranks in {@code [0, size)}, sampled by binary search over the cumulative distribution.
+     */
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int size) {
+            double[] weights = new double[size];
+            for (int rank = 0; rank < size; rank++) {
+                weights[rank] = 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            }
+            this.cumulative = SyntheticDataGenerator.cumulative(weights);
+        }
+
+        int sample(SplittableRandom random) {
+            return SyntheticDataGenerator.sample(random, cumulative);
+        }
+    }
+
+    public record Report(int movies, int tvShows, long episodes, int users, long profiles, long myListEntries,
+                         long elapsedNanos) {
+        @Override
+        public String toString() {
+            return String.format("Gerados %d filmes, %d séries (%d episódios) e %d usuários (%d perfis, %d títulos em " +
+                            "Minha Lista) em %d ms.", movies, tvShows, episodes, users, profiles, myListEntries,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.netflix.services;
+
+import java.io.Serial;
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is rejected by the {@link LoginThrottler}.
+ */
+public class TooManyAttemptsException extends Exception {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public TooManyAttemptsException(Duration retryAfter) {
+        super("Muitas tentativas de login. Tente novamente em " + Math.max(1, retryAfter.toSeconds()) + " segundo(s).");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,116 @@
+package com.netflix.services;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.PlaybackHeartbeat;
+import com.netflix.utils.HyperLogLog;
+import com.netflix.utils.RingBufferConsumer;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Estimates unique viewers per title and per category over arbitrary day ranges.
+ * <p>
+ * Every playback start adds the viewer (user and profile) to a {@link HyperLogLog} of the current day, both for
+ * the title and for its category. A range query merges the daily registers it covers, so weekly and monthly
+ * numbers cost a union per day instead of keeping exact viewer sets. The daily sketches stay sparse until they
+ * fill up, so a title with a few dozen viewers a day takes a few hundred bytes per day, and only days with
+ * thousands of viewers reach the dense 4 KB. Days older than the retention period are discarded.
+ */
+public class UniqueViewerService implements RingBufferConsumer.Handler<PlaybackHeartbeat> {
+    public static final int DEFAULT_PRECISION = 12;
+    public static final int DEFAULT_RETENTION_DAYS = 90;
+
+    private final ConcurrentHashMap<Integer, NavigableMap<LocalDate, HyperLogLog>> byMedia = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Category, NavigableMap<LocalDate, HyperLogLog>> byCategory = new ConcurrentHashMap<>();
+    private final int precision;
+    private final int retentionDays;
+    private final ZoneId zone;
+    private LocalDate lastPrunedDay;
+
+    public UniqueViewerService() {
+        this(DEFAULT_PRECISION, DEFAULT_RETENTION_DAYS, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param precision     The HyperLogLog precision; 12 means at most 4 KB per day and about 1.6% error.
+     * @param retentionDays How many days of registers are kept.
+     * @param zone          The time zone that defines the days.
+     */
+    public UniqueViewerService(int precision, int retentionDays, ZoneId zone) {
+        this.precision = precision;
+        this.retentionDays = retentionDays;
+        this.zone = zone;
+    }
+
+    @Override
+    public void onEvent(PlaybackHeartbeat heartbeat, long sequence, boolean endOfBatch) {
+        if (heartbeat.getType() != PlaybackHeartbeat.Type.START) {
+            return;
+        }
+
+        LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(heartbeat.getTimestamp()), zone);
+        long viewer = ((long) heartbeat.getUserId() << 32) | (heartbeat.getProfileId() & 0xFFFFFFFFL);
+
+        record(byMedia.computeIfAbsent(heartbeat.getMediaId(), _ -> new ConcurrentSkipListMap<>()), day, viewer);
+        if (heartbeat.getCategory() != null) {
+            record(byCategory.computeIfAbsent(heartbeat.getCategory(), _ -> new ConcurrentSkipListMap<>()), day, viewer);
+        }
+
+        if (!day.equals(lastPrunedDay)) {
+            lastPrunedDay = day;
+            prune(day.minusDays(retentionDays));
+        }
+    }
+
+    private void record(NavigableMap<LocalDate, HyperLogLog> days, LocalDate day, long viewer) {
+        days.computeIfAbsent(day, _ -> new HyperLogLog(precision)).add(viewer);
+    }
+
+    /**
+     * @return The estimated number of unique viewers of a title between the two days, inclusive.
+     */
+    public long countByMedia(int mediaId, LocalDate from, LocalDate to) {
+        return count(byMedia.get(mediaId), from, to);
+    }
+
+    /**
+     * @return The estimated number of unique viewers of a category between the two days, inclusive.
+     */
+    public long countByCategory(Category category, LocalDate from, LocalDate to) {
+        return count(byCategory.get(category), from, to);
+    }
+
+    /**
+     * @return The estimated number of unique viewers of a title in the last {@code days} days, today included.
+     */
+    public long countByMediaLastDays(int mediaId, int days) {
+        LocalDate today = LocalDate.now(zone);
+        return countByMedia(mediaId, today.minusDays(days - 1L), today);
+    }
+
+    private long count(NavigableMap<LocalDate, HyperLogLog> days, LocalDate from, LocalDate to) {
+        if (days == null || to.isBefore(from)) {
+            return 0;
+        }
+
+        HyperLogLog union = new HyperLogLog(precision);
+        for (HyperLogLog day : days.subMap(from, true, to, true).values()) {
+            union.merge(day);
+        }
+        return union.estimate();
+    }
+
+    private void prune(LocalDate oldestKept) {
+        for (NavigableMap<LocalDate, HyperLogLog> days : byMedia.values()) {
+            days.headMap(oldestKept).clear();
+        }
+        for (NavigableMap<LocalDate, HyperLogLog> days : byCategory.values()) {
+            days.headMap(oldestKept).clear();
+        }
+    }
+}
@@ -1,15 +1,32 @@
 package com.netflix.services;
 
 import com.netflix.entities.*;
+import com.netflix.repositories.UserChangeListener;
 import com.netflix.repositories.UserRepository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class UserService {
+    public static final int MIN_PASSWORD_LENGTH = 8;
+
     private final UserRepository userRepository;
+    private final PasswordVerificationService passwordVerificationService;
+    private final List<MyListListener> myListListeners = new CopyOnWriteArrayList<>();
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordVerificationService passwordVerificationService) {
         this.userRepository = userRepository;
+        this.passwordVerificationService = passwordVerificationService;
+    }
+
+    public void addMyListListener(MyListListener listener) {
+        myListListeners.add(listener);
+    }
+
+    public void addChangeListener(UserChangeListener listener) {
+        userRepository.addListener(listener);
     }
 
     public void addUser(User user) throws Exception {
@@ -17,13 +34,80 @@ public class UserService {
             throw new Exception("Este endereço de e-mail já está cadastrado!");
         }
 
+        if (user.getPasswordHash() == null) {
+            validatePassword(user.getPassword());
+            user.setPasswordHash(passwordVerificationService.hash(user.getPassword()));
+        }
+        user.clearPassword();
+
         userRepository.save(user);
     }
 
+    /**
+     * Adds many users at once, such as imported or generated ones, with a single write to the repository.
+     * Users without a password hash get their password hashed.
+     *
+     * @throws Exception If an e-mail is already registered or repeated, or a password is too short.
+     */
+    public void addAllUsers(List<User> users) throws Exception {
+        Set<String> emails = new HashSet<>();
+        for (User user : users) {
+            if (!emails.add(user.getEmail()) || userRepository.findByEmail(user.getEmail()) != null) {
+                throw new Exception("Este endereço de e-mail já está cadastrado: " + user.getEmail());
+            }
+            if (user.getPasswordHash() == null) {
+                validatePassword(user.getPassword());
+                user.setPasswordHash(passwordVerificationService.hash(user.getPassword()));
+            }
+            user.clearPassword();
+        }
+
+        userRepository.saveAll(users);
+    }
+
+    /**
+     * @return The hash to store for a password, for callers that create many users with the same one.
+     */
+    public String hashPassword(String password) {
+        return passwordVerificationService.hash(password);
+    }
+
+    public void changePassword(int userId, String newPassword) throws Exception {
+        User user = userRepository.findById(userId);
+        if (user == null) {
+            throw new Exception("Usuário não encontrado.");
+        }
+
+        validatePassword(newPassword);
+
+        user.setPasswordHash(passwordVerificationService.hash(newPassword));
+        passwordVerificationService.invalidate(user.getEmail());
+        userRepository.update(user);
+    }
+
+    /**
+     * Checks a password chosen by a user, the same way on sign-up, bulk import and password change.
+     *
+     * @throws Exception If the password is shorter than {@link #MIN_PASSWORD_LENGTH}.
+     */
+    private static void validatePassword(String password) throws Exception {
+        if (password == null || password.length() < MIN_PASSWORD_LENGTH) {
+            throw new Exception("A senha deve ter pelo menos " + MIN_PASSWORD_LENGTH + " caracteres.");
+        }
+    }
+
+    public boolean verifyPassword(User user, String password) throws Exception {
+        return passwordVerificationService.verify(user, password);
+    }
+
     public User getUserById(int id) {
         return userRepository.findById(id);
     }
 
+    public User getUserByEmail(String email) {
+        return userRepository.findByEmail(email);
+    }
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -37,68 +121,76 @@ public class UserService {
     }
 
     public List<Profile> getProfilesByUserId(int userId) throws Exception {
-        User user = userRepository.findById(userId);
-        return user.getProfiles();
+        return requireUser(userId).getProfiles();
     }
 
     public Profile getProfileById(int userId, int profileId) throws Exception {
-        User user = userRepository.findById(userId);
-        return user.getProfiles().stream()
-                .filter(profile -> profile.getId() == profileId)
-                .findFirst()
-                .orElse(null);
+        return requireUser(userId).getProfileById(profileId);
+    }
+
+    public Profile createProfile(int userId, String name) throws Exception {
+        User user = requireUser(userId);
+        Profile profile = new Profile(user.reserveProfileId(), name, user);
+        user.addProfile(profile);
+        userRepository.update(user);
+        return profile;
     }
 
     public void addProfileToUser(int userId, Profile profile) throws Exception {
-        User user = userRepository.findById(userId);
-        user.getProfiles().add(profile);
+        User user = requireUser(userId);
+        user.addProfile(profile);
         userRepository.update(user);
     }
 
+    /**
+     * @return The id the next profile of the user would get. Nothing is reserved; {@link #createProfile} allocates
+     * the id when it stores the profile.
+     */
     public int getNextProfileId(int userId) throws Exception {
-        User user = userRepository.findById(userId);
-        return user.getProfiles().stream()
-                .mapToInt(Profile::getId)
-                .max()
-                .orElse(0) + 1;
+        return requireUser(userId).peekNextProfileId();
     }
 
     public void addToProfileMyList(int userId, int profileId, Media media) throws Exception {
-        User user = userRepository.findById(userId);
-        Profile profile = getProfileById(userId, profileId);
-        if (profile == null) {
-            throw new Exception("Perfil não encontrado.");
+        User user = requireUser(userId);
+        Profile profile = requireProfile(user, profileId);
+        if (profile.addToMyList(media)) {
+            userRepository.update(user);
+            myListListeners.forEach(listener -> listener.onAdded(profile, media));
         }
-        profile.addToMyList(media);
-        userRepository.update(user);
     }
 
     public void removeFromProfileMyList(int userId, int profileId, Media media) throws Exception {
-        User user = userRepository.findById(userId);
-        Profile profile = getProfileById(userId, profileId);
-        if (profile == null) {
-            throw new Exception("Perfil não encontrado.");
+        User user = requireUser(userId);
+        Profile profile = requireProfile(user, profileId);
+        if (profile.removeFromMyList(media)) {
+            userRepository.update(user);
+            myListListeners.forEach(listener -> listener.onRemoved(profile, media));
         }
-        profile.removeFromMyList(media);
-        userRepository.update(user);
     }
 
     public void removeProfile(int userId, int profileId) throws Exception {
-        User user = userRepository.findById(userId);
-        Profile profile = getProfileById(userId, profileId);
-        if (profile == null) {
-            throw new Exception("Perfil não encontrado.");
-        }
-        user.removeProfile(profile);
+        User user = requireUser(userId);
+        user.removeProfile(requireProfile(user, profileId));
         userRepository.update(user);
     }
 
     public List<Media> getProfileMyList(int userId, int profileId) throws Exception {
+        return requireProfile(requireUser(userId), profileId).getMyList();
+    }
+
+    private User requireUser(int userId) throws Exception {
         User user = userRepository.findById(userId);
-        Profile profile = getProfileById(userId, profileId);
+        if (user == null) {
+            throw new Exception("Usuário não encontrado.");
+        }
+        return user;
+    }
+
+    private Profile requireProfile(User user, int profileId) throws Exception {
+        Profile profile = user.getProfileById(profileId);
         if (profile == null) {
             throw new Exception("Perfil não encontrado.");
         }
-        return profile.getMyList();
+        return profile;
     }
 }
@@ -0,0 +1,187 @@
+package com.netflix.services;
+
+import com.netflix.entities.Media;
+import com.netflix.entities.PlaybackSession;
+import com.netflix.entities.TrendingTitle;
+import com.netflix.repositories.MediaChangeListener;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts concurrent viewers and plays per title and publishes a sliding-window "Em alta" ranking.
+ * <p>
+ * Session starts and stops only increment striped {@link LongAdder} cells, so concurrent sessions of the same
+ * title do not contend on one counter. A background aggregator turns the play counters into per-interval
+ * deltas, sums them over the window and publishes the top titles as an immutable list that readers get
+ * with a single volatile read. The counters of a title are dropped when it is deleted from the catalog.
+ * Only the aggregator thread publishes the ranking, so a deletion can never be undone by an aggregation
+ * that was already running.
+ */
+public final class ViewerStatsService implements PlaybackListener, MediaChangeListener, AutoCloseable {
+    public static final Duration DEFAULT_BUCKET = Duration.ofMinutes(1);
+    public static final int DEFAULT_BUCKET_COUNT = 60;
+    public static final int DEFAULT_TOP_N = 10;
+
+    private final ConcurrentHashMap<Integer, Counters> counters = new ConcurrentHashMap<>();
+    private final int bucketCount;
+    private final int topN;
+    private final ScheduledExecutorService aggregator;
+    private volatile List<TrendingTitle> trending = List.of();
+    private int currentBucket;
+
+    public ViewerStatsService() {
+        this(DEFAULT_BUCKET, DEFAULT_BUCKET_COUNT, DEFAULT_TOP_N);
+    }
+
+    /**
+     * @param bucket      The length of one window bucket; the ranking is refreshed once per bucket.
+     * @param bucketCount The number of buckets in the sliding window.
+     * @param topN        The number of titles in the ranking.
+     */
+    public ViewerStatsService(Duration bucket, int bucketCount, int topN) {
+        this.bucketCount = bucketCount;
+        this.topN = topN;
+        this.aggregator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "viewer-stats-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.aggregator.scheduleAtFixedRate(this::aggregate, bucket.toMillis(), bucket.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onStart(PlaybackSession session) {
+        Counters media = counters.computeIfAbsent(session.getMedia().getId(), _ -> new Counters(session.getMedia(), bucketCount));
+        media.viewers.increment();
+        media.plays.increment();
+    }
+
+    @Override
+    public void onStop(PlaybackSession session, long positionNanos) {
+        leave(session);
+    }
+
+    @Override
+    public void onEnd(PlaybackSession session) {
+        leave(session);
+    }
+
+    private void leave(PlaybackSession session) {
+        Counters media = counters.get(session.getMedia().getId());
+        if (media != null) {
+            media.viewers.decrement();
+        }
+    }
+
+    /**
+     * Drops the counters of a deleted title and asks the aggregator to remove it from the published ranking.
+     */
+    @Override
+    public void onDeleted(Media media) {
+        if (counters.remove(media.getId()) != null) {
+            try {
+                aggregator.execute(this::dropDeleted);
+            } catch (RejectedExecutionException e) {
+                // Closed: the ranking is no longer refreshed anyway.
+            }
+        }
+    }
+
+    /**
+     * @return The number of sessions currently watching the given title.
+     */
+    public long getConcurrentViewers(int mediaId) {
+        Counters media = counters.get(mediaId);
+        return media != null ? media.viewers.sum() : 0;
+    }
+
+    /**
+     * @return The total number of plays of the given title since startup.
+     */
+    public long getTotalPlays(int mediaId) {
+        Counters media = counters.get(mediaId);
+        return media != null ? media.plays.sum() : 0;
+    }
+
+    /**
+     * @return The latest published ranking, most played first.
+     */
+    public List<TrendingTitle> getTrending() {
+        return trending;
+    }
+
+    /**
+     * Rolls the window forward by one bucket and publishes a new ranking.
+     * Only ever runs on the aggregator thread, which owns the bucket arrays. A title deleted while it runs is
+     * removed by the {@link #dropDeleted} queued behind it.
+     */
+    void aggregate() {
+        int bucket = currentBucket;
+        currentBucket = (currentBucket + 1) % bucketCount;
+
+        trending = counters.values().stream()
+                .map(media -> media.roll(bucket))
+                .filter(title -> title.getRecentPlays() > 0 || title.getConcurrentViewers() > 0)
+                .filter(this::isCounted)
+                .sorted(Comparator.comparingLong(TrendingTitle::getRecentPlays)
+                        .thenComparingLong(TrendingTitle::getConcurrentViewers)
+                        .reversed())
+                .limit(topN)
+                .toList();
+    }
+
+    /**
+     * Republishes the ranking without the titles deleted since it was built. Only runs on the aggregator thread.
+     */
+    private void dropDeleted() {
+        List<TrendingTitle> current = trending;
+        if (current.stream().allMatch(this::isCounted)) {
+            return;
+        }
+        trending = current.stream()
+                .filter(this::isCounted)
+                .toList();
+    }
+
+    private boolean isCounted(TrendingTitle title) {
+        return counters.containsKey(title.getMedia().getId());
+    }
+
+    @Override
+    public void close() {
+        aggregator.shutdownNow();
+    }
+
+    private static class Counters {
+        private final Media media;
+        private final LongAdder viewers = new LongAdder();
+        private final LongAdder plays = new LongAdder();
+        private final long[] playsPerBucket;
+        private long lastPlays;
+        private long windowPlays;
+
+        Counters(Media media, int bucketCount) {
+            this.media = media;
+            this.playsPerBucket = new long[bucketCount];
+        }
+
+        TrendingTitle roll(int bucket) {
+            long total = plays.sum();
+            long delta = total - lastPlays;
+            lastPlays = total;
+
+            windowPlays += delta - playsPerBucket[bucket];
+            playsPerBucket[bucket] = delta;
+
+            return new TrendingTitle(media, windowPlays, viewers.sum());
+        }
+    }
+}
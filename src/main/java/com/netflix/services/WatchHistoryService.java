@@ -0,0 +1,59 @@
+package com.netflix.services;
+
+import com.netflix.entities.PlaybackHeartbeat;
+import com.netflix.entities.WatchHistoryEntry;
+import com.netflix.utils.RingBufferConsumer;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most recent titles watched by each profile, fed by the heartbeat pipeline.
+ */
+public class WatchHistoryService implements RingBufferConsumer.Handler<PlaybackHeartbeat> {
+    public static final int DEFAULT_MAX_ENTRIES = 50;
+
+    private final ConcurrentHashMap<Long, Deque<WatchHistoryEntry>> histories = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public WatchHistoryService() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public WatchHistoryService(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void onEvent(PlaybackHeartbeat heartbeat, long sequence, boolean endOfBatch) {
+        if (heartbeat.getType() != PlaybackHeartbeat.Type.STOP && heartbeat.getType() != PlaybackHeartbeat.Type.END) {
+            return;
+        }
+
+        Deque<WatchHistoryEntry> history = histories.computeIfAbsent(
+                key(heartbeat.getUserId(), heartbeat.getProfileId()), _ -> new ConcurrentLinkedDeque<>());
+
+        history.addFirst(new WatchHistoryEntry(heartbeat.getMediaId(), heartbeat.getSeasonNumber(), heartbeat.getEpisodeNumber(),
+                TimeUnit.NANOSECONDS.toSeconds(heartbeat.getPositionNanos()),
+                heartbeat.getType() == PlaybackHeartbeat.Type.END, heartbeat.getTimestamp()));
+
+        while (history.size() > maxEntries) {
+            history.pollLast();
+        }
+    }
+
+    /**
+     * @return The watch history of a profile, most recent first.
+     */
+    public List<WatchHistoryEntry> getHistory(int userId, int profileId) {
+        Deque<WatchHistoryEntry> history = histories.get(key(userId, profileId));
+        return history != null ? List.copyOf(history) : List.of();
+    }
+
+    private static long key(int userId, int profileId) {
+        return ((long) userId << 32) | (profileId & 0xFFFFFFFFL);
+    }
+}
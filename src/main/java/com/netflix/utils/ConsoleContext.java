@@ -0,0 +1,125 @@
+package com.netflix.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+
+/**
+ * The input and output of one console session.
+ * <p>
+ * {@link ConsoleMessage} and {@link InputValidator} work on the context bound to the current thread, so the same
+ * menu code can serve the real terminal or many scripted sessions running in parallel, each with its own line
+ * source and renderer. Threads that never bind a context use the one of the real terminal.
+ */
+public final class ConsoleContext {
+    private static final ConsoleContext SYSTEM = new ConsoleContext("console",
+            new BufferedReader(new InputStreamReader(System.in))::readLine, TerminalRenderer.forSystemOut(), null);
+    private static final ThreadLocal<ConsoleContext> CURRENT = new ThreadLocal<>();
+
+    private final String clientId;
+    private final LineSource input;
+    private final TerminalRenderer renderer;
+    private final LatencyRecorder commandLatency;
+    private long linesRead;
+    private long lastReadNanos;
+    private boolean closed;
+
+    /**
+     * @param clientId       Identifies the session, e.g. for login throttling.
+     * @param input          Where the lines typed by the user come from.
+     * @param renderer       Where the output goes.
+     * @param commandLatency Records the time spent handling each line, or null.
+     */
+    public ConsoleContext(String clientId, LineSource input, TerminalRenderer renderer, LatencyRecorder commandLatency) {
+        this.clientId = clientId;
+        this.input = input;
+        this.renderer = renderer;
+        this.commandLatency = commandLatency;
+    }
+
+    /**
+     * @return The context bound to the current thread, or the one of the real terminal.
+     */
+    public static ConsoleContext current() {
+        ConsoleContext context = CURRENT.get();
+        return context != null ? context : SYSTEM;
+    }
+
+    /**
+     * Runs a task with the given context bound to the current thread.
+     */
+    public static void runWith(ConsoleContext context, Runnable task) {
+        ConsoleContext previous = CURRENT.get();
+        CURRENT.set(context);
+        try {
+            task.run();
+        } finally {
+            context.renderer.flush();
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Flushes pending output and reads the next line.
+     *
+     * @return The line, without its terminator.
+     * @throws EndOfInputError If there are no more lines.
+     */
+    public String readLine() {
+        long now = System.nanoTime();
+        if (commandLatency != null && linesRead > 0) {
+            commandLatency.record(now - lastReadNanos);
+        }
+
+        renderer.flush();
+        if (closed) {
+            throw new EndOfInputError();
+        }
+
+        String line;
+        try {
+            line = input.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (line == null) {
+            closed = true;
+            throw new EndOfInputError();
+        }
+
+        renderer.inputReceived(1);
+        linesRead++;
+        lastReadNanos = System.nanoTime();
+        return line;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public TerminalRenderer getRenderer() {
+        return renderer;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    /**
+     * A source of input lines. Returns null at the end of the input.
+     */
+    @FunctionalInterface
+    public interface LineSource extends AutoCloseable {
+        String readLine() throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+}
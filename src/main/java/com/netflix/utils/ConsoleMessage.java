@@ -6,15 +6,34 @@ import static org.fusesource.jansi.Ansi.ansi;
 
 /**
  * Utility class for printing messages to the console with optional colors using ANSI escape codes.
+ * <p>
+ * Everything goes through the {@link TerminalRenderer} of the current {@link ConsoleContext}: output is written in
+ * one piece right before the program waits for input, and screens started with {@link #clearScreen()} only rewrite
+ * the lines that changed.
  */
 public class ConsoleMessage {
+
+    /**
+     * Starts a new screen. What is printed next replaces the current screen when it is flushed.
+     */
+    public static void clearScreen() {
+        renderer().beginFrame();
+    }
+
+    /**
+     * Writes all pending output to the terminal.
+     */
+    public static void flush() {
+        renderer().flush();
+    }
+
     /**
      * Prints a message to the console without changing the line.
      *
      * @param message The message to be printed.
      */
     public static void print(String message) {
-        System.out.print(message);
+        renderer().print(message);
     }
 
     /**
@@ -24,7 +43,7 @@ public class ConsoleMessage {
      * @param color   The ANSI color to apply to the message.
      */
     public static void print(String message, Ansi.Color color) {
-        System.out.print(ansi().eraseScreen().fg(color).a(message).reset());
+        renderer().print(ansi().fg(color).a(message).reset().toString());
     }
 
     /**
@@ -33,7 +52,7 @@ public class ConsoleMessage {
      * @param message The message to be printed.
      */
     public static void println(String message) {
-        System.out.println(message);
+        renderer().println(message);
     }
 
     /**
@@ -43,7 +62,7 @@ public class ConsoleMessage {
      * @param color   The ANSI color to apply to the message.
      */
     public static void println(String message, Ansi.Color color) {
-        System.out.println(ansi().eraseScreen().fg(color).a(message).reset());
+        renderer().println(ansi().fg(color).a(message).reset().toString());
     }
 
     /**
@@ -101,6 +120,7 @@ public class ConsoleMessage {
 
     /**
      * Prints a TV or movie message to the console with dynamic status (ASSISTINDO or PAUSADO).
+     * The TV starts a new screen, so consecutive calls only rewrite the status and time lines.
      *
      * @param title         The title of the episode or movie.
      * @param isPaused      Whether the media is paused or not.
@@ -115,26 +135,32 @@ public class ConsoleMessage {
         String formattedStatusLine = Formatter.formatStatusLine(status);
         String formattedTitle = Formatter.formatTitle(title);
 
-        System.out.println("┌──────────────────────────────────────────────────┐");
-        System.out.println("│                o                                 │");
-        System.out.println("│           o    |                                 │");
-        System.out.println("│            \\   |                                 │");
-        System.out.println("│             \\  |                                 │");
-        System.out.println("│              \\.|-                                │");
-        System.out.println("│              (\\|  )                              │");
-        System.out.println("│    .=========================================.   │");
-        System.out.println("│    | .-------------------------------------. |   │");
-        System.out.println("│    | |--.__.--.__.-------------------------| |   │");
-        System.out.println("│    | |--.__.--.__.-------------------------| |   │");
-        System.out.println("│    | |--.-" + formattedStatusLine + "--| |   │");
-        System.out.println("│    | |--.__.--.__.-------------------------| |   │");
-        System.out.println("│    | |--.__.--.__.-------------------------| |   │");
-        System.out.println("│    | '-------------------------------------'o|   │");
-        System.out.println("│    | " + formattedTitle + " │   │");
-        System.out.println("│    | " + elapsedTimeFormatted + " - " + totalTimeFormatted + "                     │   │");
-        System.out.println("│    |                                       │o|   │");
-        System.out.println("│    '========================================='   │");
-        System.out.println("│                                                  │");
-        System.out.println("└──────────────────────────────────────────────────┘");
+        TerminalRenderer renderer = renderer();
+        renderer.beginFrame();
+        renderer.println("┌──────────────────────────────────────────────────┐");
+        renderer.println("│                o                                 │");
+        renderer.println("│           o    |                                 │");
+        renderer.println("│            \\   |                                 │");
+        renderer.println("│             \\  |                                 │");
+        renderer.println("│              \\.|-                                │");
+        renderer.println("│              (\\|  )                              │");
+        renderer.println("│    .=========================================.   │");
+        renderer.println("│    | .-------------------------------------. |   │");
+        renderer.println("│    | |--.__.--.__.-------------------------| |   │");
+        renderer.println("│    | |--.__.--.__.-------------------------| |   │");
+        renderer.println("│    | |--.-" + formattedStatusLine + "--| |   │");
+        renderer.println("│    | |--.__.--.__.-------------------------| |   │");
+        renderer.println("│    | |--.__.--.__.-------------------------| |   │");
+        renderer.println("│    | '-------------------------------------'o|   │");
+        renderer.println("│    | " + formattedTitle + " │   │");
+        renderer.println("│    | " + elapsedTimeFormatted + " - " + totalTimeFormatted + "                     │   │");
+        renderer.println("│    |                                       │o|   │");
+        renderer.println("│    '========================================='   │");
+        renderer.println("│                                                  │");
+        renderer.println("└──────────────────────────────────────────────────┘");
+    }
+
+    private static TerminalRenderer renderer() {
+        return ConsoleContext.current().getRenderer();
     }
 }
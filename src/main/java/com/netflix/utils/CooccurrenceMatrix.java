@@ -0,0 +1,208 @@
+package com.netflix.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse, symmetric matrix of co-occurrence counts between integer ids.
+ * <p>
+ * Each row is an open-addressing hash table over plain {@code int[]} arrays, so a cell costs eight bytes and
+ * no boxing, and only pairs that actually occurred are stored. The diagonal keeps how many times an id occurred
+ * at all. Updates are synchronized; readers that scan many rows work on an immutable {@link #snapshot()}.
+ * Snapshots share the copies of the rows that did not change since the previous one, so taking a snapshot only
+ * copies the rows that were written in between.
+ */
+public class CooccurrenceMatrix {
+    private final Map<Integer, Row> rows = new HashMap<>();
+    private final Set<Integer> changed = new HashSet<>();
+    private Snapshot snapshot = new Snapshot(Map.of());
+
+    /**
+     * Changes the number of occurrences of an id.
+     */
+    public synchronized void addOccurrence(int id, int delta) {
+        row(id).occurrences += delta;
+        changed.add(id);
+    }
+
+    /**
+     * Changes the co-occurrence count of a pair in both directions.
+     */
+    public synchronized void addPair(int a, int b, int delta) {
+        if (a == b) {
+            return;
+        }
+        row(a).add(b, delta);
+        row(b).add(a, delta);
+        changed.add(a);
+        changed.add(b);
+    }
+
+    public synchronized int getOccurrences(int id) {
+        Row row = rows.get(id);
+        return row == null ? 0 : row.occurrences;
+    }
+
+    public synchronized int getCount(int a, int b) {
+        Row row = rows.get(a);
+        return row == null ? 0 : row.get(b);
+    }
+
+    /**
+     * @return An immutable copy that can be read from many threads without any locking. The same instance is
+     * returned until the matrix changes.
+     */
+    public synchronized Snapshot snapshot() {
+        if (!changed.isEmpty()) {
+            Map<Integer, Row> copy = new HashMap<>(snapshot.rows);
+            for (int id : changed) {
+                copy.put(id, rows.get(id).copy());
+            }
+            changed.clear();
+            snapshot = new Snapshot(copy);
+        }
+        return snapshot;
+    }
+
+    private Row row(int id) {
+        return rows.computeIfAbsent(id, _ -> new Row());
+    }
+
+    /**
+     * Receives the cells of a row.
+     */
+    @FunctionalInterface
+    public interface CellConsumer {
+        void accept(int column, int count);
+    }
+
+    /**
+     * Immutable copy of the matrix.
+     */
+    public static final class Snapshot {
+        private final Map<Integer, Row> rows;
+
+        private Snapshot(Map<Integer, Row> rows) {
+            this.rows = rows;
+        }
+
+        /**
+         * @return The ids that have a row, in no particular order.
+         */
+        public int[] ids() {
+            return rows.keySet().stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        public int getOccurrences(int id) {
+            Row row = rows.get(id);
+            return row == null ? 0 : row.occurrences;
+        }
+
+        /**
+         * Calls the consumer for every cell of a row with a positive count.
+         */
+        public void forEachInRow(int id, CellConsumer consumer) {
+            Row row = rows.get(id);
+            if (row != null) {
+                row.forEach(consumer);
+            }
+        }
+    }
+
+    private static final class Row {
+        private static final int EMPTY = Integer.MIN_VALUE;
+
+        private int occurrences;
+        private int[] keys;
+        private int[] counts;
+        private int size;
+
+        Row() {
+            this(8);
+        }
+
+        Row(int capacity) {
+            keys = new int[capacity];
+            counts = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        void add(int key, int delta) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash();
+            }
+
+            int slot = slot(key);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot] += delta;
+        }
+
+        int get(int key) {
+            int slot = slot(key);
+            return keys[slot] == EMPTY ? 0 : counts[slot];
+        }
+
+        void forEach(CellConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && counts[i] > 0) {
+                    consumer.accept(keys[i], counts[i]);
+                }
+            }
+        }
+
+        Row copy() {
+            Row copy = new Row(0);
+            copy.occurrences = occurrences;
+            copy.keys = keys.clone();
+            copy.counts = counts.clone();
+            copy.size = size;
+            return copy;
+        }
+
+        private int slot(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Grows the table when it is half full. Cells whose count dropped to zero are left behind, so a row
+         * that churns does not keep growing.
+         */
+        private void rehash() {
+            int live = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && counts[i] != 0) {
+                    live++;
+                }
+            }
+
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            int capacity = Integer.highestOneBit(Math.max(8, (live + 1) * 4) - 1) << 1;
+            keys = new int[capacity];
+            counts = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && oldCounts[i] != 0) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                    size++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.netflix.utils;
+
+/**
+ * Count-Min sketch over int keys with exponential time decay.
+ * <p>
+ * Decay uses forward decay: an event at time {@code t} is added with weight {@code e^(λ(t - landmark))} and
+ * estimates are divided by the weight of "now", which is equivalent to decaying every counter continuously
+ * without ever touching them. When the weights grow too large the counters are rescaled and the landmark
+ * moves forward. Memory is {@code depth * width} doubles regardless of how many keys are counted.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+public class CountMinSketch {
+    private static final double RESCALE_THRESHOLD = 1e150;
+
+    private final double[] counters;
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final double lambdaPerMilli;
+    private long landmarkMillis;
+
+    /**
+     * @param depth          The number of hash rows; the failure probability is about {@code e^-depth}.
+     * @param width          The counters per row, rounded up to a power of two; the error is about {@code e/width} of the total.
+     * @param halfLifeMillis The time after which an event weighs half as much.
+     * @param nowMillis      The initial landmark.
+     */
+    public CountMinSketch(int depth, int width, long halfLifeMillis, long nowMillis) {
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(2, width) - 1) << 1;
+        this.mask = this.width - 1;
+        this.counters = new double[depth * this.width];
+        this.lambdaPerMilli = Math.log(2) / halfLifeMillis;
+        this.landmarkMillis = nowMillis;
+    }
+
+    /**
+     * Adds a weighted event for the given key.
+     *
+     * @return The decayed estimate of the key right after the update, in landmark units (see {@link #toCurrent}).
+     */
+    public double add(int key, double weight, long nowMillis) {
+        double scaled = weight * scaleAt(nowMillis);
+        if (scaled > RESCALE_THRESHOLD) {
+            rescale(nowMillis);
+            scaled = weight;
+        }
+
+        long hash = Hashing.hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        double estimate = Double.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & mask);
+            counters[index] += scaled;
+            estimate = Math.min(estimate, counters[index]);
+        }
+        return estimate;
+    }
+
+    /**
+     * @return The decayed estimate of the key in landmark units.
+     */
+    public double estimateRaw(int key) {
+        long hash = Hashing.hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        double estimate = Double.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + ((h1 + row * h2) & mask)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * @return The decayed estimate of the key as of {@code nowMillis}.
+     */
+    public double estimate(int key, long nowMillis) {
+        return toCurrent(estimateRaw(key), nowMillis);
+    }
+
+    /**
+     * Converts a value in landmark units into the decayed value as of {@code nowMillis}.
+     */
+    public double toCurrent(double raw, long nowMillis) {
+        return raw / scaleAt(nowMillis);
+    }
+
+    /**
+     * @return The landmark of the current counters; raw values change meaning when it moves.
+     */
+    public long getLandmarkMillis() {
+        return landmarkMillis;
+    }
+
+    private double scaleAt(long nowMillis) {
+        return Math.exp(lambdaPerMilli * (nowMillis - landmarkMillis));
+    }
+
+    private void rescale(long nowMillis) {
+        double factor = 1 / scaleAt(nowMillis);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] *= factor;
+        }
+        landmarkMillis = nowMillis;
+    }
+}
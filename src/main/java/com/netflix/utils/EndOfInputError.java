@@ -0,0 +1,18 @@
+package com.netflix.utils;
+
+import java.io.Serial;
+
+/**
+ * Thrown when the input of a console session is exhausted.
+ * <p>
+ * It is an {@link Error} on purpose: the menus handle their failures with {@code catch (Exception e)} and keep
+ * looping, so an exception would be swallowed and the session would never end.
+ */
+public class EndOfInputError extends Error {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public EndOfInputError() {
+        super("Fim da entrada.", null, false, false);
+    }
+}
@@ -0,0 +1,100 @@
+package com.netflix.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel used to expire large numbers of items with a single ticking thread.
+ * <p>
+ * Items are hashed into a fixed number of buckets by their deadline. Scheduling is a lock-free
+ * queue offer and advancing the wheel only visits the bucket of the current tick, so the cost
+ * does not depend on how many items are waiting in the other buckets. Items scheduled for a tick the wheel has
+ * already processed, e.g. rescheduled from the expiry callback, go to the bucket of the next tick instead of
+ * waiting a full rotation, so each item is handed to the callback at most once per tick.
+ *
+ * @param <T> The type of the scheduled items.
+ */
+public class HashedTimingWheel<T> {
+    private final List<Queue<Entry<T>>> buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long startNanos;
+    private volatile long currentTick;
+
+    /**
+     * Creates a new timing wheel.
+     *
+     * @param tickNanos   The duration of one tick in nanoseconds.
+     * @param bucketCount The number of buckets, rounded up to the next power of two.
+     */
+    public HashedTimingWheel(long tickNanos, int bucketCount) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("tickNanos deve ser positivo.");
+        }
+
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+        this.mask = size - 1;
+        this.tickNanos = tickNanos;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Schedules an item to expire at the given deadline. Safe to call from any thread.
+     *
+     * @param item          The item to schedule.
+     * @param deadlineNanos The deadline, in {@link System#nanoTime()} units.
+     */
+    public void schedule(T item, long deadlineNanos) {
+        long tick = Math.max(currentTick, (deadlineNanos - startNanos) / tickNanos);
+        buckets.get((int) (tick & mask)).offer(new Entry<>(item, tick));
+    }
+
+    /**
+     * Advances the wheel up to the given instant, handing every expired item to the callback.
+     * Must only be called from a single thread.
+     *
+     * @param nowNanos  The current instant, in {@link System#nanoTime()} units.
+     * @param onExpired Callback invoked for each item whose deadline tick has passed.
+     */
+    public void advance(long nowNanos, Consumer<T> onExpired) {
+        long targetTick = (nowNanos - startNanos) / tickNanos;
+
+        List<Entry<T>> later = new ArrayList<>();
+
+        while (currentTick <= targetTick) {
+            long tick = currentTick;
+            Queue<Entry<T>> bucket = buckets.get((int) (tick & mask));
+
+            // Moving on before the callbacks run sends whatever they reschedule to the next tick, so the bucket
+            // only receives entries of later rotations while it is drained, and those are put back afterwards.
+            currentTick = tick + 1;
+            Entry<T> entry;
+            while ((entry = bucket.poll()) != null) {
+                if (entry.tick <= tick) {
+                    onExpired.accept(entry.item);
+                } else {
+                    later.add(entry);
+                }
+            }
+            bucket.addAll(later);
+            later.clear();
+        }
+    }
+
+    /**
+     * @return The duration of one tick in nanoseconds.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.netflix.utils;
+
+/**
+ * 64-bit hash mixing shared by the sketches and the similarity index.
+ */
+final class Hashing {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Hashing() {
+    }
+
+    /**
+     * The splitmix64 finalizer: spreads every input bit over all 64 bits of the result.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Hashes a value, e.g. an id, for a sketch. Nearby values give unrelated hashes.
+     */
+    static long hash(long value) {
+        return mix(value * GOLDEN_GAMMA);
+    }
+}
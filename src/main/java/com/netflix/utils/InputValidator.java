@@ -6,14 +6,14 @@ import org.fusesource.jansi.Ansi;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.InputMismatchException;
-import java.util.Scanner;
+import java.time.format.DateTimeParseException;
 
 /**
- * Assistant class to validate user data input through the Scanner.
+ * Assistant class to validate user data input.
+ * Lines are read from the {@link ConsoleContext} of the current thread and parsed directly, one answer per line.
  */
 public final class InputValidator {
-    public static Scanner sc = new Scanner(System.in);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     /**
      * Requests and retrieves a positive integer value from the user via the console.
@@ -27,19 +27,17 @@ public final class InputValidator {
         ConsoleMessage.println(message);
 
         while (true) {
+            String token = nextToken();
             try {
-                int value = sc.nextInt();
+                int value = Integer.parseInt(token);
 
                 if (value <= 0) {
                     ConsoleMessage.println("Insira somente valores inteiros positivos:", Ansi.Color.RED);
-                    sc.nextLine();
                 } else {
-                    sc.nextLine();
                     return value;
                 }
-            } catch (InputMismatchException e) {
+            } catch (NumberFormatException e) {
                 ConsoleMessage.println("Valor inválido! Insira somente valores inteiros positivos:", Ansi.Color.RED);
-                sc.nextLine();
             }
         }
     }
@@ -56,19 +54,17 @@ public final class InputValidator {
         ConsoleMessage.println(message);
 
         while (true) {
+            String token = nextToken();
             try {
-                double value = sc.nextDouble();
+                double value = Double.parseDouble(token.replace(',', '.'));
 
-                if (value <= 0.0) {
+                if (value <= 0.0 || !Double.isFinite(value)) {
                     ConsoleMessage.println("Insira somente valores positivos, utilize vírgula:", Ansi.Color.RED);
-                    sc.nextLine();
                 } else {
-                    sc.nextLine();
                     return value;
                 }
-            } catch (InputMismatchException e) {
+            } catch (NumberFormatException e) {
                 ConsoleMessage.println("Valor inválido! Insira somente valores positivos, utilize vírgula:", Ansi.Color.RED);
-                sc.nextLine();
             }
         }
     }
@@ -83,9 +79,8 @@ public final class InputValidator {
      */
     public static String getString(String message) {
         ConsoleMessage.println(message);
-        sc.useDelimiter("\n");
 
-        return sc.nextLine();
+        return ConsoleContext.current().readLine();
     }
 
     /**
@@ -98,14 +93,12 @@ public final class InputValidator {
      * @return A {@link LocalDate} object representing the date entered by the user.
      */
     public static LocalDate getLocalDate(String message) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
         while (true) {
             try {
                 String entry = getString(message);
 
-                return LocalDate.parse(entry, formatter);
-            } catch (Exception e) {
+                return LocalDate.parse(entry.trim(), DATE_FORMATTER);
+            } catch (DateTimeParseException e) {
                 ConsoleMessage.println("Formato inválido. Tente novamente utilizando o formato dd/MM/yyyy.", Ansi.Color.RED);
             }
         }
@@ -139,4 +132,17 @@ public final class InputValidator {
 
         return categories[choice - 1];
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads lines until one is not blank and returns its first word, like a scanner reading a number would.
+     */
+    private static String nextToken() {
+        while (true) {
+            String line = ConsoleContext.current().readLine().strip();
+            if (!line.isEmpty()) {
+                int space = line.indexOf(' ');
+                return space < 0 ? line : line.substring(0, space);
+            }
+        }
+    }
+}
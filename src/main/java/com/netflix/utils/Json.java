@@ -0,0 +1,258 @@
+package com.netflix.utils;
+
+import com.netflix.entities.Category;
+import com.netflix.entities.Episode;
+import com.netflix.entities.Media;
+import com.netflix.entities.Movie;
+import com.netflix.entities.Profile;
+import com.netflix.entities.TvShow;
+import com.netflix.entities.User;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON representation of the entities exposed by the HTTP API, written with a {@link JsonWriter}, and a reader for
+ * the small request bodies the API accepts.
+ */
+public class Json {
+    private static final JsonWriter.Token ID = JsonWriter.name("id");
+    private static final JsonWriter.Token TYPE = JsonWriter.name("type");
+    private static final JsonWriter.Token TITLE = JsonWriter.name("title");
+    private static final JsonWriter.Token DESCRIPTION = JsonWriter.name("description");
+    private static final JsonWriter.Token DIRECTOR = JsonWriter.name("director");
+    private static final JsonWriter.Token RELEASE_DATE = JsonWriter.name("releaseDate");
+    private static final JsonWriter.Token CATEGORY = JsonWriter.name("category");
+    private static final JsonWriter.Token RATING = JsonWriter.name("rating");
+    private static final JsonWriter.Token DURATION_IN_MINUTES = JsonWriter.name("durationInMinutes");
+    private static final JsonWriter.Token SEASONS = JsonWriter.name("seasons");
+    private static final JsonWriter.Token NUMBER = JsonWriter.name("number");
+    private static final JsonWriter.Token EPISODES = JsonWriter.name("episodes");
+    private static final JsonWriter.Token DURATION = JsonWriter.name("duration");
+    private static final JsonWriter.Token NAME = JsonWriter.name("name");
+    private static final JsonWriter.Token MY_LIST = JsonWriter.name("myList");
+    private static final JsonWriter.Token EMAIL = JsonWriter.name("email");
+    private static final JsonWriter.Token ADMIN = JsonWriter.name("admin");
+    private static final JsonWriter.Token MOVIE = JsonWriter.string("movie");
+    private static final JsonWriter.Token TV_SHOW = JsonWriter.string("tvshow");
+    private static final JsonWriter.Token[] CATEGORIES = new JsonWriter.Token[Category.values().length];
+
+    static {
+        for (Category category : Category.values()) {
+            CATEGORIES[category.ordinal()] = JsonWriter.string(category.name());
+        }
+    }
+
+    private Json() {
+    }
+
+    /**
+     * Writes a title. Movies include their duration; TV shows include their seasons and episodes only when
+     * {@code withSeasons} is set, which keeps list pages small.
+     */
+    public static JsonWriter writeMedia(JsonWriter json, Media media, boolean withSeasons) {
+        json.beginObject()
+                .name(ID).value(media.getId())
+                .name(TYPE).value(media instanceof TvShow ? TV_SHOW : MOVIE)
+                .name(TITLE).value(media.getTitle())
+                .name(DESCRIPTION).value(media.getDescription())
+                .name(DIRECTOR).value(media.getDirector())
+                .name(RELEASE_DATE).value(media.getReleaseDate())
+                .name(CATEGORY);
+        if (media.getCategory() != null) {
+            json.value(CATEGORIES[media.getCategory().ordinal()]);
+        } else {
+            json.nullValue();
+        }
+        json.name(RATING).value(media.getRating());
+
+        if (media instanceof Movie movie) {
+            json.name(DURATION_IN_MINUTES).value(movie.getDurationInMinutes());
+        } else if (withSeasons && media instanceof TvShow tvShow) {
+            json.name(SEASONS).beginArray();
+            for (Map.Entry<Integer, List<Episode>> season : tvShow.getSeasons().entrySet()) {
+                json.beginObject().name(NUMBER).value(season.getKey()).name(EPISODES).beginArray();
+                for (Episode episode : season.getValue()) {
+                    writeEpisode(json, episode);
+                }
+                json.endArray().endObject();
+            }
+            json.endArray();
+        }
+
+        return json.endObject();
+    }
+
+    /**
+     * Writes a list of titles without their seasons.
+     */
+    public static JsonWriter writeMediaList(JsonWriter json, List<Media> mediaList) {
+        json.beginArray();
+        for (int i = 0; i < mediaList.size(); i++) {
+            writeMedia(json, mediaList.get(i), false);
+        }
+        return json.endArray();
+    }
+
+    public static JsonWriter writeEpisode(JsonWriter json, Episode episode) {
+        return json.beginObject()
+                .name(TITLE).value(episode.getTitle())
+                .name(DURATION).value(episode.getDuration())
+                .endObject();
+    }
+
+    /**
+     * Writes a profile with the ids of the titles in its My List.
+     */
+    public static JsonWriter writeProfile(JsonWriter json, Profile profile) {
+        json.beginObject()
+                .name(ID).value(profile.getId())
+                .name(NAME).value(profile.getName())
+                .name(MY_LIST).beginArray();
+        for (Media media : profile.getMyList()) {
+            json.value(media.getId());
+        }
+        return json.endArray().endObject();
+    }
+
+    /**
+     * Writes a user without its password or password hash.
+     */
+    public static JsonWriter writeUser(JsonWriter json, User user) {
+        return json.beginObject()
+                .name(ID).value(user.getId())
+                .name(NAME).value(user.getName())
+                .name(EMAIL).value(user.getEmail())
+                .name(ADMIN).value(user.isAdmin())
+                .endObject();
+    }
+
+    /**
+     * Reads a flat JSON object whose values are strings, numbers, booleans or null.
+     *
+     * @param text The JSON text.
+     * @return The members of the object; numbers and booleans are kept as their text, null values are omitted.
+     * @throws Exception If the text is not a flat JSON object.
+     */
+    public static Map<String, String> parseObject(String text) throws Exception {
+        Parser parser = new Parser(text);
+        Map<String, String> members = parser.object();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw new Exception("JSON inválido.");
+        }
+        return members;
+    }
+
+    private static class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> object() throws Exception {
+            Map<String, String> members = new HashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return members;
+            }
+
+            while (true) {
+                skipWhitespace();
+                String name = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                String value = value();
+                if (value != null) {
+                    members.put(name, value);
+                }
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                    continue;
+                }
+                expect('}');
+                return members;
+            }
+        }
+
+        private String value() throws Exception {
+            if (peek() == '"') {
+                return string();
+            }
+
+            int start = position;
+            while (position < text.length() && "-+.eE0123456789truefalsn".indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) {
+                throw new Exception("JSON inválido.");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() throws Exception {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (position >= text.length()) {
+                    throw new Exception("JSON inválido.");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+
+                char escaped = position < text.length() ? text.charAt(position++) : ' ';
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append(escaped);
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) {
+                            throw new Exception("JSON inválido.");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text, position, position + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw new Exception("JSON inválido.");
+                        }
+                        position += 4;
+                    }
+                    default -> throw new Exception("JSON inválido.");
+                }
+            }
+        }
+
+        private void expect(char c) throws Exception {
+            if (peek() != c) {
+                throw new Exception("JSON inválido.");
+            }
+            position++;
+        }
+
+        private char peek() {
+            return position < text.length() ? text.charAt(position) : '\0';
+        }
+
+        void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
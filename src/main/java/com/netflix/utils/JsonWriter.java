@@ -0,0 +1,393 @@
+package com.netflix.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Streaming JSON writer that encodes straight into a growable UTF-8 byte buffer.
+ * <p>
+ * Field names and constant values are encoded once as {@link Token}s and copied into the buffer, strings are
+ * encoded without intermediate {@code byte[]}s, and numbers and dates are written digit by digit without
+ * temporary strings. Writers are pooled with {@link #acquire()} and {@link #release()}, so serializing a response
+ * reuses a buffer that already has the right size and allocates next to nothing. Commas are inserted
+ * automatically; the writer does not check that the document is well formed.
+ */
+public class JsonWriter {
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+    private static final ArrayBlockingQueue<JsonWriter> POOL = new ArrayBlockingQueue<>(256);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] MIN_LONG = String.valueOf(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000};
+
+    private byte[] buffer;
+    private int size;
+    private boolean needsComma;
+
+    public JsonWriter() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * @return An empty writer from the pool, or a new one if the pool is empty.
+     */
+    public static JsonWriter acquire() {
+        JsonWriter writer = POOL.poll();
+        return writer != null ? writer : new JsonWriter();
+    }
+
+    /**
+     * Returns the writer to the pool. Writers that grew beyond 1 MB are left to the garbage collector.
+     * The writer must not be used after this call.
+     */
+    public void release() {
+        if (buffer.length <= MAX_POOLED_CAPACITY) {
+            reset();
+            POOL.offer(this);
+        }
+    }
+
+    /**
+     * Pre-encodes an object member name, including its quotes and colon.
+     */
+    public static Token name(String name) {
+        JsonWriter writer = new JsonWriter(name.length() * 3 + 8);
+        writer.value(name);
+        writer.writeByte(':');
+        return new Token(writer.toByteArray());
+    }
+
+    /**
+     * Pre-encodes a string value, including its quotes.
+     */
+    public static Token string(String value) {
+        JsonWriter writer = new JsonWriter(value.length() * 3 + 8);
+        writer.value(value);
+        return new Token(writer.toByteArray());
+    }
+
+    public JsonWriter beginObject() {
+        comma();
+        writeByte('{');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        writeByte('}');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        comma();
+        writeByte('[');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        writeByte(']');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a member name created with {@link #name(String)}.
+     */
+    public JsonWriter name(Token name) {
+        comma();
+        writeBytes(name.bytes);
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * Writes a value created with {@link #string(String)}.
+     */
+    public JsonWriter value(Token value) {
+        comma();
+        writeBytes(value.bytes);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a string, or null. Quotes, backslashes and control characters are escaped.
+     */
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+
+        comma();
+        int length = value.length();
+        ensureCapacity(length + 2);
+        buffer[size++] = '"';
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                if (size == buffer.length) {
+                    ensureCapacity(length - i + 1);
+                }
+                buffer[size++] = (byte) c;
+            } else {
+                i = writeSpecial(value, i, c);
+            }
+        }
+
+        writeByte('"');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        comma();
+        writeLong(value);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a number. Values with at most three decimal places, like ratings, are written digit by digit;
+     * other values fall back to {@link Double#toString(double)}. Non-finite values are written as null.
+     */
+    public JsonWriter value(double value) {
+        if (!Double.isFinite(value)) {
+            return nullValue();
+        }
+
+        comma();
+        long thousandths = Math.round(value * 1000);
+        if (Math.abs(value) < 1e12 && thousandths / 1000.0 == value) {
+            if (thousandths < 0) {
+                writeByte('-');
+                thousandths = -thousandths;
+            }
+            writeLong(thousandths / 1000);
+            writeByte('.');
+
+            long fraction = thousandths % 1000;
+            int digits = fraction == 0 ? 1 : fraction % 10 != 0 ? 3 : fraction % 100 != 0 ? 2 : 1;
+            long divisor = POWERS_OF_TEN[3 - digits];
+            long scale = POWERS_OF_TEN[digits - 1];
+            fraction /= divisor;
+            for (int i = 0; i < digits; i++) {
+                writeByte('0' + (int) (fraction / scale % 10));
+                scale /= 10;
+            }
+        } else {
+            String text = Double.toString(value);
+            ensureCapacity(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                buffer[size++] = (byte) text.charAt(i);
+            }
+        }
+
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        comma();
+        writeBytes(value ? TRUE : FALSE);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a date as an ISO-8601 string, or null.
+     */
+    public JsonWriter value(LocalDate date) {
+        if (date == null) {
+            return nullValue();
+        }
+
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            return value(date.toString());
+        }
+
+        comma();
+        ensureCapacity(12);
+        buffer[size++] = '"';
+        writeDigits(year, 4);
+        buffer[size++] = '-';
+        writeDigits(date.getMonthValue(), 2);
+        buffer[size++] = '-';
+        writeDigits(date.getDayOfMonth(), 2);
+        buffer[size++] = '"';
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        comma();
+        writeBytes(NULL);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * @return The number of bytes written.
+     */
+    public int size() {
+        return size;
+    }
+
+    public void reset() {
+        size = 0;
+        needsComma = false;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private void comma() {
+        if (needsComma) {
+            writeByte(',');
+        }
+    }
+
+    /**
+     * Writes an escaped or non-ASCII character and returns the index of the last char consumed.
+     */
+    private int writeSpecial(String value, int index, char c) {
+        ensureCapacity(6);
+        switch (c) {
+            case '"' -> {
+                buffer[size++] = '\\';
+                buffer[size++] = '"';
+            }
+            case '\\' -> {
+                buffer[size++] = '\\';
+                buffer[size++] = '\\';
+            }
+            case '\n' -> {
+                buffer[size++] = '\\';
+                buffer[size++] = 'n';
+            }
+            case '\r' -> {
+                buffer[size++] = '\\';
+                buffer[size++] = 'r';
+            }
+            case '\t' -> {
+                buffer[size++] = '\\';
+                buffer[size++] = 't';
+            }
+            default -> {
+                if (c < 0x20) {
+                    buffer[size++] = '\\';
+                    buffer[size++] = 'u';
+                    buffer[size++] = '0';
+                    buffer[size++] = '0';
+                    buffer[size++] = HEX[c >> 4];
+                    buffer[size++] = HEX[c & 0xF];
+                } else if (c < 0x800) {
+                    buffer[size++] = (byte) (0xC0 | c >> 6);
+                    buffer[size++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(index + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+                    buffer[size++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | codePoint & 0x3F);
+                    return index + 1;
+                } else if (Character.isSurrogate(c)) {
+                    buffer[size++] = '?';
+                } else {
+                    buffer[size++] = (byte) (0xE0 | c >> 12);
+                    buffer[size++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[size++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+        return index;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(MIN_LONG);
+            return;
+        }
+
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+
+        int end = size + digits;
+        for (int i = end - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size = end;
+    }
+
+    private void writeDigits(int value, int digits) {
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void writeByte(int b) {
+        if (size == buffer.length) {
+            ensureCapacity(1);
+        }
+        buffer[size++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    /**
+     * Pre-encoded JSON bytes, created once and copied into the writer.
+     */
+    public static final class Token {
+        private final byte[] bytes;
+
+        private Token(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.netflix.utils;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram.
+ * <p>
+ * Values are counted in log-linear buckets (four buckets per power of two), which keeps recording to a
+ * couple of {@link LongAdder} increments and bounds the percentile error to roughly 25%.
+ */
+public class LatencyRecorder {
+    private static final int SUB_BUCKETS = 4;
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private final LongAdder[] buckets = new LongAdder[64 * SUB_BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyRecorder() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one measurement.
+     *
+     * @param nanos The measured latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(1, nanos);
+        buckets[indexOf(value)].increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Records the time elapsed since the given {@link System#nanoTime()} instant.
+     *
+     * @param startNanos The start instant.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / n;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns an upper bound for the given percentile.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The upper bound of the bucket holding the percentile, in nanoseconds.
+     */
+    public long getPercentileNanos(double percentile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(n * (percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * @return A one-line summary with count, mean and tail percentiles in microseconds.
+     */
+    public String summary() {
+        return String.format("count=%d mean=%dus p50=%dus p99=%dus p999=%dus max=%dus",
+                getCount(), getMeanNanos() / 1000, getPercentileNanos(50) / 1000,
+                getPercentileNanos(99) / 1000, getPercentileNanos(99.9) / 1000, getMaxNanos() / 1000);
+    }
+
+    private static int indexOf(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent < SUB_BUCKET_BITS) {
+            return exponent * SUB_BUCKETS;
+        }
+        int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        int exponent = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (exponent < SUB_BUCKET_BITS) {
+            return (1L << (exponent + 1)) - 1;
+        }
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
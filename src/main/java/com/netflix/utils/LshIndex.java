@@ -0,0 +1,155 @@
+package com.netflix.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing over MinHash signatures.
+ * <p>
+ * A signature is cut into {@code bands} bands of {@code rows} positions, and every band is hashed into a bucket.
+ * Two items become candidates when they share at least one bucket, which for Jaccard similarity {@code s} happens
+ * with probability {@code 1 - (1 - s^rows)^bands}. More bands raise recall; more rows per band raise precision.
+ * The similarity at which that curve is steepest is returned by {@link #getThreshold()}.
+ * <p>
+ * Most buckets hold one or a few items, so each is a small array of ids rather than a set of boxed integers.
+ */
+public class LshIndex {
+    private final int bands;
+    private final int rows;
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+    private final Map<Integer, long[]> keysById = new HashMap<>();
+
+    public LshIndex(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Bandas e linhas devem ser positivas.");
+        }
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    public int getBands() {
+        return bands;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The approximate similarity above which items are likely to become candidates.
+     */
+    public double getThreshold() {
+        return Math.pow(1.0 / bands, 1.0 / rows);
+    }
+
+    /**
+     * Indexes an item, replacing its previous signature if it was already indexed.
+     */
+    public synchronized void put(int id, int[] signature) {
+        remove(id);
+
+        long[] keys = keys(signature);
+        for (long key : keys) {
+            buckets.computeIfAbsent(key, _ -> new Bucket()).add(id);
+        }
+        keysById.put(id, keys);
+    }
+
+    /**
+     * Indexes many items at once, under a single lock. The bucket keys are computed before taking it.
+     *
+     * @param ids        The ids of the items.
+     * @param signatures The signature of each item, in the same order.
+     */
+    public void putAll(int[] ids, int[][] signatures) {
+        long[][] keys = new long[ids.length][];
+        for (int i = 0; i < ids.length; i++) {
+            keys[i] = keys(signatures[i]);
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < ids.length; i++) {
+                remove(ids[i]);
+                for (long key : keys[i]) {
+                    buckets.computeIfAbsent(key, _ -> new Bucket()).add(ids[i]);
+                }
+                keysById.put(ids[i], keys[i]);
+            }
+        }
+    }
+
+    public synchronized void remove(int id) {
+        long[] keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+
+        for (long key : keys) {
+            Bucket bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(id) && bucket.size == 0) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return The ids sharing at least one bucket with the signature.
+     */
+    public synchronized Set<Integer> candidates(int[] signature) {
+        Set<Integer> candidates = new HashSet<>();
+        for (long key : keys(signature)) {
+            Bucket bucket = buckets.get(key);
+            if (bucket != null) {
+                for (int i = 0; i < bucket.size; i++) {
+                    candidates.add(bucket.ids[i]);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    public synchronized int size() {
+        return keysById.size();
+    }
+
+    private long[] keys(int[] signature) {
+        if (signature.length != bands * rows) {
+            throw new IllegalArgumentException("A assinatura deve ter " + bands * rows + " posições.");
+        }
+
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long hash = band;
+            for (int row = 0; row < rows; row++) {
+                hash = Hashing.mix(hash * 31 + signature[band * rows + row]);
+            }
+            keys[band] = hash;
+        }
+        return keys;
+    }
+
+    private static final class Bucket {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.netflix.utils;
+
+import com.netflix.entities.Media;
+import com.netflix.repositories.MediaChangeListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders lists of titles as a three-column text table, one page at a time.
+ * <p>
+ * Only the rows of the requested page are rendered, so the cost of a screen does not depend on the size of the
+ * catalog. The formatted cell of every title is cached by media id and dropped when the title is updated or
+ * deleted, which is why the table listens to the media repository.
+ */
+public class MediaTable implements MediaChangeListener {
+    public static final int COLUMNS = 3;
+    public static final int DEFAULT_ROWS_PER_PAGE = 10;
+    private static final int CELL_WIDTH = 22;
+    private static final String RULE = ("+" + "-".repeat(CELL_WIDTH + 2)).repeat(COLUMNS) + "+";
+    private static final String EMPTY_CELL = " ".repeat(CELL_WIDTH);
+
+    private final ConcurrentHashMap<Integer, String> cells = new ConcurrentHashMap<>();
+    private final int rowsPerPage;
+
+    public MediaTable() {
+        this(DEFAULT_ROWS_PER_PAGE);
+    }
+
+    public MediaTable(int rowsPerPage) {
+        this.rowsPerPage = rowsPerPage;
+    }
+
+    public int getPageSize() {
+        return rowsPerPage * COLUMNS;
+    }
+
+    /**
+     * @return The number of pages needed for a list of the given size; at least one.
+     */
+    public int getPageCount(int size) {
+        return Math.max(1, (size + getPageSize() - 1) / getPageSize());
+    }
+
+    /**
+     * Renders one page of the list.
+     *
+     * @param mediaList The whole list.
+     * @param page      The zero-based page; clamped to the existing pages.
+     * @return The table with the titles of the page.
+     */
+    public String renderPage(List<Media> mediaList, int page) {
+        int clamped = Math.clamp(page, 0, getPageCount(mediaList.size()) - 1);
+        int from = clamped * getPageSize();
+        return render(mediaList, from, Math.min(mediaList.size(), from + getPageSize()));
+    }
+
+    /**
+     * Renders the titles between {@code from} (inclusive) and {@code to} (exclusive).
+     */
+    private String render(List<Media> mediaList, int from, int to) {
+        int rowCount = (to - from + COLUMNS - 1) / COLUMNS;
+        StringBuilder table = new StringBuilder((rowCount * 2 + 1) * (RULE.length() + 1));
+        table.append(RULE).append('\n');
+
+        for (int i = from; i < to; i += COLUMNS) {
+            for (int column = 0; column < COLUMNS; column++) {
+                table.append("| ").append(i + column < to ? cell(mediaList.get(i + column)) : EMPTY_CELL).append(' ');
+            }
+            table.append("|\n").append(RULE).append('\n');
+        }
+
+        table.setLength(table.length() - 1);
+        return table.toString();
+    }
+
+    @Override
+    public void onUpdated(Media previous, Media current) {
+        cells.remove(previous.getId());
+        cells.remove(current.getId());
+    }
+
+    @Override
+    public void onDeleted(Media media) {
+        cells.remove(media.getId());
+    }
+
+    private String cell(Media media) {
+        return cells.computeIfAbsent(media.getId(), _ -> format(media));
+    }
+
+    /**
+     * Formats "[id] title" to exactly {@link #CELL_WIDTH} characters, truncating long titles.
+     */
+    private static String format(Media media) {
+        String text = "[" + media.getId() + "] " + media.getTitle();
+        int length = text.codePointCount(0, text.length());
+
+        if (length > CELL_WIDTH) {
+            return text.substring(0, text.offsetByCodePoints(0, CELL_WIDTH - 1)) + "…";
+        }
+        return text + " ".repeat(CELL_WIDTH - length);
+    }
+}
@@ -0,0 +1,68 @@
+package com.netflix.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures for estimating the Jaccard similarity of sets of strings.
+ * <p>
+ * Each of the {@code n} positions keeps the minimum of an independent hash over the elements of the set. The
+ * probability that two sets agree on a position equals their Jaccard similarity, so comparing two signatures
+ * costs {@code n} integer comparisons regardless of the size of the sets.
+ */
+public class MinHash {
+    private final long[] seeds;
+
+    /**
+     * @param size The number of hash functions, i.e. the length of the signatures.
+     * @param seed The seed of the hash functions. Signatures are only comparable when built with the same seed.
+     */
+    public MinHash(int size, long seed) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("O tamanho da assinatura deve ser positivo.");
+        }
+        this.seeds = new SplittableRandom(seed).longs(size).toArray();
+    }
+
+    public int getSize() {
+        return seeds.length;
+    }
+
+    /**
+     * @param elements The set to summarize.
+     * @return The signature. An empty set gives a signature that only matches other empty sets.
+     */
+    public int[] signature(Collection<String> elements) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (String element : elements) {
+            long hash = element.hashCode() * 0x9E3779B97F4A7C15L;
+            for (int i = 0; i < seeds.length; i++) {
+                int value = (int) (Hashing.mix(hash ^ seeds[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * @return The fraction of positions on which two signatures agree, an estimate of the Jaccard similarity.
+     */
+    public static double similarity(int[] a, int[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("As assinaturas devem ter o mesmo tamanho.");
+        }
+
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+}
@@ -0,0 +1,96 @@
+package com.netflix.utils;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2 password hashing.
+ * <p>
+ * Hashes are encoded as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>} so the cost can be raised later
+ * without invalidating credentials stored with the previous cost.
+ */
+public class PasswordHasher {
+    public static final int DEFAULT_ITERATIONS = 210_000;
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    public PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * @param iterations The PBKDF2 iteration count used for new hashes.
+     */
+    public PasswordHasher(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("O número de iterações deve ser positivo.");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @param password The plaintext password.
+     * @return The encoded hash.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" +
+                encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Checks a password against an encoded hash in constant time.
+     *
+     * @param password The plaintext password.
+     * @param encoded  The encoded hash produced by {@link #hash(String)}.
+     * @return True if the password matches.
+     */
+    public boolean verify(String password, String encoded) {
+        if (password == null || encoded == null) {
+            return false;
+        }
+
+        String[] parts = encoded.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(PREFIX)) {
+            return false;
+        }
+
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] salt = decoder.decode(parts[2]);
+        byte[] expected = decoder.decode(parts[3]);
+
+        return MessageDigest.isEqual(expected, derive(password, salt, Integer.parseInt(parts[1])));
+    }
+
+    /**
+     * @return The iteration count used for new hashes.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 indisponível nesta JVM.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.netflix.utils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Bounded multi-producer ring buffer in the style of the LMAX Disruptor.
+ * <p>
+ * All event slots are allocated up front and reused: producers claim a sequence with a CAS, fill the slot
+ * returned by {@link #get(long)} and {@link #publish(long)} it. Consumers track their own sequence and are
+ * registered as gating sequences, so producers never overwrite a slot that a consumer has not processed.
+ * <pre>
+ * long sequence = ring.tryNext();
+ * if (sequence >= 0) {
+ *     ring.get(sequence).set(...);
+ *     ring.publish(sequence);
+ * }
+ * </pre>
+ *
+ * @param <E> The type of the preallocated event slots.
+ */
+public class RingBuffer<E> {
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final AtomicIntegerArray availableRounds;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<AtomicLong> gatingSequences = new CopyOnWriteArrayList<>();
+    private final WaitStrategy waitStrategy;
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder producerWaitNanos = new LongAdder();
+
+    /**
+     * @param size         The number of slots, rounded up to the next power of two.
+     * @param factory      Creates the preallocated event slots.
+     * @param waitStrategy How consumers wait for new events.
+     */
+    public RingBuffer(int size, Supplier<E> factory, WaitStrategy waitStrategy) {
+        int capacity = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+
+        this.entries = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.get();
+        }
+        this.mask = capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(capacity);
+        this.availableRounds = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            availableRounds.set(i, -1);
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Claims the next slot without waiting.
+     *
+     * @return The claimed sequence, or -1 if the buffer is full.
+     */
+    public long tryNext() {
+        long sequence = claim();
+        if (sequence < 0) {
+            rejectedCount.increment();
+        }
+        return sequence;
+    }
+
+    /**
+     * Claims the next slot, parking the producer while the buffer is full.
+     *
+     * @return The claimed sequence.
+     */
+    public long next() {
+        long sequence = claim();
+        if (sequence >= 0) {
+            return sequence;
+        }
+
+        long start = System.nanoTime();
+        while ((sequence = claim()) < 0) {
+            LockSupport.parkNanos(1_000);
+        }
+        producerWaitNanos.add(System.nanoTime() - start);
+        return sequence;
+    }
+
+    private long claim() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+
+            if (next - entries.length > minimumGatingSequence(current)) {
+                return -1;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) (sequence & mask)];
+    }
+
+    /**
+     * Makes a claimed slot visible to consumers.
+     *
+     * @param sequence The sequence returned by {@link #next()} or {@link #tryNext()}.
+     */
+    public void publish(long sequence) {
+        availableRounds.set((int) (sequence & mask), (int) (sequence >>> indexShift));
+        publishedCount.increment();
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * Returns the highest sequence that is published and contiguous from {@code lowerBound}.
+     * Producers may publish out of order, so a claimed sequence is not necessarily readable yet.
+     */
+    public long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (availableRounds.get((int) (sequence & mask)) != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void addGatingSequence(AtomicLong sequence) {
+        sequence.set(cursor.get());
+        gatingSequences.add(sequence);
+    }
+
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    public long getRemainingCapacity() {
+        long consumed = minimumGatingSequence(cursor.get());
+        return entries.length - (cursor.get() - consumed);
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getProducerWaitNanos() {
+        return producerWaitNanos.sum();
+    }
+
+    private long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (AtomicLong sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
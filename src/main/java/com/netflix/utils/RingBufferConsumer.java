@@ -0,0 +1,98 @@
+package com.netflix.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Consumes a {@link RingBuffer} on its own thread, handing events to a handler in batches.
+ * <p>
+ * The consumer reads every event published since its last pass before advancing its sequence, so the
+ * handler can amortize expensive work over the whole batch using the {@code endOfBatch} flag.
+ *
+ * @param <E> The type of the event slots.
+ */
+public class RingBufferConsumer<E> implements Runnable {
+
+    /**
+     * Receives the events of a {@link RingBufferConsumer}.
+     * The event slot is reused after the call returns, so it must not be retained.
+     */
+    @FunctionalInterface
+    public interface Handler<E> {
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    private final RingBuffer<E> ringBuffer;
+    private final Handler<E> handler;
+    private final AtomicLong sequence = new AtomicLong(-1);
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean running = true;
+
+    public RingBufferConsumer(RingBuffer<E> ringBuffer, Handler<E> handler) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+        ringBuffer.addGatingSequence(sequence);
+    }
+
+    @Override
+    public void run() {
+        WaitStrategy waitStrategy = ringBuffer.getWaitStrategy();
+        WaitStrategy.CursorSupplier cursor = ringBuffer::getCursor;
+        BooleanSupplier isRunning = () -> running;
+        long next = sequence.get() + 1;
+
+        while (running) {
+            long available;
+            try {
+                available = waitStrategy.waitFor(next, cursor, isRunning);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            available = ringBuffer.getHighestPublishedSequence(next, available);
+            if (available < next) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            for (long current = next; current <= available; current++) {
+                try {
+                    handler.onEvent(ringBuffer.get(current), current, current == available);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                }
+            }
+
+            sequence.set(available);
+            batches.increment();
+            next = available + 1;
+        }
+    }
+
+    public void halt() {
+        running = false;
+        ringBuffer.getWaitStrategy().signalAllWhenBlocking();
+    }
+
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * @return The number of events published but not yet processed by this consumer.
+     */
+    public long getLag() {
+        return ringBuffer.getCursor() - sequence.get();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,211 @@
+package com.netflix.utils;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Frame-based renderer for an ANSI terminal.
+ * <p>
+ * Output is collected in memory and written with a single {@code write} when the program is about to wait for
+ * input. A screen started with {@link #beginFrame()} is built in a back buffer and compared line by line with the
+ * lines already on the terminal: only the rows that changed are rewritten, using cursor positioning, and the rest
+ * of the old screen is erased with an escape code. Text printed outside a frame is appended as usual.
+ * <p>
+ * Rows are tracked by counting the lines written, the wrapped lines and the lines echoed by the terminal while
+ * the user typed. When the screen may have scrolled the renderer repaints the whole frame instead of diffing.
+ * The console is driven by a single thread, but background tasks may report errors on the same renderer, so the
+ * public methods are synchronized.
+ */
+public class TerminalRenderer {
+    private static final String ESC = "\u001B[";
+    private static final Pattern ANSI_SEQUENCE = Pattern.compile("\u001B\\[[0-9;?]*[A-Za-z]");
+
+    private final PrintStream out;
+    private final int rows;
+    private final int columns;
+
+    private final StringBuilder output = new StringBuilder(8192);
+    private final StringBuilder currentLine = new StringBuilder(256);
+    private List<String> back = new ArrayList<>();
+    private List<String> front = new ArrayList<>();
+    private boolean inFrame;
+    private boolean painted;
+    private boolean frontTracked;
+    private int rowsUsed;
+    private long writes;
+
+    /**
+     * @param out     The stream of the terminal.
+     * @param rows    The height of the terminal.
+     * @param columns The width of the terminal, used to account for wrapped lines.
+     */
+    public TerminalRenderer(PrintStream out, int rows, int columns) {
+        this.out = out;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a renderer for {@code System.out}. The size is read from the {@code netflix.terminal.rows} and
+     * {@code netflix.terminal.columns} system properties, then from the {@code LINES} and {@code COLUMNS}
+     * environment variables, defaulting to 24x80.
+     */
+    public static TerminalRenderer forSystemOut() {
+        return new TerminalRenderer(System.out, dimension("netflix.terminal.rows", "LINES", 24),
+                dimension("netflix.terminal.columns", "COLUMNS", 80));
+    }
+
+    /**
+     * Starts a new screen. Anything printed but not yet written is discarded, as it would have been cleared.
+     */
+    public synchronized void beginFrame() {
+        output.setLength(0);
+        currentLine.setLength(0);
+        back.clear();
+        inFrame = true;
+    }
+
+    public synchronized void print(String text) {
+        int start = 0;
+        int newline;
+        while ((newline = text.indexOf('\n', start)) >= 0) {
+            currentLine.append(text, start, newline);
+            endLine();
+            start = newline + 1;
+        }
+        currentLine.append(text, start, text.length());
+    }
+
+    public synchronized void println(String text) {
+        print(text);
+        endLine();
+    }
+
+    /**
+     * Writes everything collected since the last flush in one write. A pending frame is diffed against the screen.
+     */
+    public synchronized void flush() {
+        if (inFrame) {
+            paint();
+        } else if (!currentLine.isEmpty()) {
+            output.append(currentLine);
+            rowsUsed += rowsOf(currentLine) - 1;
+            currentLine.setLength(0);
+            frontTracked = false;
+        }
+
+        if (output.isEmpty()) {
+            return;
+        }
+
+        byte[] bytes = output.toString().getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+        out.flush();
+        output.setLength(0);
+        writes++;
+    }
+
+    /**
+     * Accounts for lines echoed by the terminal while the user typed. Rows below them are no longer known.
+     */
+    public synchronized void inputReceived(int lines) {
+        rowsUsed += lines;
+        frontTracked = false;
+    }
+
+    /**
+     * @return The number of writes made to the terminal.
+     */
+    public synchronized long getWriteCount() {
+        return writes;
+    }
+
+    private void endLine() {
+        String line = currentLine.toString();
+        currentLine.setLength(0);
+
+        if (inFrame) {
+            back.add(line);
+            return;
+        }
+
+        output.append(line).append('\n');
+        rowsUsed += rowsOf(line);
+        if (frontTracked) {
+            front.add(line);
+        }
+    }
+
+    /**
+     * Rewrites the rows whose content changed, or the whole screen when the old rows cannot be trusted.
+     */
+    private void paint() {
+        int frameRows = 0;
+        for (String line : back) {
+            frameRows += rowsOf(line);
+        }
+
+        boolean fullRepaint = !painted || rowsUsed >= rows || frameRows >= rows;
+        if (fullRepaint) {
+            output.append(ESC).append("H").append(ESC).append("2J");
+            for (String line : back) {
+                output.append(line).append('\n');
+            }
+        } else {
+            int row = 1;
+            int oldRow = 1;
+            for (int i = 0; i < back.size(); i++) {
+                String line = back.get(i);
+                boolean unchanged = i < front.size() && oldRow == row && front.get(i).equals(line);
+                if (!unchanged) {
+                    output.append(ESC).append(row).append(";1H").append(line).append(ESC).append("K");
+                }
+                if (i < front.size()) {
+                    oldRow += rowsOf(front.get(i));
+                }
+                row += rowsOf(line);
+            }
+            output.append(ESC).append(row).append(";1H");
+        }
+
+        output.append(currentLine).append(ESC).append("J");
+
+        rowsUsed = frameRows + rowsOf(currentLine) - 1;
+        List<String> previous = front;
+        front = back;
+        back = previous;
+        back.clear();
+        frontTracked = currentLine.isEmpty();
+        currentLine.setLength(0);
+        painted = true;
+        inFrame = false;
+    }
+
+    /**
+     * @return The number of terminal rows a line takes once wrapped.
+     */
+    private int rowsOf(CharSequence line) {
+        String visible = ANSI_SEQUENCE.matcher(line).replaceAll("");
+        int width = visible.codePointCount(0, visible.length());
+        return Math.max(1, (width + columns - 1) / columns);
+    }
+
+    private static int dimension(String property, String variable, int defaultValue) {
+        Integer value = Integer.getInteger(property);
+        if (value != null && value > 0) {
+            return value;
+        }
+
+        try {
+            String environment = System.getenv(variable);
+            if (environment != null && Integer.parseInt(environment.trim()) > 0) {
+                return Integer.parseInt(environment.trim());
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        return defaultValue;
+    }
+}
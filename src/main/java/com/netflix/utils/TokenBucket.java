@@ -0,0 +1,75 @@
+package com.netflix.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * <p>
+ * The bucket is stored as a single "theoretical arrival time" (the GCRA formulation of a token bucket):
+ * the instant at which the bucket would be full again. Acquiring a token is one CAS on that value, and a
+ * rejected attempt does not write anything, so abusive callers cannot create contention on the bucket.
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param capacity            The maximum number of tokens the bucket can hold.
+     * @param refillIntervalNanos The time needed to refill one token.
+     */
+    public TokenBucket(int capacity, long refillIntervalNanos) {
+        if (capacity <= 0 || refillIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Capacidade e intervalo devem ser positivos.");
+        }
+        this.intervalNanos = refillIntervalNanos;
+        this.burstNanos = refillIntervalNanos * capacity;
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Tries to take one token.
+     *
+     * @param nowNanos The current instant, in {@link System#nanoTime()} units.
+     * @return Zero if a token was taken, otherwise the number of nanoseconds until one becomes available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - burstNanos;
+
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Checks for a token without taking it.
+     *
+     * @param nowNanos The current instant, in {@link System#nanoTime()} units.
+     * @return Zero if a token is available, otherwise the number of nanoseconds until one becomes available.
+     */
+    public long getWaitNanos(long nowNanos) {
+        return Math.max(0, Math.max(fullAt.get(), nowNanos) + intervalNanos - nowNanos - burstNanos);
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire(long)}, e.g. when another limit rejected the same request.
+     */
+    public void release() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * @param nowNanos The current instant, in {@link System#nanoTime()} units.
+     * @return True if the bucket has been full since at least the given instant and can be discarded.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,142 @@
+package com.netflix.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Strategy used by {@link RingBuffer} consumers to wait for new events.
+ * The strategies trade latency for CPU usage, from busy spinning to blocking on a condition.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until the given sequence has been claimed by a producer.
+     *
+     * @param sequence The sequence the consumer needs.
+     * @param cursor   Supplier of the highest claimed sequence.
+     * @param running  Returns false once the consumer should stop waiting.
+     * @return The highest claimed sequence, which may be lower than {@code sequence} if the consumer was stopped.
+     */
+    long waitFor(long sequence, CursorSupplier cursor, BooleanSupplier running) throws InterruptedException;
+
+    /**
+     * Wakes up consumers blocked in {@link #waitFor}. Called by producers after each publication.
+     */
+    default void signalAllWhenBlocking() {
+    }
+
+    @FunctionalInterface
+    interface CursorSupplier {
+        long get();
+    }
+
+    /**
+     * Spins on the cursor. Lowest latency, burns a full core per consumer.
+     */
+    class BusySpin implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, CursorSupplier cursor, BooleanSupplier running) {
+            long available;
+            while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+    }
+
+    /**
+     * Spins briefly and then yields the CPU to other threads.
+     */
+    class Yielding implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public long waitFor(long sequence, CursorSupplier cursor, BooleanSupplier running) {
+            int counter = SPIN_TRIES;
+            long available;
+            while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+    }
+
+    /**
+     * Spins, yields and then parks for short periods. Good default for bursty, low-rate streams.
+     */
+    class Sleeping implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 100;
+        private final long sleepNanos;
+
+        public Sleeping() {
+            this(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        public Sleeping(long sleepNanos) {
+            this.sleepNanos = sleepNanos;
+        }
+
+        @Override
+        public long waitFor(long sequence, CursorSupplier cursor, BooleanSupplier running) {
+            int counter = SPIN_TRIES + YIELD_TRIES;
+            long available;
+            while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+                if (counter > YIELD_TRIES) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(sleepNanos);
+                }
+            }
+            return available;
+        }
+    }
+
+    /**
+     * Blocks on a condition until a producer signals. Lowest CPU usage, highest latency.
+     */
+    class Blocking implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+
+        @Override
+        public long waitFor(long sequence, CursorSupplier cursor, BooleanSupplier running) throws InterruptedException {
+            long available = cursor.get();
+            if (available >= sequence) {
+                return available;
+            }
+
+            lock.lock();
+            try {
+                while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+                    published.await(1, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}